@@ -2,7 +2,6 @@ package com.mopub.mobileads;
 
 import android.app.Activity;
 import android.content.Context;
-import android.os.Handler;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.util.Log;
@@ -47,12 +46,13 @@ public class AdColonyInterstitial extends CustomEventInterstitial {
 
     private CustomEventInterstitialListener mCustomEventInterstitialListener;
     private AdColonyInterstitialListener mAdColonyInterstitialListener;
-    private final Handler mHandler;
+    private final MainThreadDispatcher mDispatcher;
     private com.adcolony.sdk.AdColonyInterstitial mAdColonyInterstitial;
+    private MediationMetrics.Tracker mMetricsTracker;
     private static String[] previousAdColonyAllZoneIds;
 
     public AdColonyInterstitial() {
-        mHandler = new Handler();
+        mDispatcher = MainThreadDispatcher.getInstance();
     }
 
     @Override
@@ -77,6 +77,8 @@ public class AdColonyInterstitial extends CustomEventInterstitial {
             appId = serverExtras.get(APP_ID_KEY);
             allZoneIds = extractAllZoneIds(serverExtras);
             zoneId = serverExtras.get(ZONE_ID_KEY);
+            MediationWarmUp.getInstance().cacheServerExtras(context,
+                    AdColonyRewardedVideo.WarmUpInitializer.class, serverExtras);
         }
         AdColonyAppOptions mAdColonyAppOptions = AdColonyAppOptions.getMoPubAppOptions(clientOptions);
         // Pass the user consent from the MoPub SDK to AdColony as per GDPR
@@ -89,7 +91,7 @@ public class AdColonyInterstitial extends CustomEventInterstitial {
             }
         }
         mAdColonyInterstitialListener = getAdColonyInterstitialListener();
-        if (!isAdColonyConfigured()) {
+        if (!AdColonySdkState.isConfigured()) {
             AdColony.configure((Activity) context, mAdColonyAppOptions, appId, allZoneIds);
         } else if ((shouldReconfigure(previousAdColonyAllZoneIds, allZoneIds))) {
             // Need to check the zone IDs sent from the MoPub portal and reconfigure if they are
@@ -101,6 +103,7 @@ public class AdColonyInterstitial extends CustomEventInterstitial {
             // to pass this via setAppOptions()
             AdColony.setAppOptions(mAdColonyAppOptions);
         }
+        mMetricsTracker = MediationMetrics.getInstance().newTracker(TAG, zoneId);
         AdColony.requestInterstitial(zoneId, mAdColonyInterstitialListener);
     }
 
@@ -108,13 +111,14 @@ public class AdColonyInterstitial extends CustomEventInterstitial {
     protected void showInterstitial() {
         if (mAdColonyInterstitial == null || mAdColonyInterstitial.isExpired()) {
             Log.e(TAG, "AdColony interstitial ad is null or has expired");
-            mHandler.post(new Runnable() {
+            mDispatcher.post(new Runnable() {
                 @Override
                 public void run() {
                     mCustomEventInterstitialListener.onInterstitialFailed(MoPubErrorCode.VIDEO_PLAYBACK_ERROR);
                 }
             });
         } else {
+            mMetricsTracker.onShowRequested();
             mAdColonyInterstitial.show();
         }
     }
@@ -129,10 +133,6 @@ public class AdColonyInterstitial extends CustomEventInterstitial {
         }
     }
 
-    private boolean isAdColonyConfigured() {
-        return !AdColony.getSDKVersion().isEmpty();
-    }
-
     private AdColonyInterstitialListener getAdColonyInterstitialListener() {
         if (mAdColonyInterstitialListener != null) {
             return mAdColonyInterstitialListener;
@@ -142,7 +142,8 @@ public class AdColonyInterstitial extends CustomEventInterstitial {
                 public void onRequestFilled(@NonNull com.adcolony.sdk.AdColonyInterstitial adColonyInterstitial) {
                     mAdColonyInterstitial = adColonyInterstitial;
                     Log.d(TAG, "AdColony interstitial ad has been successfully loaded.");
-                    mHandler.post(new Runnable() {
+                    mMetricsTracker.onLoadSucceeded();
+                    mDispatcher.post(new Runnable() {
                         @Override
                         public void run() {
                             mCustomEventInterstitialListener.onInterstitialLoaded();
@@ -153,7 +154,8 @@ public class AdColonyInterstitial extends CustomEventInterstitial {
                 @Override
                 public void onRequestNotFilled(@NonNull AdColonyZone zone) {
                     Log.d(TAG, "AdColony interstitial ad has no fill.");
-                    mHandler.post(new Runnable() {
+                    mMetricsTracker.onLoadFailed(MoPubErrorCode.NETWORK_NO_FILL);
+                    mDispatcher.post(new Runnable() {
                         @Override
                         public void run() {
                             mCustomEventInterstitialListener.onInterstitialFailed(MoPubErrorCode.NETWORK_NO_FILL);
@@ -164,7 +166,7 @@ public class AdColonyInterstitial extends CustomEventInterstitial {
                 @Override
                 public void onClosed(@NonNull com.adcolony.sdk.AdColonyInterstitial ad) {
                     Log.d(TAG, "AdColony interstitial ad has been dismissed.");
-                    mHandler.post(new Runnable() {
+                    mDispatcher.post(new Runnable() {
                         @Override
                         public void run() {
                             mCustomEventInterstitialListener.onInterstitialDismissed();
@@ -175,7 +177,8 @@ public class AdColonyInterstitial extends CustomEventInterstitial {
                 @Override
                 public void onOpened(@NonNull com.adcolony.sdk.AdColonyInterstitial ad) {
                     Log.d(TAG, "AdColony interstitial ad shown: " + ad.getZoneID());
-                    mHandler.post(new Runnable() {
+                    mMetricsTracker.onImpression();
+                    mDispatcher.post(new Runnable() {
                         @Override
                         public void run() {
                             mCustomEventInterstitialListener.onInterstitialShown();
@@ -2,6 +2,7 @@ package com.mopub.mobileads;
 
 import android.app.Activity;
 import android.os.Handler;
+import android.os.Looper;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.util.Log;
@@ -26,15 +27,18 @@ import com.mopub.common.util.Json;
 
 import java.util.Arrays;
 import java.util.Map;
+import java.util.Queue;
 import java.util.WeakHashMap;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Please reference the Supported Mediation Partner page at http://bit.ly/2mqsuFH for the latest version and ad format certifications.
  */
 public class AdColonyRewardedVideo extends CustomEventRewardedVideo {
     private static final String TAG = "AdColonyRewardedVideo";
+    private static final String ADAPTER_NAME = AdColonyRewardedVideo.class.getSimpleName();
     /*
      * We recommend passing the AdColony client options, app ID, all zone IDs, and current zone ID
      * in the serverExtras Map by specifying Custom Event Data in MoPub's web interface.
@@ -69,18 +73,39 @@ public class AdColonyRewardedVideo extends CustomEventRewardedVideo {
     private AdColonyAppOptions mAdColonyAppOptions = new AdColonyAppOptions();
     private static WeakHashMap<String, AdColonyInterstitial> sZoneIdToAdMap = new WeakHashMap<>();
 
+    /*
+     * Zone ID -> adapter instances waiting on a fill for that zone, in request order. Every load
+     * makes its own request, so AdColony's request callbacks complete the oldest pending load
+     * directly instead of each instance polling sZoneIdToAdMap.
+     */
+    private static final ConcurrentMap<String, Queue<AdColonyRewardedVideo>> sPendingRequests =
+            new ConcurrentHashMap<>();
+
+    // For notifying the SDK on the main thread; shared by all instances.
+    private static final Handler sHandler = new Handler(Looper.getMainLooper());
+
     @NonNull
     private String mAdUnitId = "";
-    private boolean mIsLoading = false;
+    private MediationMetrics.Tracker mMetricsTracker;
 
-    // For waiting and notifying the SDK:
-    private final Handler mHandler;
-    private final ScheduledThreadPoolExecutor mScheduledThreadPoolExecutor;
-
-    public AdColonyRewardedVideo() {
-        mScheduledThreadPoolExecutor = new ScheduledThreadPoolExecutor(1);
-        mHandler = new Handler();
-    }
+    private final Runnable mNotifyLoadResultRunnable = new Runnable() {
+        @Override
+        public void run() {
+            if (hasVideoAvailable()) {
+                Log.d(TAG, "AdColony rewarded ad has been successfully loaded.");
+                mMetricsTracker.onLoadSucceeded();
+                MoPubRewardedVideoManager.onRewardedVideoLoadSuccess(
+                        AdColonyRewardedVideo.class,
+                        mZoneId);
+            } else {
+                mMetricsTracker.onLoadFailed(MoPubErrorCode.NETWORK_NO_FILL);
+                MoPubRewardedVideoManager.onRewardedVideoLoadFailure(
+                        AdColonyRewardedVideo.class,
+                        mZoneId,
+                        MoPubErrorCode.NETWORK_NO_FILL);
+            }
+        }
+    };
 
     @Nullable
     @Override
@@ -102,7 +127,8 @@ public class AdColonyRewardedVideo extends CustomEventRewardedVideo {
 
     @Override
     protected void onInvalidate() {
-        mScheduledThreadPoolExecutor.shutdownNow();
+        getPendingRequests(mZoneId).remove(this);
+        sHandler.removeCallbacks(mNotifyLoadResultRunnable);
         AdColonyInterstitial ad = sZoneIdToAdMap.get(mZoneId);
         if (ad != null) {
             ad.setListener(null);
@@ -130,11 +156,13 @@ public class AdColonyRewardedVideo extends CustomEventRewardedVideo {
                 adColonyClientOptions = serverExtras.get(CLIENT_OPTIONS_KEY);
                 adColonyAppId = serverExtras.get(APP_ID_KEY);
                 adColonyAllZoneIds = extractAllZoneIds(serverExtras);
+                MediationWarmUp.getInstance().cacheServerExtras(launcherActivity,
+                        WarmUpInitializer.class, serverExtras);
             }
 
             mAdColonyAppOptions = AdColonyAppOptions.getMoPubAppOptions(adColonyClientOptions);
 
-            if (!isAdColonyConfigured()) {
+            if (!AdColonySdkState.isConfigured()) {
                 previousAdColonyAllZoneIds = adColonyAllZoneIds;
                 AdColony.configure(launcherActivity, mAdColonyAppOptions, adColonyAppId, adColonyAllZoneIds);
             }
@@ -185,10 +213,11 @@ public class AdColonyRewardedVideo extends CustomEventRewardedVideo {
 
         sZoneIdToAdMap.put(mZoneId, null);
         setUpAdOptions();
-        mAdColonyListener = new AdColonyListener(mAdColonyAdOptions);
+        mMetricsTracker = MediationMetrics.getInstance().newTracker(ADAPTER_NAME, mZoneId);
+        mAdColonyListener = new AdColonyListener(mAdColonyAdOptions, mMetricsTracker);
         AdColony.setRewardListener(mAdColonyListener);
+        getPendingRequests(mZoneId).offer(this);
         AdColony.requestInterstitial(mZoneId, mAdColonyListener, mAdColonyAdOptions);
-        scheduleOnVideoReady();
     }
 
     private static boolean shouldReconfigure(String[] previousZones, String[] newZones) {
@@ -213,10 +242,6 @@ public class AdColonyRewardedVideo extends CustomEventRewardedVideo {
         mAdColonyAdOptions.enableResultsDialog(getResultsDialogFromSettings());
     }
 
-    private boolean isAdColonyConfigured() {
-        return !AdColony.getSDKVersion().isEmpty();
-    }
-
     @Override
     public boolean hasVideoAvailable() {
         return mAd != null && !mAd.isExpired();
@@ -225,6 +250,7 @@ public class AdColonyRewardedVideo extends CustomEventRewardedVideo {
     @Override
     public void showVideo() {
         if (this.hasVideoAvailable()) {
+            mMetricsTracker.onShowRequested();
             mAd.show();
         } else {
             MoPubRewardedVideoManager.onRewardedVideoPlaybackError(
@@ -234,7 +260,7 @@ public class AdColonyRewardedVideo extends CustomEventRewardedVideo {
         }
     }
 
-    private boolean extrasAreValid(Map<String, String> extras) {
+    private static boolean extrasAreValid(Map<String, String> extras) {
         return extras != null
                 && extras.containsKey(CLIENT_OPTIONS_KEY)
                 && extras.containsKey(APP_ID_KEY)
@@ -242,7 +268,7 @@ public class AdColonyRewardedVideo extends CustomEventRewardedVideo {
                 && extras.containsKey(ZONE_ID_KEY);
     }
 
-    private String[] extractAllZoneIds(Map<String, String> serverExtras) {
+    private static String[] extractAllZoneIds(Map<String, String> serverExtras) {
         String[] result = Json.jsonArrayToStringArray(serverExtras.get(ALL_ZONE_IDS_KEY));
 
         // AdColony requires at least one valid String in the allZoneIds array.
@@ -275,51 +301,50 @@ public class AdColonyRewardedVideo extends CustomEventRewardedVideo {
         return settings != null && settings.withResultsDialog();
     }
 
-    private void scheduleOnVideoReady() {
-        Runnable runnable = new Runnable() {
-            @Override
-            public void run() {
-                if (isAdAvailable(mZoneId)) {
-                    mAd = sZoneIdToAdMap.get(mZoneId);
-                    mIsLoading = false;
-                    mScheduledThreadPoolExecutor.shutdownNow();
-                    mHandler.post(new Runnable() {
-                        @Override
-                        public void run() {
-                            if (hasVideoAvailable()) {
-                                Log.d(TAG, "AdColony rewarded ad has been successfully loaded.");
-                                MoPubRewardedVideoManager.onRewardedVideoLoadSuccess(
-                                        AdColonyRewardedVideo.class,
-                                        mZoneId);
-                            } else {
-                                MoPubRewardedVideoManager.onRewardedVideoLoadFailure(
-                                        AdColonyRewardedVideo.class,
-                                        mZoneId,
-                                        MoPubErrorCode.NETWORK_NO_FILL);
-                            }
-                        }
-                    });
-                }
+    @NonNull
+    private static Queue<AdColonyRewardedVideo> getPendingRequests(@NonNull String zoneId) {
+        Queue<AdColonyRewardedVideo> pendingRequests = sPendingRequests.get(zoneId);
+        if (pendingRequests == null) {
+            final Queue<AdColonyRewardedVideo> newPendingRequests = new ConcurrentLinkedQueue<>();
+            pendingRequests = sPendingRequests.putIfAbsent(zoneId, newPendingRequests);
+            if (pendingRequests == null) {
+                pendingRequests = newPendingRequests;
             }
-        };
+        }
+        return pendingRequests;
+    }
+
+    private static void onZoneRequestFilled(@NonNull AdColonyInterstitial ad) {
+        final String zoneId = ad.getZoneID();
+        sZoneIdToAdMap.put(zoneId, ad);
 
-        if (!mIsLoading) {
-            mScheduledThreadPoolExecutor.scheduleAtFixedRate(runnable, 1, 1, TimeUnit.SECONDS);
-            mIsLoading = true;
+        final AdColonyRewardedVideo pendingRequest = getPendingRequests(zoneId).poll();
+        if (pendingRequest != null) {
+            pendingRequest.onVideoReady(ad);
         }
     }
 
-    private boolean isAdAvailable(String zoneId) {
-        return sZoneIdToAdMap.get(zoneId) != null;
+    private static void onZoneRequestNotFilled(@NonNull String zoneId) {
+        final AdColonyRewardedVideo pendingRequest = getPendingRequests(zoneId).poll();
+        if (pendingRequest != null) {
+            pendingRequest.mMetricsTracker.onLoadFailed(MoPubErrorCode.NETWORK_NO_FILL);
+        }
+    }
+
+    private void onVideoReady(@NonNull AdColonyInterstitial ad) {
+        mAd = ad;
+        sHandler.post(mNotifyLoadResultRunnable);
     }
 
     private static class AdColonyListener extends AdColonyInterstitialListener
             implements AdColonyRewardListener, CustomEventRewardedVideoListener {
         private static final String TAG = "AdColonyListener";
         private AdColonyAdOptions mAdOptions;
+        private final MediationMetrics.Tracker mMetricsTracker;
 
-        AdColonyListener(AdColonyAdOptions adOptions) {
+        AdColonyListener(AdColonyAdOptions adOptions, MediationMetrics.Tracker metricsTracker) {
             mAdOptions = adOptions;
+            mMetricsTracker = metricsTracker;
         }
 
         @Override
@@ -342,12 +367,13 @@ public class AdColonyRewardedVideo extends CustomEventRewardedVideo {
 
         @Override
         public void onRequestFilled(@NonNull AdColonyInterstitial adColonyInterstitial) {
-            sZoneIdToAdMap.put(adColonyInterstitial.getZoneID(), adColonyInterstitial);
+            AdColonyRewardedVideo.onZoneRequestFilled(adColonyInterstitial);
         }
 
         @Override
         public void onRequestNotFilled(@NonNull AdColonyZone zone) {
             Log.d(TAG, "AdColony rewarded ad has no fill.");
+            AdColonyRewardedVideo.onZoneRequestNotFilled(zone.getZoneID());
             MoPubRewardedVideoManager.onRewardedVideoLoadFailure(
                     AdColonyRewardedVideo.class,
                     zone.getZoneID(),
@@ -365,6 +391,7 @@ public class AdColonyRewardedVideo extends CustomEventRewardedVideo {
         @Override
         public void onOpened(@NonNull AdColonyInterstitial ad) {
             Log.d(TAG, "AdColony rewarded ad shown: " + ad.getZoneID());
+            mMetricsTracker.onImpression();
             MoPubRewardedVideoManager.onRewardedVideoStarted(
                     AdColonyRewardedVideo.class,
                     ad.getZoneID());
@@ -384,6 +411,33 @@ public class AdColonyRewardedVideo extends CustomEventRewardedVideo {
         }
     }
 
+    /**
+     * Warms up the AdColony SDK at app start. See {@link MediationWarmUp}.
+     */
+    public static class WarmUpInitializer implements MediationWarmUp.Initializer {
+        @Override
+        public void initialize(@NonNull Activity activity,
+                               @NonNull Map<String, String> serverExtras,
+                               @NonNull MediationWarmUp.InitializationListener listener) {
+            if (!extrasAreValid(serverExtras)) {
+                listener.onInitializationFinished(false);
+                return;
+            }
+
+            synchronized (AdColonyRewardedVideo.class) {
+                if (!AdColonySdkState.isConfigured()) {
+                    final String[] adColonyAllZoneIds = extractAllZoneIds(serverExtras);
+                    final AdColonyAppOptions appOptions = AdColonyAppOptions.getMoPubAppOptions(
+                            serverExtras.get(CLIENT_OPTIONS_KEY));
+                    previousAdColonyAllZoneIds = adColonyAllZoneIds;
+                    AdColony.configure(activity, appOptions, serverExtras.get(APP_ID_KEY),
+                            adColonyAllZoneIds);
+                }
+            }
+            listener.onInitializationFinished(true);
+        }
+    }
+
     public static final class AdColonyGlobalMediationSettings implements MediationSettings {
         @Nullable
         private final String mUserId;
@@ -0,0 +1,24 @@
+package com.mopub.mobileads;
+
+import com.adcolony.sdk.AdColony;
+
+/**
+ * Tracks whether {@link AdColony#configure} has run, for all the AdColony adapters.
+ * <p>
+ * AdColony only reports an SDK version once it is configured, and stays configured for the rest
+ * of the process, so the first positive answer is cached and later checks skip the SDK call.
+ */
+public class AdColonySdkState {
+
+    private static volatile boolean sConfigured;
+
+    private AdColonySdkState() {
+    }
+
+    public static boolean isConfigured() {
+        if (!sConfigured) {
+            sConfigured = !AdColony.getSDKVersion().isEmpty();
+        }
+        return sConfigured;
+    }
+}
@@ -0,0 +1,217 @@
+package com.mopub.mobileads;
+
+import android.app.Activity;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.os.Build;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.google.android.gms.ads.AdSize;
+import com.google.android.gms.ads.AdView;
+import com.mopub.common.logging.MoPubLog;
+import com.mopub.common.util.Views;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Keeps the {@link AdView}s of invalidated {@link GooglePlayServicesBanner}s so that the next
+ * refresh of the same slot can load into an already created view instead of building a new one.
+ * <p>
+ * MoPub loads the next banner while the current one is on screen and only invalidates the current
+ * one once the next has loaded, so a slot alternates between two views: one displayed and one
+ * warm in the pool. An {@link AdView}'s ad unit and size can only be set once, so views are only
+ * reused for the same ad unit, size and context. The pool holds at most
+ * {@link #MAX_POOLED_AD_VIEWS} views, destroys views that sit unused for
+ * {@link #IDLE_TTL_MILLIS}, and destroys all of them when the system asks the app to trim memory.
+ * Views whose Activity is finishing are destroyed instead of pooled, along with any pooled views
+ * of that Activity, so the pool never keeps a dead Activity alive. All methods must be called on
+ * the main thread.
+ */
+public class GooglePlayServicesAdViewPool {
+
+    static final int MAX_POOLED_AD_VIEWS = 4;
+    // Longer than a typical refresh interval, so that a refreshing slot always finds its view.
+    static final long IDLE_TTL_MILLIS = 90 * 1000;
+
+    private static final GooglePlayServicesAdViewPool sInstance =
+            new GooglePlayServicesAdViewPool();
+
+    @NonNull
+    private final List<PooledAdView> mPooledAdViews = new ArrayList<>();
+    private boolean mTrimCallbacksRegistered;
+    private long mReuseCount;
+    private long mTrimCount;
+
+    @NonNull
+    private final ComponentCallbacks2 mTrimCallbacks = new ComponentCallbacks2() {
+        @Override
+        public void onTrimMemory(final int level) {
+            // Only keep the views while the app is visible and the device isn't short on memory.
+            if (level >= TRIM_MEMORY_RUNNING_LOW) {
+                trim("onTrimMemory(" + level + ")");
+            }
+        }
+
+        @Override
+        public void onLowMemory() {
+            trim("onLowMemory");
+        }
+
+        @Override
+        public void onConfigurationChanged(final Configuration newConfig) {
+        }
+    };
+
+    @NonNull
+    public static GooglePlayServicesAdViewPool getInstance() {
+        return sInstance;
+    }
+
+    private GooglePlayServicesAdViewPool() {
+    }
+
+    /**
+     * Takes a pooled view created with the same context, ad unit and size, or returns null if
+     * there is none. The returned view has no listener set.
+     */
+    @Nullable
+    AdView acquire(@NonNull final Context context, @NonNull final String adUnitId,
+                   @NonNull final AdSize adSize) {
+        final Iterator<PooledAdView> iterator = mPooledAdViews.iterator();
+        while (iterator.hasNext()) {
+            final PooledAdView pooledAdView = iterator.next();
+            final AdView adView = pooledAdView.mAdView;
+            if (adView.getContext() == context
+                    && adUnitId.equals(adView.getAdUnitId())
+                    && adSize.equals(adView.getAdSize())) {
+                iterator.remove();
+                pooledAdView.mIdleTimeout.cancel();
+                adView.resume();
+                mReuseCount++;
+                return adView;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns a view that is no longer displayed to the pool, or destroys it if the pool is full.
+     */
+    void release(@NonNull final AdView adView) {
+        Views.removeFromParent(adView);
+        adView.setAdListener(null);
+
+        if (adView.getAdUnitId() == null || adView.getAdSize() == null) {
+            // Never configured, so no later load can match it.
+            adView.destroy();
+            return;
+        }
+
+        final Context context = adView.getContext();
+        if (isActivityGone(context)) {
+            // No later load can come from this Activity.
+            adView.destroy();
+            purge(context);
+            return;
+        }
+
+        registerTrimCallbacks(context);
+        if (mPooledAdViews.size() >= MAX_POOLED_AD_VIEWS) {
+            // Drop the view that has been idle the longest.
+            final PooledAdView oldest = mPooledAdViews.remove(0);
+            oldest.mIdleTimeout.cancel();
+            oldest.mAdView.destroy();
+        }
+
+        adView.pause();
+        final PooledAdView pooledAdView = new PooledAdView(adView);
+        pooledAdView.mIdleTimeout = AdExpirationWheel.getInstance().schedule(new Runnable() {
+            @Override
+            public void run() {
+                if (mPooledAdViews.remove(pooledAdView)) {
+                    pooledAdView.mAdView.destroy();
+                }
+            }
+        }, IDLE_TTL_MILLIS);
+        mPooledAdViews.add(pooledAdView);
+    }
+
+    public int getPooledCount() {
+        return mPooledAdViews.size();
+    }
+
+    /**
+     * Number of banner loads that reused a pooled view instead of creating one.
+     */
+    public long getReuseCount() {
+        return mReuseCount;
+    }
+
+    /**
+     * Number of times the pool was emptied because the system was low on memory.
+     */
+    public long getTrimCount() {
+        return mTrimCount;
+    }
+
+    private void trim(@NonNull final String reason) {
+        if (mPooledAdViews.isEmpty()) {
+            return;
+        }
+
+        MoPubLog.d("Destroying " + mPooledAdViews.size() + " pooled Google banner views on "
+                + reason + ".");
+        for (PooledAdView pooledAdView : mPooledAdViews) {
+            pooledAdView.mIdleTimeout.cancel();
+            pooledAdView.mAdView.destroy();
+        }
+        mPooledAdViews.clear();
+        mTrimCount++;
+    }
+
+    /**
+     * Destroys the pooled views created with the context.
+     */
+    private void purge(@NonNull final Context context) {
+        final Iterator<PooledAdView> iterator = mPooledAdViews.iterator();
+        while (iterator.hasNext()) {
+            final PooledAdView pooledAdView = iterator.next();
+            if (pooledAdView.mAdView.getContext() == context) {
+                iterator.remove();
+                pooledAdView.mIdleTimeout.cancel();
+                pooledAdView.mAdView.destroy();
+            }
+        }
+    }
+
+    private static boolean isActivityGone(@NonNull final Context context) {
+        if (!(context instanceof Activity)) {
+            return false;
+        }
+        final Activity activity = (Activity) context;
+        return activity.isFinishing()
+                || (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1
+                && activity.isDestroyed());
+    }
+
+    private void registerTrimCallbacks(@NonNull final Context context) {
+        if (!mTrimCallbacksRegistered) {
+            context.getApplicationContext().registerComponentCallbacks(mTrimCallbacks);
+            mTrimCallbacksRegistered = true;
+        }
+    }
+
+    private static final class PooledAdView {
+        @NonNull
+        final AdView mAdView;
+        AdExpirationWheel.Timeout mIdleTimeout;
+
+        PooledAdView(@NonNull final AdView adView) {
+            mAdView = adView;
+        }
+    }
+}
@@ -10,7 +10,6 @@ import com.google.android.gms.ads.AdRequest;
 import com.google.android.gms.ads.AdSize;
 import com.google.android.gms.ads.AdView;
 import com.mopub.common.MediationSettings;
-import com.mopub.common.util.Views;
 
 import java.util.Map;
 
@@ -20,6 +19,8 @@ import static com.google.android.gms.ads.AdSize.LEADERBOARD;
 import static com.google.android.gms.ads.AdSize.MEDIUM_RECTANGLE;
 
 public class GooglePlayServicesBanner extends CustomEventBanner {
+    private static final String ADAPTER_NAME = GooglePlayServicesBanner.class.getSimpleName();
+
     /*
      * These keys are intended for MoPub internal use. Do not modify.
      */
@@ -29,6 +30,7 @@ public class GooglePlayServicesBanner extends CustomEventBanner {
 
     private CustomEventBannerListener mBannerListener;
     private AdView mGoogleAdView;
+    private MediationMetrics.Tracker mMetricsTracker;
 
     @Override
     protected void loadBanner(
@@ -51,17 +53,20 @@ public class GooglePlayServicesBanner extends CustomEventBanner {
             return;
         }
 
-        mGoogleAdView = new AdView(context);
-        mGoogleAdView.setAdListener(new AdViewListener());
-        mGoogleAdView.setAdUnitId(adUnitId);
-
         final AdSize adSize = calculateAdSize(adWidth, adHeight);
         if (adSize == null) {
             mBannerListener.onBannerFailed(MoPubErrorCode.ADAPTER_CONFIGURATION_ERROR);
             return;
         }
 
-        mGoogleAdView.setAdSize(adSize);
+        // Refreshes of the same slot load into the view the previous banner left behind.
+        mGoogleAdView = GooglePlayServicesAdViewPool.getInstance().acquire(context, adUnitId, adSize);
+        if (mGoogleAdView == null) {
+            mGoogleAdView = new AdView(context);
+            mGoogleAdView.setAdUnitId(adUnitId);
+            mGoogleAdView.setAdSize(adSize);
+        }
+        mGoogleAdView.setAdListener(new AdViewListener());
 
         AdRequest.Builder builder = new AdRequest.Builder();
         builder.setRequestAgent("MoPub");
@@ -71,21 +76,22 @@ public class GooglePlayServicesBanner extends CustomEventBanner {
         forwardNpaIfSet(builder);
 
         AdRequest adRequest = builder.build();
+        mMetricsTracker = MediationMetrics.getInstance().newTracker(ADAPTER_NAME, adUnitId);
 
         try {
             mGoogleAdView.loadAd(adRequest);
         } catch (NoClassDefFoundError e) {
             // This can be thrown by Play Services on Honeycomb.
+            mMetricsTracker.onLoadFailed(MoPubErrorCode.NETWORK_NO_FILL);
             mBannerListener.onBannerFailed(MoPubErrorCode.NETWORK_NO_FILL);
         }
     }
 
     @Override
     protected void onInvalidate() {
-        Views.removeFromParent(mGoogleAdView);
         if (mGoogleAdView != null) {
-            mGoogleAdView.setAdListener(null);
-            mGoogleAdView.destroy();
+            GooglePlayServicesAdViewPool.getInstance().release(mGoogleAdView);
+            mGoogleAdView = null;
         }
     }
 
@@ -137,6 +143,9 @@ public class GooglePlayServicesBanner extends CustomEventBanner {
         @Override
         public void onAdFailedToLoad(int errorCode) {
             Log.d("MoPub", "Google Play Services banner ad failed to load.");
+            if (mMetricsTracker != null) {
+                mMetricsTracker.onLoadFailed(getMoPubErrorCode(errorCode));
+            }
             if (mBannerListener != null) {
                 mBannerListener.onBannerFailed(getMoPubErrorCode(errorCode));
             }
@@ -150,11 +159,23 @@ public class GooglePlayServicesBanner extends CustomEventBanner {
         @Override
         public void onAdLoaded() {
             Log.d("MoPub", "Google Play Services banner ad loaded successfully. Showing ad...");
+            if (mMetricsTracker != null) {
+                // Banners are shown as soon as they are handed to MoPub.
+                mMetricsTracker.onLoadSucceeded();
+                mMetricsTracker.onShowRequested();
+            }
             if (mBannerListener != null) {
                 mBannerListener.onBannerLoaded(mGoogleAdView);
             }
         }
 
+        @Override
+        public void onAdImpression() {
+            if (mMetricsTracker != null) {
+                mMetricsTracker.onImpression();
+            }
+        }
+
         @Override
         public void onAdOpened() {
             Log.d("MoPub", "Google Play Services banner ad clicked.");
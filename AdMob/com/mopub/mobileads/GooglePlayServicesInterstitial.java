@@ -13,6 +13,8 @@ import com.mopub.common.MediationSettings;
 import java.util.Map;
 
 public class GooglePlayServicesInterstitial extends CustomEventInterstitial {
+    private static final String ADAPTER_NAME = GooglePlayServicesInterstitial.class.getSimpleName();
+
     /*
      * These keys are intended for MoPub internal use. Do not modify.
      */
@@ -21,6 +23,7 @@ public class GooglePlayServicesInterstitial extends CustomEventInterstitial {
 
     private CustomEventInterstitialListener mInterstitialListener;
     private InterstitialAd mGoogleInterstitialAd;
+    private MediationMetrics.Tracker mMetricsTracker;
 
     @Override
     protected void loadInterstitial(
@@ -53,11 +56,13 @@ public class GooglePlayServicesInterstitial extends CustomEventInterstitial {
         forwardNpaIfSet(builder);
 
         AdRequest adRequest = builder.build();
+        mMetricsTracker = MediationMetrics.getInstance().newTracker(ADAPTER_NAME, adUnitId);
 
         try {
             mGoogleInterstitialAd.loadAd(adRequest);
         } catch (NoClassDefFoundError e) {
             // This can be thrown by Play Services on Honeycomb.
+            mMetricsTracker.onLoadFailed(MoPubErrorCode.NETWORK_NO_FILL);
             mInterstitialListener.onInterstitialFailed(MoPubErrorCode.NETWORK_NO_FILL);
         }
     }
@@ -74,6 +79,7 @@ public class GooglePlayServicesInterstitial extends CustomEventInterstitial {
     @Override
     protected void showInterstitial() {
         if (mGoogleInterstitialAd.isLoaded()) {
+            mMetricsTracker.onShowRequested();
             mGoogleInterstitialAd.show();
         } else {
             Log.d("MoPub", "Tried to show a Google Play Services interstitial ad before it finished loading. Please try again.");
@@ -106,6 +112,7 @@ public class GooglePlayServicesInterstitial extends CustomEventInterstitial {
         @Override
         public void onAdFailedToLoad(int errorCode) {
             Log.d("MoPub", "Google Play Services interstitial ad failed to load.");
+            mMetricsTracker.onLoadFailed(getMoPubErrorCode(errorCode));
             if (mInterstitialListener != null) {
                 mInterstitialListener.onInterstitialFailed(getMoPubErrorCode(errorCode));
             }
@@ -122,6 +129,7 @@ public class GooglePlayServicesInterstitial extends CustomEventInterstitial {
         @Override
         public void onAdLoaded() {
             Log.d("MoPub", "Google Play Services interstitial ad loaded successfully.");
+            mMetricsTracker.onLoadSucceeded();
             if (mInterstitialListener != null) {
                 mInterstitialListener.onInterstitialLoaded();
             }
@@ -130,6 +138,7 @@ public class GooglePlayServicesInterstitial extends CustomEventInterstitial {
         @Override
         public void onAdOpened() {
             Log.d("MoPub", "Showing Google Play Services interstitial ad.");
+            mMetricsTracker.onImpression();
             if (mInterstitialListener != null) {
                 mInterstitialListener.onInterstitialShown();
                 mInterstitialListener.onInterstitialImpression();
@@ -2,8 +2,6 @@ package com.mopub.mobileads;
 
 import android.app.Activity;
 import android.os.Bundle;
-import android.os.Handler;
-import android.os.Looper;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.text.TextUtils;
@@ -26,6 +24,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 public class GooglePlayServicesRewardedVideo extends CustomEventRewardedVideo implements
         RewardedVideoAdListener {
     private static final String TAG = "MoPubToAdMobRewarded";
+    private static final String ADAPTER_NAME = GooglePlayServicesRewardedVideo.class.getSimpleName();
 
     /**
      * The current version of the adapter.
@@ -65,6 +64,8 @@ public class GooglePlayServicesRewardedVideo extends CustomEventRewardedVideo im
      */
     private boolean isAdLoaded;
 
+    private MediationMetrics.Tracker mMetricsTracker;
+
     /**
      * A {@link LifecycleListener} used to forward the activity lifecycle events from MoPub SDK to
      * Google Mobile Ads SDK.
@@ -164,6 +165,7 @@ public class GooglePlayServicesRewardedVideo extends CustomEventRewardedVideo im
             return;
         }
         mAdUnitId = serverExtras.get(KEY_EXTRA_AD_UNIT_ID);
+        mMetricsTracker = MediationMetrics.getInstance().newTracker(ADAPTER_NAME, mAdUnitId);
 
         if (mRewardedVideoAd == null) {
             mRewardedVideoAd = MobileAds.getRewardedVideoAdInstance(activity);
@@ -172,10 +174,11 @@ public class GooglePlayServicesRewardedVideo extends CustomEventRewardedVideo im
 
         /* AdMob's isLoaded() has to be called on the main thread to avoid multithreading crashes
         when mediating on Unity */
-        new Handler(Looper.getMainLooper()).post(new Runnable() {
+        MainThreadDispatcher.getInstance().post(new Runnable() {
             @Override
             public void run() {
                 if (mRewardedVideoAd != null && mRewardedVideoAd.isLoaded()) {
+                    mMetricsTracker.onLoadSucceeded();
                     MoPubRewardedVideoManager
                             .onRewardedVideoLoadSuccess(GooglePlayServicesRewardedVideo.class, mAdUnitId);
                 } else {
@@ -210,6 +213,9 @@ public class GooglePlayServicesRewardedVideo extends CustomEventRewardedVideo im
     @Override
     protected void showVideo() {
         if (hasVideoAvailable()) {
+            if (mMetricsTracker != null) {
+                mMetricsTracker.onShowRequested();
+            }
             mRewardedVideoAd.show();
         } else {
             MoPubRewardedVideoManager.onRewardedVideoPlaybackError(
@@ -221,6 +227,9 @@ public class GooglePlayServicesRewardedVideo extends CustomEventRewardedVideo im
 
     @Override
     public void onRewardedVideoAdLoaded() {
+        if (mMetricsTracker != null) {
+            mMetricsTracker.onLoadSucceeded();
+        }
         MoPubRewardedVideoManager.onRewardedVideoLoadSuccess(
                 GooglePlayServicesRewardedVideo.class,
                 mAdUnitId);
@@ -234,6 +243,9 @@ public class GooglePlayServicesRewardedVideo extends CustomEventRewardedVideo im
 
     @Override
     public void onRewardedVideoStarted() {
+        if (mMetricsTracker != null) {
+            mMetricsTracker.onImpression();
+        }
         MoPubRewardedVideoManager.onRewardedVideoStarted(
                 GooglePlayServicesRewardedVideo.class,
                 mAdUnitId);
@@ -268,6 +280,9 @@ public class GooglePlayServicesRewardedVideo extends CustomEventRewardedVideo im
 
     @Override
     public void onRewardedVideoAdFailedToLoad(int error) {
+        if (mMetricsTracker != null) {
+            mMetricsTracker.onLoadFailed(getMoPubErrorCode(error));
+        }
         MoPubRewardedVideoManager.onRewardedVideoLoadFailure(
                 GooglePlayServicesRewardedVideo.class,
                 mAdUnitId,
@@ -101,10 +101,22 @@ public class GooglePlayServicesAdRenderer implements MoPubAdRenderer<GooglePlayS
             mViewHolderMap.put(view, viewHolder);
         }
 
-        UnifiedNativeAdView unifiedAdView = new UnifiedNativeAdView(view.getContext());
+        // Rebinding an already rendered view (e.g. a recycled list cell) reuses its Google
+        // unified ad view. It is only rebuilt when the margin swapping changes, since that
+        // affects how it is laid out around the actual ad view.
+        final boolean swapMargins = nativeAd.shouldSwapMargins();
+        UnifiedNativeAdView unifiedAdView = viewHolder.mUnifiedAdView;
+        if (unifiedAdView == null || viewHolder.mSwapMargins != swapMargins) {
+            if (unifiedAdView != null) {
+                removeGoogleUnifiedAdView(unifiedAdView, view, viewHolder.mSwapMargins);
+            }
+            unifiedAdView = new UnifiedNativeAdView(view.getContext());
+            insertGoogleUnifiedAdView(unifiedAdView, view, swapMargins);
+            viewHolder.mUnifiedAdView = unifiedAdView;
+            viewHolder.mSwapMargins = swapMargins;
+        }
 
         updateUnifiedAdview(nativeAd, viewHolder, unifiedAdView);
-        insertGoogleUnifiedAdView(unifiedAdView, view, nativeAd.shouldSwapMargins());
     }
 
     /**
@@ -156,6 +168,43 @@ public class GooglePlayServicesAdRenderer implements MoPubAdRenderer<GooglePlayS
         }
     }
 
+    /**
+     * This method will undo {@link #insertGoogleUnifiedAdView(UnifiedNativeAdView, View, boolean)},
+     * moving the actual ad view (and its margins, if they were swapped) back into the wrapping
+     * frame.
+     *
+     * @param googleUnifiedAdView Google's unified ad view previously added by this renderer.
+     * @param moPubNativeAdView   MoPub's native ad view created by this renderer.
+     * @param swappedMargins      {@code true} if the margins were swapped when the Google unified
+     *                            ad view was inserted, {@code false} otherwise.
+     */
+    private static void removeGoogleUnifiedAdView(UnifiedNativeAdView googleUnifiedAdView,
+                                                  View moPubNativeAdView,
+                                                  boolean swappedMargins) {
+        if (!(moPubNativeAdView instanceof FrameLayout)
+                || googleUnifiedAdView.getParent() != moPubNativeAdView
+                || googleUnifiedAdView.getChildCount() == 0) {
+            return;
+        }
+
+        FrameLayout outerFrame = (FrameLayout) moPubNativeAdView;
+        View actualView = googleUnifiedAdView.getChildAt(0);
+        if (swappedMargins) {
+            FrameLayout.LayoutParams googleNativeAdViewParams =
+                    (FrameLayout.LayoutParams) googleUnifiedAdView.getLayoutParams();
+            FrameLayout.LayoutParams actualViewParams =
+                    (FrameLayout.LayoutParams) actualView.getLayoutParams();
+            actualViewParams.setMargins(googleNativeAdViewParams.leftMargin,
+                    googleNativeAdViewParams.topMargin,
+                    googleNativeAdViewParams.rightMargin,
+                    googleNativeAdViewParams.bottomMargin);
+        }
+
+        googleUnifiedAdView.removeView(actualView);
+        outerFrame.removeView(googleUnifiedAdView);
+        outerFrame.addView(actualView);
+    }
+
     /**
      * This method will render the given native ad view using the native ad and set the views to
      * Google's native ad view.
@@ -178,11 +227,13 @@ public class GooglePlayServicesAdRenderer implements MoPubAdRenderer<GooglePlayS
                 staticNativeViewHolder.mTextView, staticNativeAd.getText());
         unifiedAdView.setBodyView(staticNativeViewHolder.mTextView);
         if (staticNativeViewHolder.mMediaView != null) {
-            MediaView mediaview = new MediaView(unifiedAdView.getContext());
-            staticNativeViewHolder.mMediaView.removeAllViews();
-            staticNativeViewHolder.mMediaView.addView(mediaview);
-            unifiedAdView.setMediaView(mediaview);
-
+            if (staticNativeViewHolder.mGoogleMediaView == null) {
+                MediaView mediaview = new MediaView(unifiedAdView.getContext());
+                staticNativeViewHolder.mMediaView.removeAllViews();
+                staticNativeViewHolder.mMediaView.addView(mediaview);
+                staticNativeViewHolder.mGoogleMediaView = mediaview;
+            }
+            unifiedAdView.setMediaView(staticNativeViewHolder.mGoogleMediaView);
         }
         NativeRendererHelper.addTextView(staticNativeViewHolder.mCallToActionView,
                 staticNativeAd.getCallToAction());
@@ -194,13 +245,20 @@ public class GooglePlayServicesAdRenderer implements MoPubAdRenderer<GooglePlayS
             NativeRendererHelper.addTextView(
                     staticNativeViewHolder.mAdvertiserTextView, staticNativeAd.getAdvertiser());
             unifiedAdView.setAdvertiserView(staticNativeViewHolder.mAdvertiserTextView);
+        } else if (staticNativeViewHolder.mAdvertiserTextView != null) {
+            // Clear the advertiser left over from a previous ad bound to this view.
+            NativeRendererHelper.addTextView(staticNativeViewHolder.mAdvertiserTextView, null);
+            unifiedAdView.setAdvertiserView(null);
         }
         // Add the AdChoices icon to the container if one is provided by the publisher.
         if (staticNativeViewHolder.mAdChoicesIconContainer != null) {
-            AdChoicesView adChoicesView = new AdChoicesView(unifiedAdView.getContext());
-            staticNativeViewHolder.mAdChoicesIconContainer.removeAllViews();
-            staticNativeViewHolder.mAdChoicesIconContainer.addView(adChoicesView);
-            unifiedAdView.setAdChoicesView(adChoicesView);
+            if (staticNativeViewHolder.mAdChoicesView == null) {
+                AdChoicesView adChoicesView = new AdChoicesView(unifiedAdView.getContext());
+                staticNativeViewHolder.mAdChoicesIconContainer.removeAllViews();
+                staticNativeViewHolder.mAdChoicesIconContainer.addView(adChoicesView);
+                staticNativeViewHolder.mAdChoicesView = adChoicesView;
+            }
+            unifiedAdView.setAdChoicesView(staticNativeViewHolder.mAdChoicesView);
         }
 
         // Set the privacy information icon to null as the Google Mobile Ads SDK automatically
@@ -241,9 +299,13 @@ public class GooglePlayServicesAdRenderer implements MoPubAdRenderer<GooglePlayS
         FrameLayout mAdChoicesIconContainer;
         @Nullable
         MediaLayout mMediaView;
-
-        private static final GoogleStaticNativeViewHolder EMPTY_VIEW_HOLDER =
-                new GoogleStaticNativeViewHolder();
+        @Nullable
+        UnifiedNativeAdView mUnifiedAdView;
+        boolean mSwapMargins;
+        @Nullable
+        MediaView mGoogleMediaView;
+        @Nullable
+        AdChoicesView mAdChoicesView;
 
         @NonNull
         public static GoogleStaticNativeViewHolder fromViewBinder(@NonNull View view,
@@ -291,7 +353,9 @@ public class GooglePlayServicesAdRenderer implements MoPubAdRenderer<GooglePlayS
                 return viewHolder;
             } catch (ClassCastException exception) {
                 MoPubLog.w("Could not cast from id in ViewBinder to expected View type", exception);
-                return EMPTY_VIEW_HOLDER;
+                // The holder is cached per view and later given its Google unified ad view, so
+                // an empty one can't be shared between views.
+                return new GoogleStaticNativeViewHolder();
             }
         }
     }
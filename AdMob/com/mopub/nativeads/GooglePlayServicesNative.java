@@ -3,6 +3,7 @@ package com.mopub.nativeads;
 import android.content.Context;
 import android.os.Bundle;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.text.TextUtils;
 import android.util.Log;
 import android.view.View;
@@ -15,6 +16,8 @@ import com.google.android.gms.ads.MobileAds;
 import com.google.android.gms.ads.formats.NativeAdOptions;
 import com.google.android.gms.ads.formats.UnifiedNativeAd;
 import com.mopub.common.MediationSettings;
+import com.mopub.mobileads.MainThreadDispatcher;
+import com.mopub.mobileads.MediationMetrics;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -26,6 +29,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
  */
 public class GooglePlayServicesNative extends CustomEventNative {
     protected static final String TAG = "MoPubToAdMobNative";
+    private static final String ADAPTER_NAME = GooglePlayServicesNative.class.getSimpleName();
 
     /**
      * The current version of the adapter.
@@ -57,6 +61,18 @@ public class GooglePlayServicesNative extends CustomEventNative {
      */
     public static final String KEY_EXPERIMENTAL_EXTRA_SWAP_MARGINS = "swap_margins";
 
+    /**
+     * Key to set the number of ads to request at once. Values above 1 turn on preloading: the
+     * extra ads are queued in {@link GooglePlayServicesNativeAdQueue} and serve later loads for
+     * the same ad unit without a request.
+     */
+    public static final String KEY_EXTRA_PRELOAD_COUNT = "preload_count";
+
+    /**
+     * The most ads requested at once when preloading.
+     */
+    private static final int MAX_PRELOAD_COUNT = 5;
+
     /**
      * Flag to determine whether or not the adapter has been initialized.
      */
@@ -84,8 +100,21 @@ public class GooglePlayServicesNative extends CustomEventNative {
             return;
         }
 
-        GooglePlayServicesNativeAd nativeAd = new GooglePlayServicesNativeAd(customEventNativeListener);
-        nativeAd.loadAd(context, adUnitId, localExtras);
+        GooglePlayServicesNativeAd nativeAd = new GooglePlayServicesNativeAd(customEventNativeListener,
+                MediationMetrics.getInstance().newTracker(ADAPTER_NAME, adUnitId));
+        final int preloadCount = getPreloadCount(localExtras);
+        if (preloadCount > 1 && nativeAd.loadFromQueue(adUnitId, localExtras)) {
+            return;
+        }
+        nativeAd.loadAd(context, adUnitId, localExtras, preloadCount);
+    }
+
+    private static int getPreloadCount(@NonNull Map<String, Object> localExtras) {
+        final Object preloadCount = localExtras.get(KEY_EXTRA_PRELOAD_COUNT);
+        if (!(preloadCount instanceof Integer)) {
+            return 1;
+        }
+        return Math.max(1, Math.min(MAX_PRELOAD_COUNT, (Integer) preloadCount));
     }
 
     /**
@@ -122,9 +151,19 @@ public class GooglePlayServicesNative extends CustomEventNative {
          */
         private UnifiedNativeAd mUnifiedNativeAd;
 
+        /**
+         * Forwards the click and impression callbacks of the AdLoader that loaded the Google
+         * unified ad to this ad.
+         */
+        private GooglePlayServicesNativeAdQueue.Binding mBinding;
+
+        private final MediationMetrics.Tracker mMetricsTracker;
+
         public GooglePlayServicesNativeAd(
-                CustomEventNativeListener customEventNativeListener) {
+                CustomEventNativeListener customEventNativeListener,
+                MediationMetrics.Tracker metricsTracker) {
             this.mCustomEventNativeListener = customEventNativeListener;
+            this.mMetricsTracker = metricsTracker;
         }
 
         public String getMediaView() {
@@ -277,14 +316,40 @@ public class GooglePlayServicesNative extends CustomEventNative {
         }
 
         /**
-         * This method will load native ads from Google for the given ad unit ID.
+         * Serves this ad from the ads preloaded for the ad unit, if there are any.
          *
-         * @param context  required to request a Google native ad.
-         * @param adUnitId Google's AdMob Ad Unit ID.
+         * @return {@code true} if an ad was taken from the queue and the listener will be
+         * notified that it loaded, {@code false} if the ad has to be requested.
          */
-        public void loadAd(final Context context, String adUnitId,
-                           Map<String, Object> localExtras) {
-            AdLoader.Builder builder = new AdLoader.Builder(context, adUnitId);
+        boolean loadFromQueue(String adUnitId, Map<String, Object> localExtras) {
+            final GooglePlayServicesNativeAdQueue.Entry entry =
+                    GooglePlayServicesNativeAdQueue.getInstance().poll(adUnitId);
+            if (entry == null) {
+                return false;
+            }
+
+            readSwapMargins(localExtras);
+            mUnifiedNativeAd = entry.mUnifiedNativeAd;
+            mBinding = entry.mBinding;
+            mBinding.bind(this);
+            prepareUnifiedNativeAd(mUnifiedNativeAd);
+
+            // Its images were precached when it was queued. Report the load after returning,
+            // like a network load would.
+            MainThreadDispatcher.getInstance().post(new Runnable() {
+                @Override
+                public void run() {
+                    mMetricsTracker.onLoadSucceeded();
+                    if (mCustomEventNativeListener != null) {
+                        mCustomEventNativeListener.onNativeAdLoaded(
+                                GooglePlayServicesNativeAd.this);
+                    }
+                }
+            });
+            return true;
+        }
+
+        private void readSwapMargins(Map<String, Object> localExtras) {
             // Get the experimental swap margins extra.
             if (localExtras.containsKey(KEY_EXPERIMENTAL_EXTRA_SWAP_MARGINS)) {
                 Object swapMarginExtra = localExtras.get(KEY_EXPERIMENTAL_EXTRA_SWAP_MARGINS);
@@ -292,6 +357,19 @@ public class GooglePlayServicesNative extends CustomEventNative {
                     mSwapMargins = (boolean) swapMarginExtra;
                 }
             }
+        }
+
+        /**
+         * This method will load native ads from Google for the given ad unit ID.
+         *
+         * @param context      required to request a Google native ad.
+         * @param adUnitId     Google's AdMob Ad Unit ID.
+         * @param preloadCount number of ads to request. The first valid one is served by this
+         *                     ad and the others are queued for later loads of the ad unit.
+         */
+        public void loadAd(final Context context, final String adUnitId,
+                           Map<String, Object> localExtras, final int preloadCount) {
+            readSwapMargins(localExtras);
 
             NativeAdOptions.Builder optionsBuilder = new NativeAdOptions.Builder();
 
@@ -321,72 +399,86 @@ public class GooglePlayServicesNative extends CustomEventNative {
 
             NativeAdOptions adOptions = optionsBuilder.build();
 
+            if (preloadCount <= 1) {
+                requestAd(context, adUnitId, adOptions, null);
+                return;
+            }
+
+            // Each preloaded ad gets its own AdLoader, since an AdLoader's AdListener doesn't
+            // say which of its ads a click or impression is for.
+            final Preload preload = new Preload(context, adUnitId, preloadCount);
+            for (int i = 0; i < preloadCount; i++) {
+                requestAd(context, adUnitId, adOptions, preload);
+            }
+        }
+
+        /**
+         * Requests a single ad. Without a preload, the ad is served by this ad or the load fails.
+         * With one, the first valid ad of the preload is served by this ad and the rest are
+         * queued.
+         */
+        private void requestAd(final Context context, final String adUnitId,
+                               NativeAdOptions adOptions, @Nullable final Preload preload) {
+            final GooglePlayServicesNativeAdQueue.Binding binding =
+                    new GooglePlayServicesNativeAdQueue.Binding();
+
+            AdLoader.Builder builder = new AdLoader.Builder(context, adUnitId);
             AdLoader adLoader =
                     builder.forUnifiedNativeAd(
                             new UnifiedNativeAd.OnUnifiedNativeAdLoadedListener() {
                                 @Override
                                 public void onUnifiedNativeAdLoaded(UnifiedNativeAd unifiedNativeAd) {
                                     if (!isValidUnifiedAd(unifiedNativeAd)) {
-                                        Log.i(TAG, "The Google native unified ad is missing one or "
-                                                + "more required assets, failing request.");
-                                        mCustomEventNativeListener.onNativeAdFailed(
-                                                NativeErrorCode.INVALID_RESPONSE);
-                                        return;
+                                        if (preload == null) {
+                                            Log.i(TAG, "The Google native unified ad is missing one or "
+                                                    + "more required assets, failing request.");
+                                            notifyLoadFailed(
+                                                    NativeErrorCode.INVALID_RESPONSE);
+                                            return;
+                                        }
+                                        Log.i(TAG, "Dropping a preloaded Google native unified ad "
+                                                + "that is missing one or more required assets.");
+                                        unifiedNativeAd.destroy();
+                                        preload.mErrorCode = NativeErrorCode.INVALID_RESPONSE;
+                                    } else if (mUnifiedNativeAd == null) {
+                                        mUnifiedNativeAd = unifiedNativeAd;
+                                        mBinding = binding;
+                                        binding.bind(GooglePlayServicesNativeAd.this);
+                                        preCacheImages(context, getImageUrls(unifiedNativeAd));
+                                    } else {
+                                        preload.mQueuedAds.add(new GooglePlayServicesNativeAdQueue
+                                                .Entry(unifiedNativeAd, binding));
                                     }
 
-                                    mUnifiedNativeAd = unifiedNativeAd;
-                                    List<com.google.android.gms.ads.formats.NativeAd.Image> images =
-                                            unifiedNativeAd.getImages();
-                                    List<String> imageUrls = new ArrayList<>();
-                                    com.google.android.gms.ads.formats.NativeAd.Image mainImage =
-                                            images.get(0);
-
-                                    // Assuming that the URI provided is an URL.
-                                    imageUrls.add(mainImage.getUri().toString());
-
-                                    com.google.android.gms.ads.formats.NativeAd.Image iconImage =
-                                            unifiedNativeAd.getIcon();
-                                    // Assuming that the URI provided is an URL.
-                                    imageUrls.add(iconImage.getUri().toString());
-                                    preCacheImages(context, imageUrls);
+                                    if (preload != null) {
+                                        onPreloadRequestFinished(preload);
+                                    }
                                 }
                             }).withAdListener(new AdListener() {
                         @Override
                         public void onAdClicked() {
                             super.onAdClicked();
-                            GooglePlayServicesNativeAd.this.notifyAdClicked();
+                            binding.notifyAdClicked();
                         }
 
                         @Override
                         public void onAdImpression() {
                             super.onAdImpression();
-                            GooglePlayServicesNativeAd.this.notifyAdImpressed();
+                            binding.notifyAdImpressed();
                         }
 
                         @Override
                         public void onAdFailedToLoad(int errorCode) {
                             super.onAdFailedToLoad(errorCode);
-                            switch (errorCode) {
-                                case AdRequest.ERROR_CODE_INTERNAL_ERROR:
-                                    mCustomEventNativeListener.onNativeAdFailed(
-                                            NativeErrorCode.NATIVE_ADAPTER_CONFIGURATION_ERROR);
-                                    break;
-                                case AdRequest.ERROR_CODE_INVALID_REQUEST:
-                                    mCustomEventNativeListener.onNativeAdFailed(
-                                            NativeErrorCode.NETWORK_INVALID_REQUEST);
-                                    break;
-                                case AdRequest.ERROR_CODE_NETWORK_ERROR:
-                                    mCustomEventNativeListener.onNativeAdFailed(
-                                            NativeErrorCode.CONNECTION_ERROR);
-                                    break;
-                                case AdRequest.ERROR_CODE_NO_FILL:
-                                    mCustomEventNativeListener.onNativeAdFailed(
-                                            NativeErrorCode.NETWORK_NO_FILL);
-                                    break;
-                                default:
-                                    mCustomEventNativeListener.onNativeAdFailed(
-                                            NativeErrorCode.UNSPECIFIED);
+                            if (preload != null) {
+                                preload.mErrorCode = getNativeErrorCode(errorCode);
+                                onPreloadRequestFinished(preload);
+                                return;
+                            }
+                            if (mCustomEventNativeListener == null) {
+                                return;
                             }
+                            notifyLoadFailed(getNativeErrorCode(errorCode));
                         }
                     }).withNativeAdOptions(adOptions).build();
 
@@ -397,8 +489,82 @@ public class GooglePlayServicesNative extends CustomEventNative {
             // Google's personalization preference. Publishers should work with Google to be GDPR-compliant.
             forwardNpaIfSet(requestBuilder);
 
-            AdRequest adRequest = requestBuilder.build();
-            adLoader.loadAd(adRequest);
+            adLoader.loadAd(requestBuilder.build());
+        }
+
+        private static NativeErrorCode getNativeErrorCode(int errorCode) {
+            switch (errorCode) {
+                case AdRequest.ERROR_CODE_INTERNAL_ERROR:
+                    return NativeErrorCode.NATIVE_ADAPTER_CONFIGURATION_ERROR;
+                case AdRequest.ERROR_CODE_INVALID_REQUEST:
+                    return NativeErrorCode.NETWORK_INVALID_REQUEST;
+                case AdRequest.ERROR_CODE_NETWORK_ERROR:
+                    return NativeErrorCode.CONNECTION_ERROR;
+                case AdRequest.ERROR_CODE_NO_FILL:
+                    return NativeErrorCode.NETWORK_NO_FILL;
+                default:
+                    return NativeErrorCode.UNSPECIFIED;
+            }
+        }
+
+        /**
+         * Called as each request of the preload returns. Once they all have, fails this ad if
+         * no valid ad came back, and queues the extra ads once their images are cached, all in
+         * one precache request.
+         */
+        private void onPreloadRequestFinished(final Preload preload) {
+            if (--preload.mPendingRequests > 0) {
+                return;
+            }
+
+            if (mUnifiedNativeAd == null && mCustomEventNativeListener != null) {
+                Log.i(TAG, "None of the preloaded Google native unified ads could be served, "
+                        + "failing request.");
+                notifyLoadFailed(preload.mErrorCode);
+            }
+            if (preload.mQueuedAds.isEmpty()) {
+                return;
+            }
+
+            final List<GooglePlayServicesNativeAdQueue.Entry> adsToQueue =
+                    new ArrayList<>(preload.mQueuedAds);
+            final List<String> imageUrls = new ArrayList<>();
+            for (GooglePlayServicesNativeAdQueue.Entry entry : adsToQueue) {
+                imageUrls.addAll(getImageUrls(entry.mUnifiedNativeAd));
+            }
+
+            NativeImagePrecacher.getInstance().preCacheImages(preload.mContext, imageUrls,
+                    new NativeImageHelper.ImageListener() {
+                        @Override
+                        public void onImagesCached() {
+                            for (GooglePlayServicesNativeAdQueue.Entry entry : adsToQueue) {
+                                GooglePlayServicesNativeAdQueue.getInstance().offer(
+                                        preload.mAdUnitId, entry);
+                            }
+                        }
+
+                        @Override
+                        public void onImagesFailedToCache(NativeErrorCode errorCode) {
+                            for (GooglePlayServicesNativeAdQueue.Entry entry : adsToQueue) {
+                                entry.mUnifiedNativeAd.destroy();
+                            }
+                        }
+                    });
+        }
+
+        private static List<String> getImageUrls(UnifiedNativeAd unifiedNativeAd) {
+            List<String> imageUrls = new ArrayList<>();
+            com.google.android.gms.ads.formats.NativeAd.Image mainImage =
+                    unifiedNativeAd.getImages().get(0);
+
+            // Assuming that the URI provided is an URL.
+            imageUrls.add(mainImage.getUri().toString());
+
+            com.google.android.gms.ads.formats.NativeAd.Image iconImage =
+                    unifiedNativeAd.getIcon();
+            // Assuming that the URI provided is an URL.
+            imageUrls.add(iconImage.getUri().toString());
+            return imageUrls;
         }
 
         private void forwardNpaIfSet(AdRequest.Builder builder) {
@@ -468,8 +634,8 @@ public class GooglePlayServicesNative extends CustomEventNative {
 
         @Override
         public void prepare(@NonNull View view) {
-            // Adding click and impression trackers is handled by the GooglePlayServicesRenderer,
-            // do nothing here.
+            mMetricsTracker.onShowRequested();
+            // Adding click and impression trackers is handled by the GooglePlayServicesRenderer.
         }
 
         @Override
@@ -486,6 +652,24 @@ public class GooglePlayServicesNative extends CustomEventNative {
             if (mUnifiedNativeAd != null) {
                 mUnifiedNativeAd.destroy();
             }
+            if (mBinding != null) {
+                mBinding.unbind(this);
+            }
+        }
+
+        /**
+         * Records the impression reported by Google before forwarding it to MoPub.
+         */
+        void onGoogleAdImpression() {
+            mMetricsTracker.onImpression();
+            notifyAdImpressed();
+        }
+
+        private void notifyLoadFailed(NativeErrorCode errorCode) {
+            mMetricsTracker.onLoadFailed(errorCode);
+            if (mCustomEventNativeListener != null) {
+                mCustomEventNativeListener.onNativeAdFailed(errorCode);
+            }
         }
 
         /**
@@ -496,12 +680,13 @@ public class GooglePlayServicesNative extends CustomEventNative {
          * @param imageUrls the urls of images that need to be cached.
          */
         private void preCacheImages(Context context, List<String> imageUrls) {
-            NativeImageHelper.preCacheImages(context, imageUrls,
+            NativeImagePrecacher.getInstance().preCacheImages(context, imageUrls,
                     new NativeImageHelper.ImageListener() {
                         @Override
                         public void onImagesCached() {
                             if (mUnifiedNativeAd != null) {
                                 prepareUnifiedNativeAd(mUnifiedNativeAd);
+                                mMetricsTracker.onLoadSucceeded();
                                 mCustomEventNativeListener.onNativeAdLoaded(
                                         GooglePlayServicesNativeAd.this);
                             }
@@ -509,7 +694,7 @@ public class GooglePlayServicesNative extends CustomEventNative {
 
                         @Override
                         public void onImagesFailedToCache(NativeErrorCode errorCode) {
-                            mCustomEventNativeListener.onNativeAdFailed(errorCode);
+                            notifyLoadFailed(errorCode);
                         }
                     });
         }
@@ -543,6 +728,25 @@ public class GooglePlayServicesNative extends CustomEventNative {
                 setPrice(unifiedNativeAd.getPrice());
             }
         }
+
+        /**
+         * The state shared by the requests of one preload.
+         */
+        private static final class Preload {
+            final Context mContext;
+            final String mAdUnitId;
+            // The valid ads that weren't served by the ad that made the preload.
+            final List<GooglePlayServicesNativeAdQueue.Entry> mQueuedAds = new ArrayList<>();
+            int mPendingRequests;
+            // Why the last unsuccessful request failed, reported if none of them succeeds.
+            NativeErrorCode mErrorCode = NativeErrorCode.UNSPECIFIED;
+
+            Preload(Context context, String adUnitId, int requestCount) {
+                mContext = context;
+                mAdUnitId = adUnitId;
+                mPendingRequests = requestCount;
+            }
+        }
     }
 
     public static final class GooglePlayServicesMediationSettings implements MediationSettings {
@@ -0,0 +1,172 @@
+package com.mopub.nativeads;
+
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.google.android.gms.ads.formats.UnifiedNativeAd;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Holds the extra Google unified ads preloaded by {@link GooglePlayServicesNative}, per AdMob ad
+ * unit, until later loads for the same ad unit take them.
+ * <p>
+ * Each ad unit keeps at most {@link #MAX_QUEUED_ADS_PER_AD_UNIT} ads, oldest first. Ads older
+ * than {@link #AD_TTL_MILLIS} are destroyed instead of being served. Depth and staleness are
+ * exposed through {@link #getQueueDepth(String)}, {@link #getOldestAdAgeMillis(String)} and
+ * {@link #getExpiredCount()}.
+ */
+public class GooglePlayServicesNativeAdQueue {
+
+    static final int MAX_QUEUED_ADS_PER_AD_UNIT = 5;
+    // Google asks that native ads are not shown more than an hour after they load.
+    static final long AD_TTL_MILLIS = 60 * 60 * 1000;
+
+    private static final GooglePlayServicesNativeAdQueue sInstance =
+            new GooglePlayServicesNativeAdQueue();
+
+    @NonNull
+    private final Map<String, Deque<Entry>> mQueues = new HashMap<>();
+    private long mServedCount;
+    private long mExpiredCount;
+    private long mOverflowCount;
+
+    @NonNull
+    public static GooglePlayServicesNativeAdQueue getInstance() {
+        return sInstance;
+    }
+
+    private GooglePlayServicesNativeAdQueue() {
+    }
+
+    synchronized void offer(@NonNull final String adUnitId, @NonNull final Entry entry) {
+        Deque<Entry> queue = mQueues.get(adUnitId);
+        if (queue == null) {
+            queue = new ArrayDeque<>();
+            mQueues.put(adUnitId, queue);
+        }
+
+        pruneExpired(queue);
+        if (queue.size() >= MAX_QUEUED_ADS_PER_AD_UNIT) {
+            queue.pollFirst().mUnifiedNativeAd.destroy();
+            mOverflowCount++;
+        }
+        queue.addLast(entry);
+    }
+
+    /**
+     * Takes the oldest unexpired ad queued for the ad unit, or returns null if there is none.
+     */
+    @Nullable
+    synchronized Entry poll(@NonNull final String adUnitId) {
+        final Deque<Entry> queue = mQueues.get(adUnitId);
+        if (queue == null) {
+            return null;
+        }
+
+        pruneExpired(queue);
+        final Entry entry = queue.pollFirst();
+        if (entry != null) {
+            mServedCount++;
+        }
+        return entry;
+    }
+
+    public synchronized int getQueueDepth(@NonNull final String adUnitId) {
+        final Deque<Entry> queue = mQueues.get(adUnitId);
+        return queue == null ? 0 : queue.size();
+    }
+
+    /**
+     * Age of the oldest ad queued for the ad unit, or 0 if none is queued.
+     */
+    public synchronized long getOldestAdAgeMillis(@NonNull final String adUnitId) {
+        final Deque<Entry> queue = mQueues.get(adUnitId);
+        final Entry oldest = queue == null ? null : queue.peekFirst();
+        return oldest == null ? 0 : SystemClock.elapsedRealtime() - oldest.mLoadedAtMillis;
+    }
+
+    public synchronized long getServedCount() {
+        return mServedCount;
+    }
+
+    /**
+     * Number of ads destroyed unshown because they outlived {@link #AD_TTL_MILLIS}.
+     */
+    public synchronized long getExpiredCount() {
+        return mExpiredCount;
+    }
+
+    /**
+     * Number of ads destroyed unshown because their ad unit's queue was full.
+     */
+    public synchronized long getOverflowCount() {
+        return mOverflowCount;
+    }
+
+    private void pruneExpired(@NonNull final Deque<Entry> queue) {
+        final long now = SystemClock.elapsedRealtime();
+        final Iterator<Entry> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            final Entry entry = iterator.next();
+            if (now - entry.mLoadedAtMillis < AD_TTL_MILLIS) {
+                // Entries are in load order, so the rest are fresher still.
+                return;
+            }
+            iterator.remove();
+            entry.mUnifiedNativeAd.destroy();
+            mExpiredCount++;
+        }
+    }
+
+    static final class Entry {
+        @NonNull
+        final UnifiedNativeAd mUnifiedNativeAd;
+        @NonNull
+        final Binding mBinding;
+        final long mLoadedAtMillis = SystemClock.elapsedRealtime();
+
+        Entry(@NonNull final UnifiedNativeAd unifiedNativeAd, @NonNull final Binding binding) {
+            mUnifiedNativeAd = unifiedNativeAd;
+            mBinding = binding;
+        }
+    }
+
+    /**
+     * Each Google unified ad is loaded by its own {@link com.google.android.gms.ads.AdLoader},
+     * whose {@link com.google.android.gms.ads.AdListener} reports clicks and impressions through
+     * this binding to the {@link GooglePlayServicesNative.GooglePlayServicesNativeAd} serving
+     * the ad, once one does.
+     */
+    static final class Binding {
+        @Nullable
+        private GooglePlayServicesNative.GooglePlayServicesNativeAd mAd;
+
+        void bind(@NonNull final GooglePlayServicesNative.GooglePlayServicesNativeAd ad) {
+            mAd = ad;
+        }
+
+        void unbind(@NonNull final GooglePlayServicesNative.GooglePlayServicesNativeAd ad) {
+            if (mAd == ad) {
+                mAd = null;
+            }
+        }
+
+        void notifyAdClicked() {
+            if (mAd != null) {
+                mAd.notifyAdClicked();
+            }
+        }
+
+        void notifyAdImpressed() {
+            if (mAd != null) {
+                mAd.onGoogleAdImpression();
+            }
+        }
+    }
+}
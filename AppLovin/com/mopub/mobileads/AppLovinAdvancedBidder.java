@@ -1,19 +1,31 @@
 package com.mopub.mobileads;
 
 import android.content.Context;
+import android.support.annotation.NonNull;
 
-import com.applovin.sdk.AppLovinSdk;
 import com.mopub.common.MoPubAdvancedBidder;
 
 public class AppLovinAdvancedBidder
         implements MoPubAdvancedBidder {
+    private static final String CREATIVE_NETWORK_NAME = "applovin_sdk";
+
+    public AppLovinAdvancedBidder() {
+        AdvancedBidderTokenCollector.getInstance().register(CREATIVE_NETWORK_NAME,
+                new AdvancedBidderTokenCollector.TokenFetcher() {
+                    @Override
+                    public String fetchToken(@NonNull final Context context) {
+                        return AppLovinSdkManager.getSdk(null, context).getAdService().getBidToken();
+                    }
+                });
+    }
+
     @Override
     public String getCreativeNetworkName() {
-        return "applovin_sdk";
+        return CREATIVE_NETWORK_NAME;
     }
 
     @Override
     public String getToken(final Context context) {
-        return AppLovinSdk.getInstance(context).getAdService().getBidToken();
+        return AdvancedBidderTokenCollector.getInstance().getToken(context, CREATIVE_NETWORK_NAME);
     }
 }
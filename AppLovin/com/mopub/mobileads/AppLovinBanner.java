@@ -2,8 +2,6 @@ package com.mopub.mobileads;
 
 import android.app.Activity;
 import android.content.Context;
-import android.os.Handler;
-import android.os.Looper;
 import android.text.TextUtils;
 
 import com.applovin.adview.AppLovinAdView;
@@ -15,19 +13,15 @@ import com.applovin.sdk.AppLovinAdDisplayListener;
 import com.applovin.sdk.AppLovinAdLoadListener;
 import com.applovin.sdk.AppLovinAdSize;
 import com.applovin.sdk.AppLovinErrorCodes;
-import com.applovin.sdk.AppLovinMediationProvider;
-import com.applovin.sdk.AppLovinPrivacySettings;
 import com.applovin.sdk.AppLovinSdk;
-import com.applovin.sdk.AppLovinSdkSettings;
 import com.mopub.common.DataKeys;
-import com.mopub.common.MoPub;
 import com.mopub.common.logging.MoPubLog;
 
 import java.util.Map;
 
 public class AppLovinBanner extends CustomEventBanner {
 
-    private static final Handler UI_HANDLER = new Handler(Looper.getMainLooper());
+    private static final String ADAPTER_NAME = AppLovinBanner.class.getSimpleName();
 
     private static final int BANNER_STANDARD_HEIGHT = 50;
     private static final int BANNER_HEIGHT_OFFSET_TOLERANCE = 10;
@@ -39,6 +33,13 @@ public class AppLovinBanner extends CustomEventBanner {
 
     private static final String ZONE_ID_SERVER_EXTRAS_KEY = "zone_id";
 
+    /**
+     * Local extras key to turn on banner prefetching (Boolean). Each load is then served from a
+     * banner fetched in the background when one is ready, and fetches the next one. Banners
+     * loaded from ad markup are never prefetched.
+     */
+    public static final String KEY_EXTRA_PREFETCH = "applovin_banner_prefetch";
+
     //
     // MoPub Custom Event Methods
     //
@@ -46,10 +47,6 @@ public class AppLovinBanner extends CustomEventBanner {
     @Override
     protected void loadBanner(final Context context, final CustomEventBannerListener customEventBannerListener, final Map<String, Object> localExtras, final Map<String, String> serverExtras) {
 
-        // Pass the user consent from the MoPub SDK to AppLovin as per GDPR
-        boolean canCollectPersonalInfo = MoPub.canCollectPersonalInformation();
-        AppLovinPrivacySettings.setHasUserConsent(canCollectPersonalInfo, context);
-
         // SDK versions BELOW 7.1.0 require a instance of an Activity to be passed in as the context
         if (AppLovinSdk.VERSION_CODE < 710 && !(context instanceof Activity)) {
             MoPubLog.d("Unable to request AppLovin banner. Invalid context provided.");
@@ -68,62 +65,46 @@ public class AppLovinBanner extends CustomEventBanner {
 
             MoPubLog.d("Requesting AppLovin banner with serverExtras: " + serverExtras + ", localExtras: " + localExtras + " and has ad markup: " + hasAdMarkup);
 
-            AppLovinSdk sdk = retrieveSdk(serverExtras, context);
-            sdk.setPluginVersion("MoPub-3.1.0");
-            sdk.setMediationProvider(AppLovinMediationProvider.MOPUB);
+            // Also passes the user consent from the MoPub SDK to AppLovin as per GDPR
+            AppLovinSdk sdk = AppLovinSdkManager.getSdk(serverExtras, context);
 
+            // Determine zone
+            final String zoneId = serverExtras.get(ZONE_ID_SERVER_EXTRAS_KEY);
+            final boolean prefetch = !hasAdMarkup
+                    && Boolean.TRUE.equals(localExtras.get(KEY_EXTRA_PREFETCH));
+            final MediationMetrics.Tracker metricsTracker =
+                    MediationMetrics.getInstance().newTracker(ADAPTER_NAME, zoneId);
             final AppLovinAdView adView = new AppLovinAdView(sdk, adSize, context);
-            adView.setAdDisplayListener(new AppLovinAdDisplayListener() {
-                @Override
-                public void adDisplayed(final AppLovinAd ad) {
-                    MoPubLog.d("Banner displayed");
-                }
-
-                @Override
-                public void adHidden(final AppLovinAd ad) {
-                    MoPubLog.d("Banner dismissed");
-                }
-            });
-            adView.setAdClickListener(new AppLovinAdClickListener() {
-                @Override
-                public void adClicked(final AppLovinAd ad) {
-                    MoPubLog.d("Banner clicked");
-
-                    if (customEventBannerListener != null) {
-                        customEventBannerListener.onBannerClicked();
-                    }
-                }
-            });
-
-
-            adView.setAdViewEventListener(new AppLovinAdViewEventListener() {
-                @Override
-                public void adOpenedFullscreen(final AppLovinAd appLovinAd, final AppLovinAdView appLovinAdView) {
-                    MoPubLog.d("Banner opened fullscreen");
-
-                    if (customEventBannerListener != null) {
-                        customEventBannerListener.onBannerExpanded();
-                    }
-                }
-
-                @Override
-                public void adClosedFullscreen(final AppLovinAd appLovinAd, final AppLovinAdView appLovinAdView) {
-                    MoPubLog.d("Banner closed fullscreen");
-
-                    if (customEventBannerListener != null) {
-                        customEventBannerListener.onBannerCollapsed();
-                    }
-                }
-
-                @Override
-                public void adLeftApplication(final AppLovinAd appLovinAd, final AppLovinAdView appLovinAdView) {
-                    MoPubLog.d("Banner left application");
-                }
+            setListeners(adView, customEventBannerListener, metricsTracker);
+
+            if (prefetch) {
+                final AppLovinAd prefetchedAd =
+                        AppLovinBannerPrefetcher.getInstance().take(sdk, zoneId, adSize);
+                AppLovinBannerPrefetcher.getInstance().prefetch(sdk, zoneId, adSize);
+                if (prefetchedAd != null) {
+                    MoPubLog.d("Showing prefetched AppLovin banner");
+                    adView.renderAd(prefetchedAd);
+
+                    // Report the load after returning, like a network load would.
+                    MainThreadDispatcher.getInstance().post(new Runnable() {
+                        @Override
+                        public void run() {
+                            metricsTracker.onLoadSucceeded();
+                            // Banners are shown as soon as they are handed to MoPub.
+                            metricsTracker.onShowRequested();
 
-                @Override
-                public void adFailedToDisplay(final AppLovinAd appLovinAd, final AppLovinAdView appLovinAdView, final AppLovinAdViewDisplayErrorCode appLovinAdViewDisplayErrorCode) {
+                            try {
+                                if (customEventBannerListener != null) {
+                                    customEventBannerListener.onBannerLoaded(adView);
+                                }
+                            } catch (Throwable th) {
+                                MoPubLog.e("Unable to notify listener of successful ad load.", th);
+                            }
+                        }
+                    });
+                    return;
                 }
-            });
+            }
 
             final AppLovinAdLoadListener adLoadListener = new AppLovinAdLoadListener() {
                 @Override
@@ -135,6 +116,8 @@ public class AppLovinBanner extends CustomEventBanner {
                             adView.renderAd(ad);
 
                             MoPubLog.d("Successfully loaded banner ad");
+                            metricsTracker.onLoadSucceeded();
+                            metricsTracker.onShowRequested();
 
                             try {
                                 if (customEventBannerListener != null) {
@@ -154,6 +137,7 @@ public class AppLovinBanner extends CustomEventBanner {
                         @Override
                         public void run() {
                             MoPubLog.d("Failed to load banner ad with code: " + errorCode);
+                            metricsTracker.onLoadFailed(toMoPubErrorCode(errorCode));
 
                             try {
                                 if (customEventBannerListener != null) {
@@ -170,8 +154,6 @@ public class AppLovinBanner extends CustomEventBanner {
             if (hasAdMarkup) {
                 sdk.getAdService().loadNextAdForAdToken(adMarkup, adLoadListener);
             } else {
-                // Determine zone
-                final String zoneId = serverExtras.get(ZONE_ID_SERVER_EXTRAS_KEY);
                 if (!TextUtils.isEmpty(zoneId)) {
                     sdk.getAdService().loadNextAdForZoneId(zoneId, adLoadListener);
                 } else {
@@ -195,6 +177,61 @@ public class AppLovinBanner extends CustomEventBanner {
     // Utility Methods
     //
 
+    private static void setListeners(final AppLovinAdView adView, final CustomEventBannerListener customEventBannerListener,
+                                     final MediationMetrics.Tracker metricsTracker) {
+        adView.setAdDisplayListener(new AppLovinAdDisplayListener() {
+            @Override
+            public void adDisplayed(final AppLovinAd ad) {
+                MoPubLog.d("Banner displayed");
+                metricsTracker.onImpression();
+            }
+
+            @Override
+            public void adHidden(final AppLovinAd ad) {
+                MoPubLog.d("Banner dismissed");
+            }
+        });
+        adView.setAdClickListener(new AppLovinAdClickListener() {
+            @Override
+            public void adClicked(final AppLovinAd ad) {
+                MoPubLog.d("Banner clicked");
+
+                if (customEventBannerListener != null) {
+                    customEventBannerListener.onBannerClicked();
+                }
+            }
+        });
+
+        adView.setAdViewEventListener(new AppLovinAdViewEventListener() {
+            @Override
+            public void adOpenedFullscreen(final AppLovinAd appLovinAd, final AppLovinAdView appLovinAdView) {
+                MoPubLog.d("Banner opened fullscreen");
+
+                if (customEventBannerListener != null) {
+                    customEventBannerListener.onBannerExpanded();
+                }
+            }
+
+            @Override
+            public void adClosedFullscreen(final AppLovinAd appLovinAd, final AppLovinAdView appLovinAdView) {
+                MoPubLog.d("Banner closed fullscreen");
+
+                if (customEventBannerListener != null) {
+                    customEventBannerListener.onBannerCollapsed();
+                }
+            }
+
+            @Override
+            public void adLeftApplication(final AppLovinAd appLovinAd, final AppLovinAdView appLovinAdView) {
+                MoPubLog.d("Banner left application");
+            }
+
+            @Override
+            public void adFailedToDisplay(final AppLovinAd appLovinAd, final AppLovinAdView appLovinAdView, final AppLovinAdViewDisplayErrorCode appLovinAdViewDisplayErrorCode) {
+            }
+        });
+    }
+
     private AppLovinAdSize appLovinAdSizeFromLocalExtras(final Map<String, Object> localExtras) {
         // Handle trivial case
         if (localExtras == null || localExtras.isEmpty()) {
@@ -251,29 +288,10 @@ public class AppLovinBanner extends CustomEventBanner {
         }
     }
 
-    /**
-     * Retrieves the appropriate instance of AppLovin's SDK from the SDK key given in the server parameters, or Android Manifest.
-     */
-    private static AppLovinSdk retrieveSdk(final Map<String, String> serverExtras, final Context context) {
-        final String sdkKey = serverExtras != null ? serverExtras.get("sdk_key") : null;
-        final AppLovinSdk sdk;
-
-        if (!TextUtils.isEmpty(sdkKey)) {
-            sdk = AppLovinSdk.getInstance(sdkKey, new AppLovinSdkSettings(), context);
-        } else {
-            sdk = AppLovinSdk.getInstance(context);
-        }
-        return sdk;
-    }
-
     /**
      * Performs the given runnable on the main thread.
      */
     private static void runOnUiThread(final Runnable runnable) {
-        if (Looper.myLooper() == Looper.getMainLooper()) {
-            runnable.run();
-        } else {
-            UI_HANDLER.post(runnable);
-        }
+        MainThreadDispatcher.getInstance().runOnMainThread(runnable);
     }
 }
\ No newline at end of file
@@ -0,0 +1,169 @@
+package com.mopub.mobileads;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.text.TextUtils;
+
+import com.applovin.sdk.AppLovinAd;
+import com.applovin.sdk.AppLovinAdLoadListener;
+import com.applovin.sdk.AppLovinAdSize;
+import com.applovin.sdk.AppLovinSdk;
+import com.mopub.common.logging.MoPubLog;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps one fetched {@link AppLovinAd} per zone and size, so that {@link AppLovinBanner} can show
+ * a banner as soon as it is asked to load one and fetch the following banner in the background.
+ * <p>
+ * Only the ad is prefetched. The loading banner renders it into a view created with its own
+ * context, so nothing here holds on to an Activity. Ads that are never taken are dropped after
+ * {@link #PREFETCH_TTL_MILLIS}. {@link #getHitCount()}, {@link #getMissCount()} and
+ * {@link #getWastedCount()} show how many loads were served from a prefetch against how many
+ * prefetches were thrown away. All methods must be called on the main thread.
+ */
+public class AppLovinBannerPrefetcher {
+
+    static final long PREFETCH_TTL_MILLIS = 4 * 60 * 1000;
+
+    private static final AppLovinBannerPrefetcher sInstance = new AppLovinBannerPrefetcher();
+
+    @NonNull
+    private final Map<String, Slot> mSlots = new HashMap<>();
+    private long mHitCount;
+    private long mMissCount;
+    private long mWastedCount;
+
+    @NonNull
+    public static AppLovinBannerPrefetcher getInstance() {
+        return sInstance;
+    }
+
+    private AppLovinBannerPrefetcher() {
+    }
+
+    /**
+     * Takes the ad prefetched for the zone and size, or returns null if none is ready.
+     */
+    @Nullable
+    AppLovinAd take(@NonNull final AppLovinSdk sdk, @Nullable final String zoneId,
+                    @NonNull final AppLovinAdSize adSize) {
+        final Slot slot = mSlots.get(getSlotKey(sdk, zoneId, adSize));
+        if (slot == null || slot.mReadyAd == null) {
+            mMissCount++;
+            return null;
+        }
+
+        final AppLovinAd ad = slot.mReadyAd;
+        slot.clearReadyAd();
+        mHitCount++;
+        return ad;
+    }
+
+    /**
+     * Fetches the next banner for the zone and size, unless one is already ready or being
+     * fetched.
+     */
+    void prefetch(@NonNull final AppLovinSdk sdk, @Nullable final String zoneId,
+                  @NonNull final AppLovinAdSize adSize) {
+        final String slotKey = getSlotKey(sdk, zoneId, adSize);
+        Slot slot = mSlots.get(slotKey);
+        if (slot == null) {
+            slot = new Slot();
+            mSlots.put(slotKey, slot);
+        }
+        if (slot.mFetching || slot.mReadyAd != null) {
+            return;
+        }
+
+        final Slot fetchingSlot = slot;
+        fetchingSlot.mFetching = true;
+
+        final AppLovinAdLoadListener adLoadListener = new AppLovinAdLoadListener() {
+            @Override
+            public void adReceived(final AppLovinAd ad) {
+                MainThreadDispatcher.getInstance().runOnMainThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        fetchingSlot.mFetching = false;
+                        fetchingSlot.setReadyAd(ad, new Runnable() {
+                            @Override
+                            public void run() {
+                                MoPubLog.d("Prefetched AppLovin banner expired unused");
+                                fetchingSlot.clearReadyAd();
+                                mWastedCount++;
+                            }
+                        });
+                    }
+                });
+            }
+
+            @Override
+            public void failedToReceiveAd(final int errorCode) {
+                MainThreadDispatcher.getInstance().runOnMainThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        MoPubLog.d("Failed to prefetch AppLovin banner with code: " + errorCode);
+                        fetchingSlot.mFetching = false;
+                    }
+                });
+            }
+        };
+
+        if (!TextUtils.isEmpty(zoneId)) {
+            sdk.getAdService().loadNextAdForZoneId(zoneId, adLoadListener);
+        } else {
+            sdk.getAdService().loadNextAd(adSize, adLoadListener);
+        }
+    }
+
+    /**
+     * Number of banner loads served by a prefetched ad.
+     */
+    public long getHitCount() {
+        return mHitCount;
+    }
+
+    /**
+     * Number of prefetching banner loads that found no prefetched ad and had to load one.
+     */
+    public long getMissCount() {
+        return mMissCount;
+    }
+
+    /**
+     * Number of prefetched ads dropped without being shown.
+     */
+    public long getWastedCount() {
+        return mWastedCount;
+    }
+
+    @NonNull
+    private static String getSlotKey(@NonNull final AppLovinSdk sdk, @Nullable final String zoneId,
+                                     @NonNull final AppLovinAdSize adSize) {
+        return sdk.getSdkKey() + ":" + (zoneId == null ? "" : zoneId) + ":" + adSize.getLabel();
+    }
+
+    private static final class Slot {
+        @Nullable
+        AppLovinAd mReadyAd;
+        @Nullable
+        AdExpirationWheel.Timeout mExpirationTimeout;
+        boolean mFetching;
+
+        void setReadyAd(@NonNull final AppLovinAd ad, @NonNull final Runnable onExpired) {
+            mReadyAd = ad;
+            mExpirationTimeout = AdExpirationWheel.getInstance().schedule(onExpired,
+                    PREFETCH_TTL_MILLIS);
+        }
+
+        void clearReadyAd() {
+            mReadyAd = null;
+            if (mExpirationTimeout != null) {
+                mExpirationTimeout.cancel();
+                mExpirationTimeout = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.mopub.mobileads;
+
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.applovin.adview.AppLovinIncentivizedInterstitial;
+import com.mopub.common.logging.MoPubLog;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded, thread-safe cache of Zone -> `AppLovinIncentivizedInterstitial` shared by instances
+ * of {@link AppLovinRewardedVideo}.
+ * <p>
+ * Entries that have not been used for the idle TTL are evicted, unless they hold a preloaded ad
+ * that has not yet reached its expiry, and the least recently used entries are evicted once the
+ * cache grows past its maximum size. A preloaded ad is registered with the
+ * {@link AdExpirationWheel}, which evicts its entry once the ad expires, so the next load
+ * preloads a fresh one. Evicting an entry drops the cache's reference to the
+ * incentivized interstitial, releasing its preloaded ad along with the SDK and Activity state it
+ * holds.
+ */
+public class AppLovinIncentivizedInterstitialCache {
+
+    public static final int DEFAULT_MAX_SIZE = 16;
+    public static final long DEFAULT_IDLE_TTL_MILLIS = 30 * 60 * 1000L;
+    public static final long DEFAULT_PRELOADED_AD_EXPIRY_MILLIS = 4 * 60 * 60 * 1000L;
+
+    /**
+     * Creates incentivized interstitials for zones that are not cached.
+     */
+    interface Factory {
+        @NonNull
+        AppLovinIncentivizedInterstitial create(@NonNull String zoneId);
+    }
+
+    private final Map<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+
+    private int maxSize = DEFAULT_MAX_SIZE;
+    private long idleTtlMillis = DEFAULT_IDLE_TTL_MILLIS;
+    private long preloadedAdExpiryMillis = DEFAULT_PRELOADED_AD_EXPIRY_MILLIS;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    AppLovinIncentivizedInterstitialCache() {
+    }
+
+    /**
+     * Returns the cached incentivized interstitial for the zone, creating and caching one with
+     * the given factory if there is none.
+     */
+    @NonNull
+    synchronized AppLovinIncentivizedInterstitial getOrCreate(@NonNull final String zoneId,
+                                                              @NonNull final Factory factory) {
+        final long now = SystemClock.elapsedRealtime();
+        evictExpired(now);
+
+        Entry entry = entries.get(zoneId);
+        if (entry != null) {
+            hitCount++;
+        } else {
+            missCount++;
+            entry = new Entry(factory.create(zoneId));
+            entries.put(zoneId, entry);
+            trimToSize();
+        }
+
+        entry.lastAccessedMillis = now;
+        return entry.incentivizedInterstitial;
+    }
+
+    /**
+     * Records that the zone's incentivized interstitial finished preloading an ad, which protects
+     * the entry from idle eviction until the preloaded ad expires.
+     */
+    synchronized void onAdPreloaded(@NonNull final String zoneId) {
+        final Entry entry = entries.get(zoneId);
+        if (entry != null) {
+            final long preloadedAtMillis = SystemClock.elapsedRealtime();
+            entry.preloadedAtMillis = preloadedAtMillis;
+            scheduleExpiration(zoneId, entry, preloadedAtMillis);
+        }
+    }
+
+    public synchronized void setMaxSize(final int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+        trimToSize();
+    }
+
+    public synchronized void setIdleTtlMillis(final long idleTtlMillis) {
+        this.idleTtlMillis = idleTtlMillis;
+    }
+
+    public synchronized void setPreloadedAdExpiryMillis(final long preloadedAdExpiryMillis) {
+        this.preloadedAdExpiryMillis = preloadedAdExpiryMillis;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    private void evictExpired(final long now) {
+        final Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<String, Entry> mapEntry = iterator.next();
+            if (isExpired(mapEntry.getValue(), now)) {
+                iterator.remove();
+                onEvicted(mapEntry.getKey(), mapEntry.getValue());
+            }
+        }
+    }
+
+    private void scheduleExpiration(@NonNull final String zoneId, @NonNull final Entry entry,
+                                    final long preloadedAtMillis) {
+        final long expiryMillis = preloadedAdExpiryMillis;
+        MainThreadDispatcher.getInstance().runOnMainThread(new Runnable() {
+            @Override
+            public void run() {
+                entry.cancelExpiration();
+                entry.expirationTimeout = AdExpirationWheel.getInstance().schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        entry.expirationTimeout = null;
+                        onPreloadedAdExpired(zoneId, entry, preloadedAtMillis);
+                    }
+                }, expiryMillis);
+            }
+        });
+    }
+
+    private synchronized void onPreloadedAdExpired(@NonNull final String zoneId,
+                                                   @NonNull final Entry entry,
+                                                   final long preloadedAtMillis) {
+        // Only if the entry is still cached and hasn't preloaded another ad since.
+        if (entries.get(zoneId) == entry && entry.preloadedAtMillis == preloadedAtMillis) {
+            entries.remove(zoneId);
+            onEvicted(zoneId, entry);
+        }
+    }
+
+    private boolean isExpired(@NonNull final Entry entry, final long now) {
+        if (now - entry.lastAccessedMillis < idleTtlMillis) {
+            return false;
+        }
+
+        // Keep an idle zone around while its preloaded ad is still usable.
+        return !entry.hasUnexpiredPreloadedAd(now, preloadedAdExpiryMillis);
+    }
+
+    private void trimToSize() {
+        final Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            final Map.Entry<String, Entry> mapEntry = iterator.next();
+            iterator.remove();
+            onEvicted(mapEntry.getKey(), mapEntry.getValue());
+        }
+    }
+
+    private void onEvicted(@Nullable final String zoneId, @NonNull final Entry entry) {
+        evictionCount++;
+        MoPubLog.d("Evicted AppLovin incentivized interstitial for zone: " + zoneId);
+        MainThreadDispatcher.getInstance().runOnMainThread(new Runnable() {
+            @Override
+            public void run() {
+                entry.cancelExpiration();
+            }
+        });
+    }
+
+    private static class Entry {
+        @NonNull
+        final AppLovinIncentivizedInterstitial incentivizedInterstitial;
+        long lastAccessedMillis;
+        long preloadedAtMillis = -1;
+        // Only touched on the main thread, where the expiration wheel runs.
+        @Nullable
+        AdExpirationWheel.Timeout expirationTimeout;
+
+        Entry(@NonNull final AppLovinIncentivizedInterstitial incentivizedInterstitial) {
+            this.incentivizedInterstitial = incentivizedInterstitial;
+        }
+
+        void cancelExpiration() {
+            if (expirationTimeout != null) {
+                expirationTimeout.cancel();
+                expirationTimeout = null;
+            }
+        }
+
+        boolean hasUnexpiredPreloadedAd(final long now, final long preloadedAdExpiryMillis) {
+            return preloadedAtMillis >= 0
+                    && now - preloadedAtMillis < preloadedAdExpiryMillis
+                    && incentivizedInterstitial.isAdReadyToDisplay();
+        }
+    }
+}
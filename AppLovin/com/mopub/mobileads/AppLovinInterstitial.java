@@ -2,8 +2,6 @@ package com.mopub.mobileads;
 
 import android.app.Activity;
 import android.content.Context;
-import android.os.Handler;
-import android.os.Looper;
 import android.text.TextUtils;
 
 import com.applovin.adview.AppLovinInterstitialAd;
@@ -15,39 +13,40 @@ import com.applovin.sdk.AppLovinAdLoadListener;
 import com.applovin.sdk.AppLovinAdSize;
 import com.applovin.sdk.AppLovinAdVideoPlaybackListener;
 import com.applovin.sdk.AppLovinErrorCodes;
-import com.applovin.sdk.AppLovinMediationProvider;
-import com.applovin.sdk.AppLovinPrivacySettings;
 import com.applovin.sdk.AppLovinSdk;
-import com.applovin.sdk.AppLovinSdkSettings;
 import com.mopub.common.DataKeys;
-import com.mopub.common.MoPub;
 import com.mopub.common.logging.MoPubLog;
 
-import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.Map;
-import java.util.Queue;
 
 public class AppLovinInterstitial extends CustomEventInterstitial implements AppLovinAdLoadListener, AppLovinAdDisplayListener, AppLovinAdClickListener, AppLovinAdVideoPlaybackListener {
 
+    private static final String ADAPTER_NAME = AppLovinInterstitial.class.getSimpleName();
     private static final String DEFAULT_ZONE = "";
     private static final String ZONE_ID_SERVER_EXTRAS_KEY = "zone_id";
 
-    private static final Handler UI_HANDLER = new Handler(Looper.getMainLooper());
 
     private AppLovinSdk sdk;
     private CustomEventInterstitialListener listener;
     private Context context;
 
-    // A map of Zone -> Queue of `AppLovinAd`s to be shared by instances of the custom event.
+    // A per-zone inventory of `AppLovinAd`s to be shared by instances of the custom event.
     // This prevents skipping of ads as this adapter will be re-created and preloaded
     // on every ad load regardless if ad was actually displayed or not.
-    private static final Map<String, Queue<AppLovinAd>> GLOBAL_INTERSTITIAL_ADS = new HashMap<String, Queue<AppLovinAd>>();
-    private static final Object GLOBAL_INTERSTITIAL_ADS_LOCK = new Object();
+    private static final AppLovinInterstitialInventory GLOBAL_INTERSTITIAL_ADS = new AppLovinInterstitialInventory();
 
     private String zoneId; // The zone identifier this instance of the custom event is loading for
     private boolean isTokenEvent;
     private AppLovinAd tokenAd;
+    private MediationMetrics.Tracker metricsTracker;
+
+    /**
+     * Returns the inventory of preloaded interstitials shared by all instances, to configure its
+     * target depth and max ad age or read its depth/age/discard metrics.
+     */
+    public static AppLovinInterstitialInventory getInterstitialInventory() {
+        return GLOBAL_INTERSTITIAL_ADS;
+    }
 
     //
     // MoPub Custom Event Methods
@@ -56,10 +55,6 @@ public class AppLovinInterstitial extends CustomEventInterstitial implements App
     @Override
     public void loadInterstitial(final Context context, final CustomEventInterstitialListener listener, final Map<String, Object> localExtras, final Map<String, String> serverExtras) {
 
-        // Pass the user consent from the MoPub SDK to AppLovin as per GDPR
-        boolean canCollectPersonalInfo = MoPub.canCollectPersonalInformation();
-        AppLovinPrivacySettings.setHasUserConsent(canCollectPersonalInfo, context);
-
         // SDK versions BELOW 7.2.0 require a instance of an Activity to be passed in as the context
         if (AppLovinSdk.VERSION_CODE < 720 && !(context instanceof Activity)) {
             MoPubLog.d("Unable to request AppLovin interstitial. Invalid context provided.");
@@ -76,9 +71,8 @@ public class AppLovinInterstitial extends CustomEventInterstitial implements App
         this.listener = listener;
         this.context = context;
 
-        sdk = retrieveSdk(serverExtras, context);
-        sdk.setPluginVersion("MoPub-3.1.0");
-        sdk.setMediationProvider(AppLovinMediationProvider.MOPUB);
+        // Also passes the user consent from the MoPub SDK to AppLovin as per GDPR
+        sdk = AppLovinSdkManager.getSdk(serverExtras, context);
 
         final String adMarkup = serverExtras.get(DataKeys.ADM_KEY);
         final boolean hasAdMarkup = !TextUtils.isEmpty(adMarkup);
@@ -87,18 +81,20 @@ public class AppLovinInterstitial extends CustomEventInterstitial implements App
 
         if (hasAdMarkup) {
             isTokenEvent = true;
+            metricsTracker = MediationMetrics.getInstance().newTracker(ADAPTER_NAME, null);
 
             // Use token API
             sdk.getAdService().loadNextAdForAdToken(adMarkup, this);
         } else {
             final String serverExtrasZoneId = serverExtras.get(ZONE_ID_SERVER_EXTRAS_KEY);
             zoneId = !TextUtils.isEmpty(serverExtrasZoneId) ? serverExtrasZoneId : DEFAULT_ZONE;
+            metricsTracker = MediationMetrics.getInstance().newTracker(ADAPTER_NAME, zoneId);
 
-            // Check if we already have a preloaded ad for the given zone
-            final AppLovinAd preloadedAd = dequeueAd(zoneId);
-            if (preloadedAd != null) {
+            // Check if we already have a preloaded ad for the given zone. It stays queued until shown.
+            if (GLOBAL_INTERSTITIAL_ADS.hasAd(zoneId)) {
                 MoPubLog.d("Found preloaded ad for zone: {" + zoneId + "}");
-                adReceived(preloadedAd);
+                metricsTracker.onLoadSucceeded();
+                notifyAdLoaded();
             }
             // No ad currently preloaded
             else {
@@ -114,10 +110,12 @@ public class AppLovinInterstitial extends CustomEventInterstitial implements App
     @Override
     public void showInterstitial() {
         final AppLovinAd preloadedAd;
-        if (isTokenEvent && tokenAd != null) {
+        if (isTokenEvent) {
             preloadedAd = tokenAd;
+        } else if (zoneId != null) {
+            preloadedAd = GLOBAL_INTERSTITIAL_ADS.dequeueAd(zoneId, sdk);
         } else {
-            preloadedAd = dequeueAd(zoneId);
+            preloadedAd = null;
         }
 
         if (preloadedAd != null) {
@@ -125,6 +123,7 @@ public class AppLovinInterstitial extends CustomEventInterstitial implements App
             interstitialAd.setAdDisplayListener(this);
             interstitialAd.setAdClickListener(this);
             interstitialAd.setAdVideoPlaybackListener(this);
+            metricsTracker.onShowRequested();
             interstitialAd.showAndRender(preloadedAd);
         } else {
             MoPubLog.d("Failed to show an AppLovin interstitial before one was loaded");
@@ -146,13 +145,18 @@ public class AppLovinInterstitial extends CustomEventInterstitial implements App
     @Override
     public void adReceived(final AppLovinAd ad) {
         MoPubLog.d("Interstitial did load ad: " + ad.getAdIdNumber());
+        metricsTracker.onLoadSucceeded();
 
         if (isTokenEvent) {
             tokenAd = ad;
         } else {
-            enqueueAd(ad, zoneId);
+            GLOBAL_INTERSTITIAL_ADS.enqueueAd(zoneId, ad, sdk);
         }
 
+        notifyAdLoaded();
+    }
+
+    private void notifyAdLoaded() {
         runOnUiThread(new Runnable() {
             @Override
             public void run() {
@@ -170,6 +174,7 @@ public class AppLovinInterstitial extends CustomEventInterstitial implements App
     @Override
     public void failedToReceiveAd(final int errorCode) {
         MoPubLog.d("Interstitial failed to load with error: " + errorCode);
+        metricsTracker.onLoadFailed(toMoPubErrorCode(errorCode));
 
         runOnUiThread(new Runnable() {
             @Override
@@ -192,6 +197,7 @@ public class AppLovinInterstitial extends CustomEventInterstitial implements App
     @Override
     public void adDisplayed(final AppLovinAd appLovinAd) {
         MoPubLog.d("Interstitial displayed");
+        metricsTracker.onImpression();
 
         if (listener != null) {
             listener.onInterstitialShown();
@@ -238,29 +244,6 @@ public class AppLovinInterstitial extends CustomEventInterstitial implements App
     // Utility Methods
     //
 
-    private static AppLovinAd dequeueAd(final String zoneId) {
-        synchronized (GLOBAL_INTERSTITIAL_ADS_LOCK) {
-            AppLovinAd preloadedAd = null;
-
-            final Queue<AppLovinAd> preloadedAds = GLOBAL_INTERSTITIAL_ADS.get(zoneId);
-            if (preloadedAds != null && !preloadedAds.isEmpty()) {
-                preloadedAd = preloadedAds.poll();
-            }
-            return preloadedAd;
-        }
-    }
-
-    private static void enqueueAd(final AppLovinAd ad, final String zoneId) {
-        synchronized (GLOBAL_INTERSTITIAL_ADS_LOCK) {
-            Queue<AppLovinAd> preloadedAds = GLOBAL_INTERSTITIAL_ADS.get(zoneId);
-            if (preloadedAds == null) {
-                preloadedAds = new LinkedList<AppLovinAd>();
-                GLOBAL_INTERSTITIAL_ADS.put(zoneId, preloadedAds);
-            }
-            preloadedAds.offer(ad);
-        }
-    }
-
     private static MoPubErrorCode toMoPubErrorCode(final int applovinErrorCode) {
         if (applovinErrorCode == AppLovinErrorCodes.NO_FILL) {
             return MoPubErrorCode.NETWORK_NO_FILL;
@@ -275,29 +258,10 @@ public class AppLovinInterstitial extends CustomEventInterstitial implements App
         }
     }
 
-    /**
-     * Retrieves the appropriate instance of AppLovin's SDK from the SDK key given in the server parameters, or Android Manifest.
-     */
-    private static AppLovinSdk retrieveSdk(final Map<String, String> serverExtras, final Context context) {
-        final String sdkKey = serverExtras != null ? serverExtras.get("sdk_key") : null;
-        final AppLovinSdk sdk;
-
-        if (!TextUtils.isEmpty(sdkKey)) {
-            sdk = AppLovinSdk.getInstance(sdkKey, new AppLovinSdkSettings(), context);
-        } else {
-            sdk = AppLovinSdk.getInstance(context);
-        }
-        return sdk;
-    }
-
     /**
      * Performs the given runnable on the main thread.
      */
     private static void runOnUiThread(final Runnable runnable) {
-        if (Looper.myLooper() == Looper.getMainLooper()) {
-            runnable.run();
-        } else {
-            UI_HANDLER.post(runnable);
-        }
+        MainThreadDispatcher.getInstance().runOnMainThread(runnable);
     }
 }
\ No newline at end of file
@@ -0,0 +1,300 @@
+package com.mopub.mobileads;
+
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.text.TextUtils;
+
+import com.applovin.sdk.AppLovinAd;
+import com.applovin.sdk.AppLovinAdLoadListener;
+import com.applovin.sdk.AppLovinAdSize;
+import com.applovin.sdk.AppLovinSdk;
+import com.mopub.common.logging.MoPubLog;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A per-zone inventory of preloaded `AppLovinAd`s shared by instances of
+ * {@link AppLovinInterstitial}.
+ * <p>
+ * Each zone has its own lock-free queue, so zones never contend with each other. Every
+ * {@link #dequeueAd(String, AppLovinSdk)} and {@link #enqueueAd(String, AppLovinAd, AppLovinSdk)}
+ * tops the zone back up to the target depth in the background, with at most one refill request in
+ * flight per zone. Ads are registered with the {@link AdExpirationWheel} for the max ad age and
+ * dropped from the queue once they reach it, and are never served past it. A zone
+ * holds at most one ad beyond the target depth, so that an adapter load landing together with a
+ * refill doesn't waste either ad.
+ */
+public class AppLovinInterstitialInventory {
+
+    public static final int DEFAULT_TARGET_DEPTH = 1;
+    public static final long DEFAULT_MAX_AD_AGE_MILLIS = 4 * 60 * 60 * 1000L;
+
+    private final ConcurrentMap<String, ZoneInventory> zones =
+            new ConcurrentHashMap<String, ZoneInventory>();
+
+    private volatile int targetDepth = DEFAULT_TARGET_DEPTH;
+    private volatile long maxAdAgeMillis = DEFAULT_MAX_AD_AGE_MILLIS;
+
+    private final AtomicLong refillCount = new AtomicLong();
+    private final AtomicLong expiredCount = new AtomicLong();
+    private final AtomicLong overflowCount = new AtomicLong();
+
+    AppLovinInterstitialInventory() {
+    }
+
+    /**
+     * Whether the zone has an unexpired ad ready to be dequeued.
+     */
+    boolean hasAd(@NonNull final String zoneId) {
+        final ZoneInventory zone = zones.get(zoneId);
+        return zone != null && zone.peekUnexpired() != null;
+    }
+
+    /**
+     * Takes the zone's oldest unexpired ad, or returns null if it has none, and starts refilling
+     * the zone.
+     */
+    @Nullable
+    AppLovinAd dequeueAd(@NonNull final String zoneId, @NonNull final AppLovinSdk sdk) {
+        final ZoneInventory zone = getZone(zoneId);
+        final Entry entry = zone.pollUnexpired();
+        refill(zone, sdk);
+        return entry != null ? entry.ad : null;
+    }
+
+    /**
+     * Adds an ad loaded for the zone, and starts refilling the zone if it is still below the
+     * target depth.
+     */
+    void enqueueAd(@NonNull final String zoneId, @NonNull final AppLovinAd ad,
+                   @NonNull final AppLovinSdk sdk) {
+        final ZoneInventory zone = getZone(zoneId);
+        zone.offer(ad);
+        refill(zone, sdk);
+    }
+
+    /**
+     * Sets how many ads each zone keeps preloaded. 0 turns off background refills.
+     */
+    public void setTargetDepth(final int targetDepth) {
+        this.targetDepth = Math.max(0, targetDepth);
+    }
+
+    public void setMaxAdAgeMillis(final long maxAdAgeMillis) {
+        this.maxAdAgeMillis = maxAdAgeMillis;
+    }
+
+    public int getDepth(@NonNull final String zoneId) {
+        final ZoneInventory zone = zones.get(zoneId);
+        return zone != null ? zone.depth.get() : 0;
+    }
+
+    /**
+     * Age of the zone's oldest queued ad, or 0 if it has none.
+     */
+    public long getOldestAdAgeMillis(@NonNull final String zoneId) {
+        final ZoneInventory zone = zones.get(zoneId);
+        final Entry oldest = zone != null ? zone.ads.peek() : null;
+        return oldest != null ? SystemClock.elapsedRealtime() - oldest.loadedAtMillis : 0;
+    }
+
+    /**
+     * Number of refill requests made in the background.
+     */
+    public long getRefillCount() {
+        return refillCount.get();
+    }
+
+    /**
+     * Number of ads discarded because they outlived the max ad age.
+     */
+    public long getExpiredCount() {
+        return expiredCount.get();
+    }
+
+    /**
+     * Number of ads discarded because their zone was already full.
+     */
+    public long getOverflowCount() {
+        return overflowCount.get();
+    }
+
+    @NonNull
+    private ZoneInventory getZone(@NonNull final String zoneId) {
+        ZoneInventory zone = zones.get(zoneId);
+        if (zone == null) {
+            final ZoneInventory newZone = new ZoneInventory(zoneId);
+            zone = zones.putIfAbsent(zoneId, newZone);
+            if (zone == null) {
+                zone = newZone;
+            }
+        }
+        return zone;
+    }
+
+    private void refill(@NonNull final ZoneInventory zone, @NonNull final AppLovinSdk sdk) {
+        if (zone.depth.get() >= targetDepth || !zone.refilling.compareAndSet(false, true)) {
+            return;
+        }
+
+        refillCount.incrementAndGet();
+        final AppLovinAdLoadListener refillListener = new AppLovinAdLoadListener() {
+            @Override
+            public void adReceived(final AppLovinAd ad) {
+                zone.offer(ad);
+                zone.refilling.set(false);
+                // Keep going until the target depth is reached.
+                refill(zone, sdk);
+            }
+
+            @Override
+            public void failedToReceiveAd(final int errorCode) {
+                MoPubLog.d("Failed to refill AppLovin interstitials for zone: {" + zone.zoneId
+                        + "} with error: " + errorCode);
+                // The next dequeue retries.
+                zone.refilling.set(false);
+            }
+        };
+
+        if (!TextUtils.isEmpty(zone.zoneId)) {
+            sdk.getAdService().loadNextAdForZoneId(zone.zoneId, refillListener);
+        } else {
+            sdk.getAdService().loadNextAd(AppLovinAdSize.INTERSTITIAL, refillListener);
+        }
+    }
+
+    private final class ZoneInventory {
+        @NonNull
+        final String zoneId;
+        // ConcurrentLinkedQueue.size() walks the queue, so the depth is counted separately.
+        final Queue<Entry> ads = new ConcurrentLinkedQueue<Entry>();
+        final AtomicInteger depth = new AtomicInteger();
+        final AtomicBoolean refilling = new AtomicBoolean();
+
+        ZoneInventory(@NonNull final String zoneId) {
+            this.zoneId = zoneId;
+        }
+
+        void offer(@NonNull final AppLovinAd ad) {
+            final Entry entry = new Entry(ad);
+            ads.offer(entry);
+            scheduleExpiration(entry);
+            final int maxDepth = Math.max(1, targetDepth) + 1;
+            if (depth.incrementAndGet() > maxDepth && poll() != null) {
+                overflowCount.incrementAndGet();
+            }
+        }
+
+        @Nullable
+        Entry pollUnexpired() {
+            Entry entry;
+            while ((entry = poll()) != null) {
+                if (!isExpired(entry)) {
+                    return entry;
+                }
+                onExpired(entry);
+            }
+            return null;
+        }
+
+        @Nullable
+        Entry peekUnexpired() {
+            Entry entry;
+            while ((entry = ads.peek()) != null) {
+                if (!isExpired(entry)) {
+                    return entry;
+                }
+                // Only drop the stale head if no other thread took it first.
+                if (remove(entry)) {
+                    onExpired(entry);
+                }
+            }
+            return null;
+        }
+
+        @Nullable
+        private Entry poll() {
+            final Entry entry = ads.poll();
+            if (entry != null) {
+                depth.decrementAndGet();
+                cancelExpiration(entry);
+            }
+            return entry;
+        }
+
+        private boolean remove(@NonNull final Entry entry) {
+            if (!ads.remove(entry)) {
+                return false;
+            }
+            depth.decrementAndGet();
+            cancelExpiration(entry);
+            return true;
+        }
+
+        private void scheduleExpiration(@NonNull final Entry entry) {
+            final long ttlMillis = maxAdAgeMillis;
+            MainThreadDispatcher.getInstance().runOnMainThread(new Runnable() {
+                @Override
+                public void run() {
+                    if (entry.removed) {
+                        return;
+                    }
+                    entry.expirationTimeout = AdExpirationWheel.getInstance().schedule(
+                            new Runnable() {
+                                @Override
+                                public void run() {
+                                    entry.expirationTimeout = null;
+                                    if (remove(entry)) {
+                                        onExpired(entry);
+                                    }
+                                }
+                            }, ttlMillis);
+                }
+            });
+        }
+
+        private void cancelExpiration(@NonNull final Entry entry) {
+            MainThreadDispatcher.getInstance().runOnMainThread(new Runnable() {
+                @Override
+                public void run() {
+                    entry.removed = true;
+                    if (entry.expirationTimeout != null) {
+                        entry.expirationTimeout.cancel();
+                        entry.expirationTimeout = null;
+                    }
+                }
+            });
+        }
+
+        private boolean isExpired(@NonNull final Entry entry) {
+            return SystemClock.elapsedRealtime() - entry.loadedAtMillis >= maxAdAgeMillis;
+        }
+
+        private void onExpired(@NonNull final Entry entry) {
+            expiredCount.incrementAndGet();
+            MoPubLog.d("Discarded stale AppLovin interstitial " + entry.ad.getAdIdNumber()
+                    + " for zone: {" + zoneId + "}");
+        }
+    }
+
+    private static class Entry {
+        @NonNull
+        final AppLovinAd ad;
+        final long loadedAtMillis = SystemClock.elapsedRealtime();
+        // Only touched on the main thread, where the expiration wheel runs.
+        @Nullable
+        AdExpirationWheel.Timeout expirationTimeout;
+        boolean removed;
+
+        Entry(@NonNull final AppLovinAd ad) {
+            this.ad = ad;
+        }
+    }
+}
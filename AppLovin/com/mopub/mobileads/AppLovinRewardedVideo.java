@@ -1,7 +1,6 @@
 package com.mopub.mobileads;
 
 import android.app.Activity;
-import android.content.Context;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.text.TextUtils;
@@ -14,29 +13,25 @@ import com.applovin.sdk.AppLovinAdLoadListener;
 import com.applovin.sdk.AppLovinAdRewardListener;
 import com.applovin.sdk.AppLovinAdVideoPlaybackListener;
 import com.applovin.sdk.AppLovinErrorCodes;
-import com.applovin.sdk.AppLovinMediationProvider;
-import com.applovin.sdk.AppLovinPrivacySettings;
 import com.applovin.sdk.AppLovinSdk;
-import com.applovin.sdk.AppLovinSdkSettings;
 import com.mopub.common.DataKeys;
 import com.mopub.common.LifecycleListener;
-import com.mopub.common.MoPub;
 import com.mopub.common.MoPubReward;
 import com.mopub.common.logging.MoPubLog;
 
-import java.util.HashMap;
 import java.util.Map;
 
 public class AppLovinRewardedVideo extends CustomEventRewardedVideo implements AppLovinAdLoadListener, AppLovinAdDisplayListener, AppLovinAdClickListener, AppLovinAdVideoPlaybackListener, AppLovinAdRewardListener {
 
+    private static final String ADAPTER_NAME = AppLovinRewardedVideo.class.getSimpleName();
     private static final String DEFAULT_ZONE = "";
     private static final String DEFAULT_TOKEN_ZONE = "token";
     private static final String ZONE_ID_SERVER_EXTRAS_KEY = "zone_id";
 
-    // A map of Zone -> `AppLovinIncentivizedInterstitial` to be shared by instances of the custom event.
+    // A bounded cache of Zone -> `AppLovinIncentivizedInterstitial` to be shared by instances of the custom event.
     // This prevents skipping of ads as this adapter will be re-created and preloaded (along with underlying `AppLovinIncentivizedInterstitial`)
     // on every ad load regardless if ad was actually displayed or not.
-    private static final Map<String, AppLovinIncentivizedInterstitial> GLOBAL_INCENTIVIZED_INTERSTITIAL_ADS = new HashMap<String, AppLovinIncentivizedInterstitial>();
+    private static final AppLovinIncentivizedInterstitialCache GLOBAL_INCENTIVIZED_INTERSTITIAL_ADS = new AppLovinIncentivizedInterstitialCache();
 
     private boolean initialized;
 
@@ -50,6 +45,16 @@ public class AppLovinRewardedVideo extends CustomEventRewardedVideo implements A
     private boolean isTokenEvent;
     private AppLovinAd tokenAd;
     private String serverExtrasZoneId = DEFAULT_ZONE;
+    private String zoneId = DEFAULT_ZONE;
+    private MediationMetrics.Tracker metricsTracker;
+
+    /**
+     * Returns the cache of incentivized interstitials shared by all instances, to configure its
+     * size and TTLs or read its hit/miss/eviction stats.
+     */
+    public static AppLovinIncentivizedInterstitialCache getIncentivizedInterstitialCache() {
+        return GLOBAL_INCENTIVIZED_INTERSTITIAL_ADS;
+    }
 
     //
     // MoPub Custom Event Methods
@@ -59,15 +64,12 @@ public class AppLovinRewardedVideo extends CustomEventRewardedVideo implements A
     protected boolean checkAndInitializeSdk(@NonNull final Activity activity, @NonNull final Map<String, Object> localExtras, @NonNull final Map<String, String> serverExtras) throws Exception {
 
         // Pass the user consent from the MoPub SDK to AppLovin as per GDPR
-        boolean canCollectPersonalInfo = MoPub.canCollectPersonalInformation();
-        AppLovinPrivacySettings.setHasUserConsent(canCollectPersonalInfo, activity.getApplicationContext());
+        AppLovinSdkManager.updateConsent(activity);
 
         MoPubLog.d("Initializing AppLovin rewarded video...");
 
         if (!initialized) {
-            sdk = retrieveSdk(serverExtras, activity);
-            sdk.setPluginVersion("MoPub-3.1.0");
-            sdk.setMediationProvider(AppLovinMediationProvider.MOPUB);
+            sdk = AppLovinSdkManager.getSdk(serverExtras, activity);
 
             initialized = true;
 
@@ -87,7 +89,6 @@ public class AppLovinRewardedVideo extends CustomEventRewardedVideo implements A
         MoPubLog.d("Requesting AppLovin banner with serverExtras: " + serverExtras + ", localExtras: " + localExtras + " and has ad markup: " + hasAdMarkup);
 
         // Determine zone
-        final String zoneId;
         if (hasAdMarkup) {
             zoneId = DEFAULT_TOKEN_ZONE;
         } else {
@@ -101,6 +102,7 @@ public class AppLovinRewardedVideo extends CustomEventRewardedVideo implements A
 
         // Create incentivized ad based off of zone
         incentivizedInterstitial = createIncentivizedInterstitialAd(zoneId, activity, sdk);
+        metricsTracker = MediationMetrics.getInstance().newTracker(ADAPTER_NAME, zoneId);
 
         // Use token API
         if (hasAdMarkup) {
@@ -119,6 +121,7 @@ public class AppLovinRewardedVideo extends CustomEventRewardedVideo implements A
         if (hasVideoAvailable()) {
             fullyWatched = false;
             reward = null;
+            metricsTracker.onShowRequested();
 
             if (isTokenEvent) {
                 incentivizedInterstitial.show(tokenAd, parentActivity, this, this, this, this);
@@ -166,9 +169,12 @@ public class AppLovinRewardedVideo extends CustomEventRewardedVideo implements A
 
         if (isTokenEvent) {
             tokenAd = ad;
+        } else {
+            GLOBAL_INCENTIVIZED_INTERSTITIAL_ADS.onAdPreloaded(zoneId);
         }
+        metricsTracker.onLoadSucceeded();
 
-        parentActivity.runOnUiThread(new Runnable() {
+        MainThreadDispatcher.getInstance().runOnMainThread(new Runnable() {
             @Override
             public void run() {
                 try {
@@ -183,8 +189,9 @@ public class AppLovinRewardedVideo extends CustomEventRewardedVideo implements A
     @Override
     public void failedToReceiveAd(final int errorCode) {
         MoPubLog.d("Rewarded video failed to load with error: " + errorCode);
+        metricsTracker.onLoadFailed(toMoPubErrorCode(errorCode));
 
-        parentActivity.runOnUiThread(new Runnable() {
+        MainThreadDispatcher.getInstance().runOnMainThread(new Runnable() {
             @Override
             public void run() {
                 try {
@@ -203,6 +210,7 @@ public class AppLovinRewardedVideo extends CustomEventRewardedVideo implements A
     @Override
     public void adDisplayed(final AppLovinAd ad) {
         MoPubLog.d("Rewarded video displayed");
+        metricsTracker.onImpression();
         MoPubRewardedVideoManager.onRewardedVideoStarted(getClass(), getAdNetworkId());
     }
 
@@ -297,40 +305,21 @@ public class AppLovinRewardedVideo extends CustomEventRewardedVideo implements A
         }
     }
 
-    /**
-     * Retrieves the appropriate instance of AppLovin's SDK from the SDK key given in the server parameters, or Android Manifest.
-     */
-    private static AppLovinSdk retrieveSdk(final Map<String, String> serverExtras, final Context context) {
-        final String sdkKey = serverExtras != null ? serverExtras.get("sdk_key") : null;
-        final AppLovinSdk sdk;
-
-        if (!TextUtils.isEmpty(sdkKey)) {
-            sdk = AppLovinSdk.getInstance(sdkKey, new AppLovinSdkSettings(), context);
-        } else {
-            sdk = AppLovinSdk.getInstance(context);
-        }
-        return sdk;
-    }
-
     private static AppLovinIncentivizedInterstitial createIncentivizedInterstitialAd(final String zoneId, final Activity activity, final AppLovinSdk sdk) {
-        final AppLovinIncentivizedInterstitial incent;
-
-        // Check if incentivized ad for zone already exists
-        if (GLOBAL_INCENTIVIZED_INTERSTITIAL_ADS.containsKey(zoneId)) {
-            incent = GLOBAL_INCENTIVIZED_INTERSTITIAL_ADS.get(zoneId);
-        } else {
-            // If this is a default or token Zone, create the incentivized ad normally
-            if (DEFAULT_ZONE.equals(zoneId) || DEFAULT_TOKEN_ZONE.equals(zoneId)) {
-                incent = AppLovinIncentivizedInterstitial.create(activity);
-            }
-            // Otherwise, use the Zones API
-            else {
-                incent = AppLovinIncentivizedInterstitial.create(zoneId, sdk);
+        // Reuse the incentivized ad for the zone if it is already cached
+        return GLOBAL_INCENTIVIZED_INTERSTITIAL_ADS.getOrCreate(zoneId, new AppLovinIncentivizedInterstitialCache.Factory() {
+            @NonNull
+            @Override
+            public AppLovinIncentivizedInterstitial create(@NonNull final String zoneId) {
+                // If this is a default or token Zone, create the incentivized ad normally
+                if (DEFAULT_ZONE.equals(zoneId) || DEFAULT_TOKEN_ZONE.equals(zoneId)) {
+                    return AppLovinIncentivizedInterstitial.create(activity);
+                }
+                // Otherwise, use the Zones API
+                else {
+                    return AppLovinIncentivizedInterstitial.create(zoneId, sdk);
+                }
             }
-
-            GLOBAL_INCENTIVIZED_INTERSTITIAL_ADS.put(zoneId, incent);
-        }
-
-        return incent;
+        });
     }
-}
\ No newline at end of file
+}
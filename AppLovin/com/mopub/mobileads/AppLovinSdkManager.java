@@ -0,0 +1,115 @@
+package com.mopub.mobileads;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.text.TextUtils;
+
+import com.applovin.sdk.AppLovinMediationProvider;
+import com.applovin.sdk.AppLovinPrivacySettings;
+import com.applovin.sdk.AppLovinSdk;
+import com.applovin.sdk.AppLovinSdkSettings;
+import com.mopub.common.MoPub;
+import com.mopub.common.logging.MoPubLog;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resolves the {@link AppLovinSdk} used by the AppLovin adapters, once per SDK key.
+ * <p>
+ * The first {@link #getSdk(Map, Context)} for an SDK key creates the instance and sets the MoPub
+ * plugin version and mediation provider on it; later calls return the cached instance. User
+ * consent is forwarded to AppLovin by {@link #updateConsent(Context)} only when it changes.
+ */
+public class AppLovinSdkManager {
+
+    private static final String SDK_KEY_SERVER_EXTRAS_KEY = "sdk_key";
+    private static final String PLUGIN_VERSION = "MoPub-3.1.0";
+    // Cache key for the instance configured with the SDK key in the Android Manifest.
+    private static final String MANIFEST_SDK_KEY = "";
+
+    @NonNull
+    private static final ConcurrentMap<String, AppLovinSdk> sSdks = new ConcurrentHashMap<>();
+    @Nullable
+    private static Boolean sLastConsent;
+
+    private AppLovinSdkManager() {
+    }
+
+    /**
+     * Returns the SDK for the SDK key given in the server parameters, or the one from the Android
+     * Manifest if there is none, after forwarding any change in user consent.
+     */
+    @NonNull
+    public static AppLovinSdk getSdk(@Nullable final Map<String, String> serverExtras,
+                                     @NonNull final Context context) {
+        updateConsent(context);
+
+        final String serverExtrasSdkKey = serverExtras != null
+                ? serverExtras.get(SDK_KEY_SERVER_EXTRAS_KEY) : null;
+        final String sdkKey = !TextUtils.isEmpty(serverExtrasSdkKey)
+                ? serverExtrasSdkKey : MANIFEST_SDK_KEY;
+
+        final AppLovinSdk cachedSdk = sSdks.get(sdkKey);
+        if (cachedSdk != null) {
+            return cachedSdk;
+        }
+
+        synchronized (sSdks) {
+            AppLovinSdk sdk = sSdks.get(sdkKey);
+            if (sdk != null) {
+                return sdk;
+            }
+
+            if (!MANIFEST_SDK_KEY.equals(sdkKey)) {
+                sdk = AppLovinSdk.getInstance(sdkKey, new AppLovinSdkSettings(), context);
+            } else {
+                sdk = AppLovinSdk.getInstance(context);
+            }
+            sdk.setPluginVersion(PLUGIN_VERSION);
+            sdk.setMediationProvider(AppLovinMediationProvider.MOPUB);
+            MoPubLog.d("Configured AppLovin SDK for " + (MANIFEST_SDK_KEY.equals(sdkKey)
+                    ? "the Android Manifest SDK key" : "SDK key " + sdkKey));
+
+            // Only published once configured, so the lock-free lookup above never sees a
+            // half set up instance.
+            sSdks.put(sdkKey, sdk);
+            return sdk;
+        }
+    }
+
+    /**
+     * Passes the user consent from the MoPub SDK to AppLovin as per GDPR, if it changed since it
+     * was last passed.
+     */
+    public static synchronized void updateConsent(@NonNull final Context context) {
+        final boolean canCollectPersonalInfo = MoPub.canCollectPersonalInformation();
+        if (sLastConsent == null || sLastConsent != canCollectPersonalInfo) {
+            AppLovinPrivacySettings.setHasUserConsent(canCollectPersonalInfo,
+                    context.getApplicationContext());
+            sLastConsent = canCollectPersonalInfo;
+        }
+    }
+
+    /**
+     * Whether the SDK for the given key has been created and configured. Pass null for the SDK
+     * key from the Android Manifest.
+     */
+    public static boolean isSdkConfigured(@Nullable final String sdkKey) {
+        return sSdks.containsKey(TextUtils.isEmpty(sdkKey) ? MANIFEST_SDK_KEY : sdkKey);
+    }
+
+    /**
+     * Returns the SDK keys configured so far, with an empty string standing for the SDK key
+     * from the Android Manifest.
+     */
+    @NonNull
+    public static Set<String> getConfiguredSdkKeys() {
+        return Collections.unmodifiableSet(new HashSet<>(sSdks.keySet()));
+    }
+}
@@ -10,11 +10,15 @@ import com.chartboost.sdk.Chartboost;
 import com.mopub.common.Preconditions;
 
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 class ChartboostInterstitial extends CustomEventInterstitial {
+    private static final String ADAPTER_NAME = ChartboostInterstitial.class.getSimpleName();
 
     @NonNull
     private String mLocation = ChartboostShared.LOCATION_DEFAULT;
+    private MediationMetrics.Tracker mMetricsTracker;
+    private TrackingInterstitialListener mTrackingListener;
 
     /*
      * Note: Chartboost recommends implementing their specific Activity lifecycle callbacks in your
@@ -34,6 +38,10 @@ class ChartboostInterstitial extends CustomEventInterstitial {
         Preconditions.checkNotNull(localExtras);
         Preconditions.checkNotNull(serverExtras);
 
+        if (mTrackingListener == null) {
+            mTrackingListener = new TrackingInterstitialListener(interstitialListener);
+        }
+
         if (!(context instanceof Activity)) {
             interstitialListener.onInterstitialFailed(MoPubErrorCode.ADAPTER_CONFIGURATION_ERROR);
             return;
@@ -44,18 +52,10 @@ class ChartboostInterstitial extends CustomEventInterstitial {
             mLocation = TextUtils.isEmpty(location) ? mLocation : location;
         }
 
-        // If there's already a listener for this location, then another instance of
-        // CustomEventInterstitial is still active and we should fail.
-        if (ChartboostShared.getDelegate().hasInterstitialLocation(mLocation) &&
-                ChartboostShared.getDelegate().getInterstitialListener(mLocation) != interstitialListener) {
-            interstitialListener.onInterstitialFailed(MoPubErrorCode.ADAPTER_CONFIGURATION_ERROR);
-            return;
-        }
-
         Activity activity = (Activity) context;
         try {
             ChartboostShared.initializeSdk(activity, serverExtras);
-            ChartboostShared.getDelegate().registerInterstitialListener(mLocation, interstitialListener);
+            ChartboostShared.getDelegate().registerInterstitialListener(mLocation, mTrackingListener);
         } catch (NullPointerException e) {
             interstitialListener.onInterstitialFailed(MoPubErrorCode.ADAPTER_CONFIGURATION_ERROR);
             return;
@@ -66,21 +66,105 @@ class ChartboostInterstitial extends CustomEventInterstitial {
 
         Chartboost.onCreate(activity);
         Chartboost.onStart(activity);
-        if (Chartboost.hasInterstitial(mLocation)) {
-            ChartboostShared.getDelegate().didCacheInterstitial(mLocation);
-        } else {
-            Chartboost.cacheInterstitial(mLocation);
-        }
+        mMetricsTracker = MediationMetrics.getInstance().newTracker(ADAPTER_NAME, mLocation);
+        mTrackingListener.mIsLoadPending.set(true);
+        ChartboostShared.getDelegate().cacheInterstitial(mLocation);
     }
 
     @Override
     protected void showInterstitial() {
         Log.d("MoPub", "Showing Chartboost interstitial ad.");
+        if (mMetricsTracker != null) {
+            mMetricsTracker.onShowRequested();
+        }
+        if (mTrackingListener != null) {
+            mTrackingListener.mIsShowing = true;
+        }
         Chartboost.showInterstitial(mLocation);
     }
 
     @Override
     protected void onInvalidate() {
-        ChartboostShared.getDelegate().unregisterInterstitialListener(mLocation);
+        if (mTrackingListener != null) {
+            mTrackingListener.mIsLoadPending.set(false);
+            mTrackingListener.mIsShowing = false;
+            ChartboostShared.getDelegate().unregisterInterstitialListener(mLocation, mTrackingListener);
+        }
+    }
+
+    /**
+     * Reports the delegate's callbacks to {@link MediationMetrics} before forwarding them.
+     * <p>
+     * Every instance loading the same location is registered with the delegate, so the first
+     * load result is only forwarded while this instance's load is pending, and display, click
+     * and dismiss callbacks only while this instance's ad is showing.
+     */
+    private class TrackingInterstitialListener implements CustomEventInterstitialListener {
+        @NonNull
+        private final CustomEventInterstitialListener mListener;
+        private final AtomicBoolean mIsLoadPending = new AtomicBoolean();
+        private volatile boolean mIsShowing;
+
+        TrackingInterstitialListener(@NonNull CustomEventInterstitialListener listener) {
+            mListener = listener;
+        }
+
+        @Override
+        public void onInterstitialLoaded() {
+            if (!mIsLoadPending.compareAndSet(true, false)) {
+                return;
+            }
+            if (mMetricsTracker != null) {
+                mMetricsTracker.onLoadSucceeded();
+            }
+            mListener.onInterstitialLoaded();
+        }
+
+        @Override
+        public void onInterstitialFailed(MoPubErrorCode errorCode) {
+            if (!mIsLoadPending.compareAndSet(true, false)) {
+                return;
+            }
+            if (mMetricsTracker != null) {
+                mMetricsTracker.onLoadFailed(errorCode);
+            }
+            mListener.onInterstitialFailed(errorCode);
+        }
+
+        @Override
+        public void onInterstitialShown() {
+            if (!mIsShowing) {
+                return;
+            }
+            if (mMetricsTracker != null) {
+                mMetricsTracker.onImpression();
+            }
+            mListener.onInterstitialShown();
+        }
+
+        @Override
+        public void onInterstitialClicked() {
+            if (mIsShowing) {
+                mListener.onInterstitialClicked();
+            }
+        }
+
+        @Override
+        public void onInterstitialImpression() {
+            mListener.onInterstitialImpression();
+        }
+
+        @Override
+        public void onLeaveApplication() {
+            mListener.onLeaveApplication();
+        }
+
+        @Override
+        public void onInterstitialDismissed() {
+            // Still showing afterwards, as Chartboost reports the click after the dismiss.
+            if (mIsShowing) {
+                mListener.onInterstitialDismissed();
+            }
+        }
     }
 }
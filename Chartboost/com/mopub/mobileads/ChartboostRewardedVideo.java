@@ -1,7 +1,6 @@
 package com.mopub.mobileads;
 
 import android.app.Activity;
-import android.os.Handler;
 import android.support.annotation.NonNull;
 import android.text.TextUtils;
 
@@ -14,6 +13,8 @@ import com.mopub.common.logging.MoPubLog;
 import java.util.Map;
 
 public class ChartboostRewardedVideo extends CustomEventRewardedVideo {
+    private static final String ADAPTER_NAME = ChartboostRewardedVideo.class.getSimpleName();
+
     @NonNull
     private static final LifecycleListener sLifecycleListener =
             new ChartboostLifecycleListener();
@@ -21,10 +22,11 @@ public class ChartboostRewardedVideo extends CustomEventRewardedVideo {
     @NonNull
     private String mLocation = ChartboostShared.LOCATION_DEFAULT;
     @NonNull
-    private final Handler mHandler;
+    private final MainThreadDispatcher mDispatcher;
+    private MediationMetrics.Tracker mMetricsTracker;
 
     public ChartboostRewardedVideo() {
-        mHandler = new Handler();
+        mDispatcher = MainThreadDispatcher.getInstance();
     }
 
     @Override
@@ -68,18 +70,15 @@ public class ChartboostRewardedVideo extends CustomEventRewardedVideo {
             mLocation = TextUtils.isEmpty(location) ? mLocation : location;
         }
 
-        ChartboostShared.getDelegate().registerRewardedVideoLocation(mLocation);
+        mMetricsTracker = MediationMetrics.getInstance().newTracker(ADAPTER_NAME, mLocation);
+        ChartboostShared.getDelegate().registerRewardedVideoLocation(mLocation, mMetricsTracker);
         setUpMediationSettingsForRequest((String) localExtras.get(DataKeys.AD_UNIT_ID_KEY));
 
         // We do this to ensure that the custom event manager has a chance to get the listener
         // and ad unit ID before any delegate callbacks are made.
-        mHandler.post(new Runnable() {
+        mDispatcher.post(new Runnable() {
             public void run() {
-                if (Chartboost.hasRewardedVideo(mLocation)) {
-                    ChartboostShared.getDelegate().didCacheRewardedVideo(mLocation);
-                } else {
-                    Chartboost.cacheRewardedVideo(mLocation);
-                }
+                ChartboostShared.getDelegate().cacheRewardedVideo(mLocation);
             }
         });
     }
@@ -106,6 +105,9 @@ public class ChartboostRewardedVideo extends CustomEventRewardedVideo {
     @Override
     public void showVideo() {
         if (hasVideoAvailable()) {
+            if (mMetricsTracker != null) {
+                mMetricsTracker.onShowRequested();
+            }
             Chartboost.showRewardedVideo(mLocation);
         } else {
             MoPubLog.d("Attempted to show Chartboost rewarded video before it was available.");
@@ -1,6 +1,7 @@
 package com.mopub.mobileads;
 
 import android.app.Activity;
+import android.os.SystemClock;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.util.Log;
@@ -16,11 +17,13 @@ import com.mopub.common.logging.MoPubLog;
 import com.mopub.common.privacy.PersonalInfoManager;
 import com.mopub.mobileads.CustomEventInterstitial.CustomEventInterstitialListener;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
-import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
 
 import static com.mopub.mobileads.MoPubErrorCode.ADAPTER_CONFIGURATION_ERROR;
 import static com.mopub.mobileads.MoPubErrorCode.VIDEO_DOWNLOAD_ERROR;
@@ -41,6 +44,31 @@ public class ChartboostShared {
     @Nullable
     private static String mAppSignature;
 
+    @NonNull
+    private static final Set<String> sPrefetchInterstitialLocations = new CopyOnWriteArraySet<>();
+    @NonNull
+    private static final Set<String> sPrefetchRewardedVideoLocations = new CopyOnWriteArraySet<>();
+
+    /**
+     * Opts in to prefetching the given locations. They are cached as soon as Chartboost finishes
+     * initializing, and re-cached every time an ad from them is dismissed, so that a later load
+     * for the location can report loaded immediately. Pass empty collections to opt out.
+     */
+    public static void setPrefetchLocations(@NonNull Collection<String> interstitialLocations,
+                                            @NonNull Collection<String> rewardedVideoLocations) {
+        Preconditions.checkNotNull(interstitialLocations);
+        Preconditions.checkNotNull(rewardedVideoLocations);
+
+        sPrefetchInterstitialLocations.clear();
+        sPrefetchInterstitialLocations.addAll(interstitialLocations);
+        sPrefetchRewardedVideoLocations.clear();
+        sPrefetchRewardedVideoLocations.addAll(rewardedVideoLocations);
+
+        if (mAppId != null) {
+            sDelegate.prefetchLocations();
+        }
+    }
+
     /**
      * Initialize the Chartboost SDK for the provided application id and app signature.
      */
@@ -67,6 +95,9 @@ public class ChartboostShared {
         final String appId = serverExtras.get(APP_ID_KEY);
         final String appSignature = serverExtras.get(APP_SIGNATURE_KEY);
 
+        MediationWarmUp.getInstance().cacheServerExtras(launcherActivity, WarmUpInitializer.class,
+                serverExtras);
+
         if (appId.equals(mAppId) && appSignature.equals(mAppSignature)) {
             // We don't need to reinitialize.
             return false;
@@ -87,6 +118,28 @@ public class ChartboostShared {
         return true;
     }
 
+    /**
+     * Warms up the Chartboost SDK at app start. See {@link MediationWarmUp}.
+     */
+    public static class WarmUpInitializer implements MediationWarmUp.Initializer {
+        @Override
+        public void initialize(@NonNull Activity activity,
+                               @NonNull Map<String, String> serverExtras,
+                               @NonNull MediationWarmUp.InitializationListener listener) {
+            try {
+                initializeSdk(activity, serverExtras);
+            } catch (IllegalStateException e) {
+                MoPubLog.d("Unable to warm up Chartboost.", e);
+                listener.onInitializationFinished(false);
+                return;
+            }
+
+            Chartboost.onCreate(activity);
+            Chartboost.onStart(activity);
+            listener.onInitializationFinished(true);
+        }
+    }
+
     @NonNull
     public static ChartboostSingletonDelegate getDelegate() {
         return sDelegate;
@@ -98,6 +151,8 @@ public class ChartboostShared {
      */
     public static class ChartboostSingletonDelegate extends ChartboostDelegate
             implements CustomEventRewardedVideo.CustomEventRewardedVideoListener {
+        static final long CACHE_REQUEST_TIMEOUT_MILLIS = 60 * 1000;
+
         private static final CustomEventInterstitialListener NULL_LISTENER =
                 new CustomEventInterstitialListener() {
                     @Override
@@ -133,25 +188,130 @@ public class ChartboostShared {
         // Chartboost Location Management for interstitials and rewarded videos
         //***************
 
-        private Map<String, CustomEventInterstitialListener> mInterstitialListenersForLocation
-                = Collections.synchronizedMap(new TreeMap<String, CustomEventInterstitialListener>());
+        // Delegate callbacks arrive on Chartboost's threads, so lookups are lock-free: the
+        // tables are hash based and the per-location listener sets are copy-on-write.
+        private final ConcurrentMap<String, Set<CustomEventInterstitialListener>> mInterstitialListenersForLocation
+                = new ConcurrentHashMap<>();
+
+        private final Set<String> mRewardedVideoLocationsToLoad =
+                Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+        // The metrics tracker of the latest rewarded video load for each location.
+        private final ConcurrentMap<String, MediationMetrics.Tracker> mRewardedVideoTrackers =
+                new ConcurrentHashMap<>();
+
+        // When the cache request in flight for each location was made, so that a load arriving
+        // while a location is being prefetched waits for that request instead of issuing another
+        // one. Chartboost may never call back, so a request older than
+        // CACHE_REQUEST_TIMEOUT_MILLIS no longer holds up new ones.
+        private final ConcurrentMap<String, Long> mCachingInterstitialLocations =
+                new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, Long> mCachingRewardedVideoLocations =
+                new ConcurrentHashMap<>();
+
+        public boolean isInterstitialReady(@NonNull String location) {
+            return Chartboost.hasInterstitial(location);
+        }
+
+        public boolean isRewardedVideoReady(@NonNull String location) {
+            return Chartboost.hasRewardedVideo(location);
+        }
 
-        private Set<String> mRewardedVideoLocationsToLoad = Collections.synchronizedSet(new TreeSet<String>());
+        /**
+         * Requests an interstitial for the location unless one is already cached or being
+         * cached. The result is reported through {@link #didCacheInterstitial(String)} or
+         * {@link #didFailToLoadInterstitial(String, CBError.CBImpressionError)}.
+         */
+        public void cacheInterstitial(@NonNull String location) {
+            if (isInterstitialReady(location)) {
+                didCacheInterstitial(location);
+            } else if (markCaching(mCachingInterstitialLocations, location)) {
+                Chartboost.cacheInterstitial(location);
+            }
+        }
+
+        /**
+         * Requests a rewarded video for the location unless one is already cached or being
+         * cached. The result is reported through {@link #didCacheRewardedVideo(String)} or
+         * {@link #didFailToLoadRewardedVideo(String, CBError.CBImpressionError)}.
+         */
+        public void cacheRewardedVideo(@NonNull String location) {
+            if (isRewardedVideoReady(location)) {
+                didCacheRewardedVideo(location);
+            } else if (markCaching(mCachingRewardedVideoLocations, location)) {
+                Chartboost.cacheRewardedVideo(location);
+            }
+        }
+
+        /**
+         * Marks the location as being cached, unless a request for it is already in flight and
+         * hasn't timed out. Returns whether the caller should make the request.
+         */
+        private static boolean markCaching(@NonNull ConcurrentMap<String, Long> cachingLocations,
+                                           @NonNull String location) {
+            final long now = SystemClock.elapsedRealtime();
+            final Long requestedAt = cachingLocations.putIfAbsent(location, now);
+            if (requestedAt == null) {
+                return true;
+            }
+            // replace() only succeeds for one of several concurrent callers.
+            return now - requestedAt >= CACHE_REQUEST_TIMEOUT_MILLIS
+                    && cachingLocations.replace(location, requestedAt, now);
+        }
+
+        void prefetchLocations() {
+            for (String location : sPrefetchInterstitialLocations) {
+                MoPubLog.d("Prefetching Chartboost interstitial for location " + location + ".");
+                cacheInterstitial(location);
+            }
+            for (String location : sPrefetchRewardedVideoLocations) {
+                MoPubLog.d("Prefetching Chartboost rewarded video for location " + location + ".");
+                cacheRewardedVideo(location);
+            }
+        }
 
         public void registerInterstitialListener(@NonNull String location,
                                                  @NonNull CustomEventInterstitialListener interstitialListener) {
             Preconditions.checkNotNull(location);
             Preconditions.checkNotNull(interstitialListener);
-            mInterstitialListenersForLocation.put(location, interstitialListener);
+
+            Set<CustomEventInterstitialListener> listeners = mInterstitialListenersForLocation.get(location);
+            if (listeners == null) {
+                final Set<CustomEventInterstitialListener> newListeners = new CopyOnWriteArraySet<>();
+                listeners = mInterstitialListenersForLocation.putIfAbsent(location, newListeners);
+                if (listeners == null) {
+                    listeners = newListeners;
+                }
+            }
+            listeners.add(interstitialListener);
         }
 
+        public void unregisterInterstitialListener(@NonNull String location,
+                                                   @NonNull CustomEventInterstitialListener interstitialListener) {
+            Preconditions.checkNotNull(location);
+            Preconditions.checkNotNull(interstitialListener);
+
+            final Set<CustomEventInterstitialListener> listeners = mInterstitialListenersForLocation.get(location);
+            if (listeners != null) {
+                listeners.remove(interstitialListener);
+            }
+        }
+
+        /**
+         * Removes every listener registered for the location.
+         */
         public void unregisterInterstitialListener(@NonNull String location) {
             Preconditions.checkNotNull(location);
-            mInterstitialListenersForLocation.remove(location);
+            final Set<CustomEventInterstitialListener> listeners = mInterstitialListenersForLocation.get(location);
+            if (listeners != null) {
+                listeners.clear();
+            }
         }
 
-        public void registerRewardedVideoLocation(@NonNull String location) {
+        public void registerRewardedVideoLocation(@NonNull String location,
+                                                  @NonNull MediationMetrics.Tracker metricsTracker) {
             Preconditions.checkNotNull(location);
+            Preconditions.checkNotNull(metricsTracker);
+            mRewardedVideoTrackers.put(location, metricsTracker);
             mRewardedVideoLocationsToLoad.add(location);
         }
 
@@ -160,19 +320,39 @@ public class ChartboostShared {
             mRewardedVideoLocationsToLoad.remove(location);
         }
 
+        /**
+         * Returns the first listener registered for the location. Delegate callbacks are
+         * forwarded to every listener of the location; see {@link #getInterstitialListeners}.
+         */
         @NonNull
         public CustomEventInterstitialListener getInterstitialListener(@NonNull String location) {
-            final CustomEventInterstitialListener listener = mInterstitialListenersForLocation.get(location);
-            return listener != null ? listener : NULL_LISTENER;
+            for (CustomEventInterstitialListener listener : getInterstitialListeners(location)) {
+                return listener;
+            }
+            return NULL_LISTENER;
+        }
+
+        @NonNull
+        public Set<CustomEventInterstitialListener> getInterstitialListeners(@NonNull String location) {
+            final Set<CustomEventInterstitialListener> listeners = mInterstitialListenersForLocation.get(location);
+            return listeners != null ? listeners : Collections.<CustomEventInterstitialListener>emptySet();
         }
 
         public boolean hasInterstitialLocation(@NonNull String location) {
-            return mInterstitialListenersForLocation.containsKey(location);
+            return !getInterstitialListeners(location).isEmpty();
         }
 
         //******************
         // Chartboost Delegate methods.
         //******************
+        @Override
+        public void didInitialize() {
+            super.didInitialize();
+            // Requests made before Chartboost finished initializing may never be answered.
+            mCachingInterstitialLocations.clear();
+            mCachingRewardedVideoLocations.clear();
+            prefetchLocations();
+        }
 
         //******************
         // Interstitials
@@ -180,21 +360,33 @@ public class ChartboostShared {
         @Override
         public void didCacheInterstitial(String location) {
             MoPubLog.d("Chartboost interstitial loaded successfully.");
-            getInterstitialListener(location).onInterstitialLoaded();
+            mCachingInterstitialLocations.remove(location);
+            for (CustomEventInterstitialListener listener : getInterstitialListeners(location)) {
+                listener.onInterstitialLoaded();
+            }
         }
 
         @Override
         public void didFailToLoadInterstitial(String location, CBError.CBImpressionError error) {
             String suffix = error != null ? "Error: " + error.name() : "";
             Log.d("MoPub", "Chartboost interstitial ad failed to load." + suffix);
-            getInterstitialListener(location).onInterstitialFailed(MoPubErrorCode.NETWORK_NO_FILL);
+            mCachingInterstitialLocations.remove(location);
+            for (CustomEventInterstitialListener listener : getInterstitialListeners(location)) {
+                listener.onInterstitialFailed(MoPubErrorCode.NETWORK_NO_FILL);
+            }
         }
 
         @Override
         public void didDismissInterstitial(String location) {
             // Note that this method is fired before didCloseInterstitial and didClickInterstitial.
             MoPubLog.d("Chartboost interstitial ad dismissed.");
-            getInterstitialListener(location).onInterstitialDismissed();
+            for (CustomEventInterstitialListener listener : getInterstitialListeners(location)) {
+                listener.onInterstitialDismissed();
+            }
+
+            if (sPrefetchInterstitialLocations.contains(location)) {
+                cacheInterstitial(location);
+            }
         }
 
         @Override
@@ -205,13 +397,17 @@ public class ChartboostShared {
         @Override
         public void didClickInterstitial(String location) {
             MoPubLog.d("Chartboost interstitial ad clicked.");
-            getInterstitialListener(location).onInterstitialClicked();
+            for (CustomEventInterstitialListener listener : getInterstitialListeners(location)) {
+                listener.onInterstitialClicked();
+            }
         }
 
         @Override
         public void didDisplayInterstitial(String location) {
             MoPubLog.d("Chartboost interstitial ad shown.");
-            getInterstitialListener(location).onInterstitialShown();
+            for (CustomEventInterstitialListener listener : getInterstitialListeners(location)) {
+                listener.onInterstitialShown();
+            }
         }
 
         //******************
@@ -220,26 +416,35 @@ public class ChartboostShared {
         @Override
         public void didCacheRewardedVideo(String location) {
             super.didCacheRewardedVideo(location);
+            mCachingRewardedVideoLocations.remove(location);
 
-            if (mRewardedVideoLocationsToLoad.contains(location)) {
+            // remove() doubles as the check so that concurrent callbacks only notify once.
+            if (mRewardedVideoLocationsToLoad.remove(location)) {
                 MoPubLog.d("Chartboost rewarded video cached for location " + location + ".");
+                final MediationMetrics.Tracker metricsTracker = mRewardedVideoTrackers.get(location);
+                if (metricsTracker != null) {
+                    metricsTracker.onLoadSucceeded();
+                }
                 MoPubRewardedVideoManager.onRewardedVideoLoadSuccess(ChartboostRewardedVideo.class, location);
-                mRewardedVideoLocationsToLoad.remove(location);
             }
         }
 
         @Override
         public void didFailToLoadRewardedVideo(String location, CBError.CBImpressionError error) {
             super.didFailToLoadRewardedVideo(location, error);
+            mCachingRewardedVideoLocations.remove(location);
             String suffix = error != null ? " with error: " + error.name() : "";
-            if (mRewardedVideoLocationsToLoad.contains(location)) {
+            if (mRewardedVideoLocationsToLoad.remove(location)) {
                 MoPubErrorCode errorCode = VIDEO_DOWNLOAD_ERROR;
                 MoPubLog.d("Chartboost rewarded video cache failed for location " + location + suffix);
                 if (CBError.CBImpressionError.INVALID_LOCATION.equals(error)) {
                     errorCode = ADAPTER_CONFIGURATION_ERROR;
                 }
+                final MediationMetrics.Tracker metricsTracker = mRewardedVideoTrackers.get(location);
+                if (metricsTracker != null) {
+                    metricsTracker.onLoadFailed(errorCode);
+                }
                 MoPubRewardedVideoManager.onRewardedVideoLoadFailure(ChartboostRewardedVideo.class, location, errorCode);
-                mRewardedVideoLocationsToLoad.remove(location);
             }
         }
 
@@ -255,6 +460,10 @@ public class ChartboostShared {
         public void didCloseRewardedVideo(String location) {
             super.didCloseRewardedVideo(location);
             MoPubLog.d("Chartboost rewarded video closed for location " + location + ".");
+
+            if (sPrefetchRewardedVideoLocations.contains(location)) {
+                cacheRewardedVideo(location);
+            }
         }
 
         @Override
@@ -279,6 +488,10 @@ public class ChartboostShared {
         public void didDisplayRewardedVideo(String location) {
             super.didDisplayRewardedVideo(location);
             MoPubLog.d("Chartboost rewarded video displayed for location " + location + ".");
+            final MediationMetrics.Tracker metricsTracker = mRewardedVideoTrackers.get(location);
+            if (metricsTracker != null) {
+                metricsTracker.onImpression();
+            }
             MoPubRewardedVideoManager.onRewardedVideoStarted(ChartboostRewardedVideo.class, location);
         }
 
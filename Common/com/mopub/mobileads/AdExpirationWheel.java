@@ -0,0 +1,225 @@
+package com.mopub.mobileads;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Expires loaded ads that were never shown, for every adapter, from a single hashed timer wheel.
+ * <p>
+ * Adapters {@link #schedule(Runnable, long)} a callback with their network's TTL when an ad
+ * loads, and {@link Timeout#cancel()} it when the ad is shown or invalidated. Timeouts are hashed
+ * into {@link #WHEEL_SIZE} slots of {@link #TICK_MILLIS} each, so scheduling and cancelling are
+ * O(1) and each tick only visits one slot. The wheel only wakes up for ticks whose slot holds a
+ * timeout, and not at all while nothing is scheduled. Expiration is accurate to within one tick. All methods
+ * must be called on the main thread, and callbacks run on it.
+ */
+public class AdExpirationWheel {
+
+    static final long TICK_MILLIS = 5 * 1000;
+    static final int WHEEL_SIZE = 512;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private static final AdExpirationWheel sInstance = new AdExpirationWheel();
+
+    @NonNull
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    // Each slot is the head of a doubly linked list, so a timeout can unlink itself on cancel.
+    @NonNull
+    private final Timeout[] mWheel = new Timeout[WHEEL_SIZE];
+    private final long mStartMillis = SystemClock.elapsedRealtime();
+    // The next tick to process. Tick n is processed once n * TICK_MILLIS have elapsed.
+    private long mNextTick;
+    private int mCount;
+    private boolean mTickScheduled;
+    // The tick the posted message will process, while mTickScheduled.
+    private long mScheduledTick;
+
+    @NonNull
+    private final Runnable mTickRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mTickScheduled = false;
+            final long elapsedTicks = getElapsedMillis() / TICK_MILLIS;
+            while (mNextTick <= elapsedTicks && mCount > 0) {
+                expireSlot(mNextTick);
+                mNextTick++;
+            }
+            if (mCount == 0) {
+                mNextTick = elapsedTicks + 1;
+            }
+            scheduleTick();
+        }
+    };
+
+    @NonNull
+    public static AdExpirationWheel getInstance() {
+        return sInstance;
+    }
+
+    private AdExpirationWheel() {
+    }
+
+    /**
+     * Runs the callback on the main thread once the TTL has passed, unless the returned timeout
+     * is cancelled first.
+     */
+    @NonNull
+    public Timeout schedule(@NonNull final Runnable onExpired, final long ttlMillis) {
+        final long elapsedMillis = getElapsedMillis();
+        if (mCount == 0) {
+            // Nothing is scheduled, so the ticks missed while idle have nothing to expire.
+            mNextTick = Math.max(mNextTick, elapsedMillis / TICK_MILLIS + 1);
+        }
+
+        final long deadlineMillis = elapsedMillis + Math.max(0, ttlMillis);
+        final long deadlineTick = Math.max(mNextTick,
+                (deadlineMillis + TICK_MILLIS - 1) / TICK_MILLIS);
+
+        final Timeout timeout = new Timeout(this, onExpired,
+                (deadlineTick - mNextTick) / WHEEL_SIZE, (int) (deadlineTick & WHEEL_MASK));
+        link(timeout);
+        scheduleTickAt(getNextVisit(timeout.mSlot));
+        return timeout;
+    }
+
+    /**
+     * Number of timeouts currently scheduled.
+     */
+    public int getScheduledCount() {
+        return mCount;
+    }
+
+    private void expireSlot(final long tick) {
+        // Callbacks run after the slot is walked, since they may schedule or cancel timeouts.
+        List<Runnable> expired = null;
+        Timeout timeout = mWheel[(int) (tick & WHEEL_MASK)];
+        while (timeout != null) {
+            final Timeout next = timeout.mNext;
+            if (timeout.mRemainingRounds <= 0) {
+                unlink(timeout);
+                if (expired == null) {
+                    expired = new ArrayList<>();
+                }
+                expired.add(timeout.mOnExpired);
+            } else {
+                timeout.mRemainingRounds--;
+            }
+            timeout = next;
+        }
+
+        if (expired != null) {
+            for (Runnable onExpired : expired) {
+                onExpired.run();
+            }
+        }
+    }
+
+    /**
+     * Schedules the next tick at the first slot from {@link #mNextTick} that holds a timeout.
+     */
+    private void scheduleTick() {
+        if (mCount == 0) {
+            return;
+        }
+        for (long tick = mNextTick; tick < mNextTick + WHEEL_SIZE; tick++) {
+            if (mWheel[(int) (tick & WHEEL_MASK)] != null) {
+                scheduleTickAt(tick);
+                return;
+            }
+        }
+    }
+
+    private void scheduleTickAt(final long tick) {
+        if (mTickScheduled) {
+            if (tick >= mScheduledTick) {
+                return;
+            }
+            mHandler.removeCallbacks(mTickRunnable);
+        }
+        mTickScheduled = true;
+        mScheduledTick = tick;
+        final long delayMillis = tick * TICK_MILLIS - getElapsedMillis();
+        mHandler.postDelayed(mTickRunnable, Math.max(0, delayMillis));
+    }
+
+    /**
+     * The first tick from {@link #mNextTick} that visits the slot.
+     */
+    private long getNextVisit(final int slot) {
+        return mNextTick + ((slot - mNextTick) & WHEEL_MASK);
+    }
+
+    private void link(@NonNull final Timeout timeout) {
+        final Timeout head = mWheel[timeout.mSlot];
+        timeout.mNext = head;
+        if (head != null) {
+            head.mPrev = timeout;
+        }
+        mWheel[timeout.mSlot] = timeout;
+        timeout.mScheduled = true;
+        mCount++;
+    }
+
+    private void unlink(@NonNull final Timeout timeout) {
+        if (!timeout.mScheduled) {
+            return;
+        }
+
+        if (timeout.mPrev != null) {
+            timeout.mPrev.mNext = timeout.mNext;
+        } else {
+            mWheel[timeout.mSlot] = timeout.mNext;
+        }
+        if (timeout.mNext != null) {
+            timeout.mNext.mPrev = timeout.mPrev;
+        }
+        timeout.mPrev = null;
+        timeout.mNext = null;
+        timeout.mScheduled = false;
+        mCount--;
+
+        if (mCount == 0 && mTickScheduled) {
+            mHandler.removeCallbacks(mTickRunnable);
+            mTickScheduled = false;
+        }
+    }
+
+    private long getElapsedMillis() {
+        return SystemClock.elapsedRealtime() - mStartMillis;
+    }
+
+    public static final class Timeout {
+        @NonNull
+        private final AdExpirationWheel mWheel;
+        @NonNull
+        private final Runnable mOnExpired;
+        private final int mSlot;
+        private long mRemainingRounds;
+        @Nullable
+        private Timeout mPrev;
+        @Nullable
+        private Timeout mNext;
+        private boolean mScheduled;
+
+        private Timeout(@NonNull final AdExpirationWheel wheel, @NonNull final Runnable onExpired,
+                        final long remainingRounds, final int slot) {
+            mWheel = wheel;
+            mOnExpired = onExpired;
+            mRemainingRounds = remainingRounds;
+            mSlot = slot;
+        }
+
+        /**
+         * Stops the callback from running. Does nothing if it already ran or was cancelled.
+         */
+        public void cancel() {
+            mWheel.unlink(this);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.mopub.mobileads;
+
+import android.support.annotation.NonNull;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Remembers which optional classes are bundled with the app, so that adapters probe the
+ * classpath once per process instead of on every ad request.
+ * <p>
+ * Adapters use this for features that depend on optional classes, e.g. a network's video
+ * renderer that publishers may leave out. The first {@link #isClassAvailable(String)} for a class
+ * loads it; later calls are a map lookup. Call {@link #getProbedClasses()} to see what has been
+ * detected so far.
+ */
+public class AdapterCapabilities {
+
+    @NonNull
+    private static final ConcurrentMap<String, Boolean> sClassAvailability =
+            new ConcurrentHashMap<>();
+
+    private AdapterCapabilities() {
+    }
+
+    public static boolean isClassAvailable(@NonNull final String className) {
+        final Boolean cachedAvailability = sClassAvailability.get(className);
+        if (cachedAvailability != null) {
+            return cachedAvailability;
+        }
+
+        boolean available;
+        try {
+            Class.forName(className);
+            available = true;
+        } catch (ClassNotFoundException e) {
+            available = false;
+        }
+
+        // Concurrent first probes all reach the same answer, so the last write winning is fine.
+        sClassAvailability.put(className, available);
+        return available;
+    }
+
+    /**
+     * Returns every class probed so far, mapped to whether it is available.
+     */
+    @NonNull
+    public static Map<String, Boolean> getProbedClasses() {
+        return Collections.unmodifiableMap(new HashMap<>(sClassAvailability));
+    }
+}
@@ -0,0 +1,400 @@
+package com.mopub.mobileads;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.text.TextUtils;
+
+import com.mopub.common.MoPub;
+import com.mopub.common.logging.MoPubLog;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects and caches the tokens of the advanced bidders included in the app.
+ * <p>
+ * Each bidder registers a {@link TokenFetcher} with a per-network TTL. Tokens are fetched off the
+ * calling thread, in parallel, and refreshed in the background before they expire, so
+ * {@link #getToken(Context, String)} returns a cached token without blocking. A token is only
+ * refreshed in the background if it was requested since it was last fetched, so an idle app stops
+ * refreshing after one cycle. Only when no token is cached does it wait, for at most the
+ * collection deadline, on a parallel collection of the bidders whose tokens are missing or
+ * expired. Every cached token is dropped when {@link MoPub#canCollectPersonalInformation()}
+ * changes, since it was fetched under the previous consent.
+ */
+public class AdvancedBidderTokenCollector {
+
+    /**
+     * Fetches a token from a network SDK. May block; always called off the ad request thread.
+     */
+    public interface TokenFetcher {
+        @Nullable
+        String fetchToken(@NonNull Context context);
+    }
+
+    public static final long DEFAULT_COLLECTION_DEADLINE_MILLIS = 100;
+    public static final long DEFAULT_TOKEN_TTL_MILLIS = 30 * 60 * 1000L;
+
+    /**
+     * Tokens are refreshed once this fraction of their TTL has elapsed.
+     */
+    private static final double REFRESH_TTL_FRACTION = 0.8;
+
+    private static final AdvancedBidderTokenCollector sInstance = new AdvancedBidderTokenCollector();
+
+    @NonNull
+    private final ConcurrentMap<String, TokenEntry> mEntries = new ConcurrentHashMap<>();
+    @NonNull
+    private final AtomicBoolean mCanCollectPersonalInformation = new AtomicBoolean();
+    @NonNull
+    private final ExecutorService mFetchExecutor;
+    @NonNull
+    private final ScheduledExecutorService mRefreshExecutor;
+    private volatile long mCollectionDeadlineMillis = DEFAULT_COLLECTION_DEADLINE_MILLIS;
+
+    @NonNull
+    public static AdvancedBidderTokenCollector getInstance() {
+        return sInstance;
+    }
+
+    private AdvancedBidderTokenCollector() {
+        final ThreadFactory threadFactory = new ThreadFactory() {
+            private final AtomicInteger mThreadCount = new AtomicInteger();
+
+            @Override
+            public Thread newThread(@NonNull final Runnable runnable) {
+                final Thread thread = new Thread(runnable,
+                        "AdvancedBidderTokens-" + mThreadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+        mFetchExecutor = Executors.newCachedThreadPool(threadFactory);
+        mRefreshExecutor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    /**
+     * Registers a bidder's token fetcher with the {@link #DEFAULT_TOKEN_TTL_MILLIS}.
+     */
+    public void register(@NonNull final String networkName, @NonNull final TokenFetcher fetcher) {
+        register(networkName, DEFAULT_TOKEN_TTL_MILLIS, fetcher);
+    }
+
+    /**
+     * Registers a bidder's token fetcher. Registering the same network again has no effect.
+     *
+     * @param networkName the bidder's creative network name.
+     * @param ttlMillis   how long a fetched token may be used for.
+     * @param fetcher     fetches a token from the network SDK.
+     */
+    public void register(@NonNull final String networkName, final long ttlMillis,
+                         @NonNull final TokenFetcher fetcher) {
+        mEntries.putIfAbsent(networkName, new TokenEntry(networkName, ttlMillis, fetcher));
+    }
+
+    /**
+     * Sets how long {@link #getToken(Context, String)} may wait when no token has been fetched.
+     */
+    public void setCollectionDeadlineMillis(final long collectionDeadlineMillis) {
+        mCollectionDeadlineMillis = Math.max(0, collectionDeadlineMillis);
+    }
+
+    /**
+     * Returns the cached token for the network, scheduling a refresh if it is about to expire.
+     * If no token has been fetched yet, collects all registered tokens in parallel and waits for
+     * at most the collection deadline.
+     *
+     * @return the token, or null if the network is not registered or did not return a token in
+     * time.
+     */
+    @Nullable
+    public String getToken(@NonNull final Context context, @NonNull final String networkName) {
+        final TokenEntry entry = mEntries.get(networkName);
+        if (entry == null) {
+            return null;
+        }
+
+        invalidateIfConsentChanged();
+        entry.mLastRequestedMillis = SystemClock.elapsedRealtime();
+        final String token = entry.getToken();
+        if (token != null) {
+            if (entry.shouldRefresh(SystemClock.elapsedRealtime())) {
+                entry.fetchAsync(context);
+            }
+            return token;
+        }
+
+        collectTokens(context, mCollectionDeadlineMillis);
+        return entry.getToken();
+    }
+
+    /**
+     * Fetches the registered tokens that are missing or expired in parallel, waiting for at most
+     * the given deadline. Tokens that are still cached are returned without a fetch.
+     *
+     * @return network name -> token for every bidder with a cached token or that returned one
+     * before the deadline.
+     */
+    @NonNull
+    public Map<String, String> collectTokens(@NonNull final Context context,
+                                             final long deadlineMillis) {
+        invalidateIfConsentChanged();
+        final Map<String, String> tokens = new HashMap<>();
+        final List<TokenEntry> entries = new ArrayList<>(mEntries.size());
+        final List<Future<String>> futures = new ArrayList<>(mEntries.size());
+        for (TokenEntry entry : mEntries.values()) {
+            final String cachedToken = entry.getToken();
+            if (cachedToken != null) {
+                tokens.put(entry.mNetworkName, cachedToken);
+            } else {
+                entries.add(entry);
+                futures.add(entry.fetchAsync(context));
+            }
+        }
+
+        final long deadline = SystemClock.elapsedRealtime() + deadlineMillis;
+        for (int i = 0; i < entries.size(); i++) {
+            final TokenEntry entry = entries.get(i);
+            final long remainingMillis = Math.max(0, deadline - SystemClock.elapsedRealtime());
+            try {
+                futures.get(i).get(remainingMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                entry.mTimeoutCount.incrementAndGet();
+                MoPubLog.d("Timed out collecting the advanced bidding token for " + entry.mNetworkName);
+            } catch (Exception e) {
+                MoPubLog.d("Failed to collect the advanced bidding token for " + entry.mNetworkName, e);
+            }
+
+            final String token = entry.getToken();
+            if (token != null) {
+                tokens.put(entry.mNetworkName, token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Starts fetching all registered tokens in the background without waiting for them.
+     */
+    public void prefetchTokens(@NonNull final Context context) {
+        invalidateIfConsentChanged();
+        for (TokenEntry entry : mEntries.values()) {
+            entry.fetchAsync(context);
+        }
+    }
+
+    private void invalidateIfConsentChanged() {
+        final boolean canCollectPersonalInformation = MoPub.canCollectPersonalInformation();
+        if (!mCanCollectPersonalInformation.compareAndSet(!canCollectPersonalInformation,
+                canCollectPersonalInformation)) {
+            return;
+        }
+
+        MoPubLog.d("Consent changed. Dropping the cached advanced bidding tokens.");
+        for (TokenEntry entry : mEntries.values()) {
+            entry.invalidate();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the fetch latency and timeout counters for the network, or null if it
+     * is not registered.
+     */
+    @Nullable
+    public TokenStats getStats(@NonNull final String networkName) {
+        final TokenEntry entry = mEntries.get(networkName);
+        return entry == null ? null : entry.getStats();
+    }
+
+    public static class TokenStats {
+        private final long mFetchCount;
+        private final long mFailureCount;
+        private final long mTimeoutCount;
+        private final long mLastLatencyMillis;
+        private final long mTotalLatencyMillis;
+
+        TokenStats(final long fetchCount, final long failureCount, final long timeoutCount,
+                   final long lastLatencyMillis, final long totalLatencyMillis) {
+            mFetchCount = fetchCount;
+            mFailureCount = failureCount;
+            mTimeoutCount = timeoutCount;
+            mLastLatencyMillis = lastLatencyMillis;
+            mTotalLatencyMillis = totalLatencyMillis;
+        }
+
+        public long getFetchCount() {
+            return mFetchCount;
+        }
+
+        public long getFailureCount() {
+            return mFailureCount;
+        }
+
+        /**
+         * Number of collections the bidder did not complete before the deadline.
+         */
+        public long getTimeoutCount() {
+            return mTimeoutCount;
+        }
+
+        public long getLastLatencyMillis() {
+            return mLastLatencyMillis;
+        }
+
+        public long getAverageLatencyMillis() {
+            return mFetchCount == 0 ? 0 : mTotalLatencyMillis / mFetchCount;
+        }
+    }
+
+    private class TokenEntry {
+        @NonNull
+        private final String mNetworkName;
+        private final long mTtlMillis;
+        @NonNull
+        private final TokenFetcher mFetcher;
+
+        @Nullable
+        private volatile String mToken;
+        private volatile long mFetchedAtMillis;
+        private volatile long mLastRequestedMillis;
+        @Nullable
+        private Future<String> mInFlightFetch;
+        @Nullable
+        private ScheduledFuture<?> mScheduledRefresh;
+        // Bumped on every invalidation, so that a fetch started before it doesn't cache its token.
+        private volatile int mGeneration;
+
+        private final AtomicLong mFetchCount = new AtomicLong();
+        private final AtomicLong mFailureCount = new AtomicLong();
+        private final AtomicLong mTimeoutCount = new AtomicLong();
+        private final AtomicLong mLastLatencyMillis = new AtomicLong();
+        private final AtomicLong mTotalLatencyMillis = new AtomicLong();
+
+        TokenEntry(@NonNull final String networkName, final long ttlMillis,
+                   @NonNull final TokenFetcher fetcher) {
+            mNetworkName = networkName;
+            mTtlMillis = ttlMillis;
+            mFetcher = fetcher;
+        }
+
+        @Nullable
+        String getToken() {
+            final String token = mToken;
+            if (token == null || SystemClock.elapsedRealtime() - mFetchedAtMillis >= mTtlMillis) {
+                return null;
+            }
+            return token;
+        }
+
+        boolean shouldRefresh(final long now) {
+            return now - mFetchedAtMillis >= (long) (mTtlMillis * REFRESH_TTL_FRACTION);
+        }
+
+        /**
+         * Starts a fetch unless one is already in flight, and returns the in-flight fetch.
+         */
+        @NonNull
+        synchronized Future<String> fetchAsync(@NonNull final Context context) {
+            if (mInFlightFetch != null && !mInFlightFetch.isDone()) {
+                return mInFlightFetch;
+            }
+
+            final Context applicationContext = context.getApplicationContext();
+            final int generation = mGeneration;
+            mInFlightFetch = mFetchExecutor.submit(new Callable<String>() {
+                @Override
+                public String call() {
+                    return fetch(applicationContext, generation);
+                }
+            });
+            return mInFlightFetch;
+        }
+
+        /**
+         * Drops the cached token and its scheduled refresh, and detaches any fetch in flight.
+         */
+        synchronized void invalidate() {
+            mGeneration++;
+            mToken = null;
+            mInFlightFetch = null;
+            if (mScheduledRefresh != null) {
+                mScheduledRefresh.cancel(false);
+                mScheduledRefresh = null;
+            }
+        }
+
+        @Nullable
+        private String fetch(@NonNull final Context context, final int generation) {
+            final long startMillis = SystemClock.elapsedRealtime();
+            String token = null;
+            try {
+                token = mFetcher.fetchToken(context);
+            } catch (Exception e) {
+                MoPubLog.d("Unable to fetch the advanced bidding token for " + mNetworkName, e);
+            }
+            final long endMillis = SystemClock.elapsedRealtime();
+
+            mFetchCount.incrementAndGet();
+            mLastLatencyMillis.set(endMillis - startMillis);
+            mTotalLatencyMillis.addAndGet(endMillis - startMillis);
+
+            if (TextUtils.isEmpty(token)) {
+                mFailureCount.incrementAndGet();
+                return null;
+            }
+
+            synchronized (this) {
+                if (generation != mGeneration) {
+                    return null;
+                }
+                mToken = token;
+                mFetchedAtMillis = endMillis;
+                scheduleRefresh(context);
+            }
+            return token;
+        }
+
+        private synchronized void scheduleRefresh(@NonNull final Context context) {
+            if (mScheduledRefresh != null) {
+                mScheduledRefresh.cancel(false);
+            }
+
+            final long refreshDelayMillis = (long) (mTtlMillis * REFRESH_TTL_FRACTION);
+            mScheduledRefresh = mRefreshExecutor.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    // Unused since the last fetch: let it lapse, and the next getToken
+                    // refetches on demand.
+                    if (mLastRequestedMillis < mFetchedAtMillis) {
+                        return;
+                    }
+                    fetchAsync(context);
+                }
+            }, refreshDelayMillis, TimeUnit.MILLISECONDS);
+        }
+
+        @NonNull
+        TokenStats getStats() {
+            return new TokenStats(mFetchCount.get(), mFailureCount.get(), mTimeoutCount.get(),
+                    mLastLatencyMillis.get(), mTotalLatencyMillis.get());
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.mopub.mobileads;
+
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-bucket, lock-free latency histogram in milliseconds.
+ * <p>
+ * Like an HDR histogram, values under 16ms get a bucket each and every power of two above that
+ * is split into 8 sub-buckets, so recorded values are kept to within 12.5% of their true value
+ * with no allocation on {@link #record(long)}. Values above ~70 minutes are counted in the last
+ * bucket.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_BUCKET_COUNT = 2 * SUB_BUCKET_COUNT;
+    private static final int FIRST_EXPONENT = SUB_BUCKET_BITS + 1;
+    private static final int MAX_EXPONENT = 21;
+    static final int BUCKET_COUNT =
+            LINEAR_BUCKET_COUNT + (MAX_EXPONENT - FIRST_EXPONENT + 1) * SUB_BUCKET_COUNT;
+
+    @NonNull
+    private final AtomicLongArray mCounts = new AtomicLongArray(BUCKET_COUNT);
+    @NonNull
+    private final AtomicLong mTotalCount = new AtomicLong();
+    @NonNull
+    private final AtomicLong mSumMillis = new AtomicLong();
+    @NonNull
+    private final AtomicLong mMaxMillis = new AtomicLong();
+
+    public void record(final long valueMillis) {
+        final long value = Math.max(0, valueMillis);
+        mCounts.incrementAndGet(getBucketIndex(value));
+        mTotalCount.incrementAndGet();
+        mSumMillis.addAndGet(value);
+
+        long max = mMaxMillis.get();
+        while (value > max && !mMaxMillis.compareAndSet(max, value)) {
+            max = mMaxMillis.get();
+        }
+    }
+
+    @NonNull
+    public Snapshot getSnapshot() {
+        final long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = mCounts.get(i);
+        }
+        return new Snapshot(counts, mTotalCount.get(), mSumMillis.get(), mMaxMillis.get());
+    }
+
+    static int getBucketIndex(final long value) {
+        if (value < LINEAR_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        final int subBucket = (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1));
+        return LINEAR_BUCKET_COUNT + (exponent - FIRST_EXPONENT) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * Returns the largest value counted in the given bucket.
+     */
+    static long getBucketUpperBound(final int index) {
+        if (index < LINEAR_BUCKET_COUNT - 1) {
+            return index;
+        }
+        if (index >= BUCKET_COUNT - 1) {
+            return Long.MAX_VALUE;
+        }
+
+        final int next = index + 1 - LINEAR_BUCKET_COUNT;
+        final int exponent = next / SUB_BUCKET_COUNT + FIRST_EXPONENT;
+        final long subBucket = SUB_BUCKET_COUNT + next % SUB_BUCKET_COUNT;
+        return (subBucket << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    /**
+     * Point-in-time copy of a histogram. Buckets are copied one at a time while recording may
+     * continue, so the totals can be off by the few values recorded during the copy.
+     */
+    public static final class Snapshot {
+        @NonNull
+        private final long[] mCounts;
+        private final long mTotalCount;
+        private final long mSumMillis;
+        private final long mMaxMillis;
+
+        Snapshot(@NonNull final long[] counts, final long totalCount, final long sumMillis,
+                 final long maxMillis) {
+            mCounts = counts;
+            mTotalCount = totalCount;
+            mSumMillis = sumMillis;
+            mMaxMillis = maxMillis;
+        }
+
+        public long getCount() {
+            return mTotalCount;
+        }
+
+        public long getMaxMillis() {
+            return mMaxMillis;
+        }
+
+        public double getMeanMillis() {
+            return mTotalCount == 0 ? 0 : (double) mSumMillis / mTotalCount;
+        }
+
+        /**
+         * Returns the value at the given percentile (0-100), or 0 if nothing was recorded.
+         */
+        public long getValueAtPercentile(final double percentile) {
+            long total = 0;
+            for (long count : mCounts) {
+                total += count;
+            }
+            if (total == 0) {
+                return 0;
+            }
+
+            final double clampedPercentile = Math.min(100, Math.max(0, percentile));
+            final long rank = Math.max(1, (long) Math.ceil(clampedPercentile / 100 * total));
+            long seen = 0;
+            for (int i = 0; i < mCounts.length; i++) {
+                seen += mCounts[i];
+                if (seen >= rank) {
+                    return Math.min(getBucketUpperBound(i), mMaxMillis);
+                }
+            }
+            return mMaxMillis;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.mopub.mobileads;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delivers adapter callbacks on the main thread through one shared queue.
+ * <p>
+ * Network SDKs tend to report a load as a burst of callbacks from a background thread. Instead of
+ * a {@link Handler} per adapter and a main thread message per callback, everything posted here
+ * is queued and run in order by a single message, which is only posted when no drain is pending.
+ * Callbacks posted while a drain runs wait for the next one, so a busy SDK can't starve the main
+ * thread.
+ */
+public class MainThreadDispatcher {
+
+    private static final MainThreadDispatcher sInstance = new MainThreadDispatcher();
+
+    @NonNull
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    @NonNull
+    private final Queue<Runnable> mQueue = new ConcurrentLinkedQueue<>();
+    @NonNull
+    private final AtomicBoolean mDrainScheduled = new AtomicBoolean();
+
+    @NonNull
+    private final Runnable mDrainRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mDrainScheduled.set(false);
+
+            // Only run what was queued before this drain started; anything posted by the
+            // callbacks themselves is picked up by the next message.
+            int remaining = mQueue.size();
+            Runnable runnable;
+            while (remaining-- > 0 && (runnable = mQueue.poll()) != null) {
+                runnable.run();
+            }
+
+            if (!mQueue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    };
+
+    @NonNull
+    public static MainThreadDispatcher getInstance() {
+        return sInstance;
+    }
+
+    private MainThreadDispatcher() {
+    }
+
+    /**
+     * Runs the runnable on the main thread after the callbacks already posted, and never inline.
+     * Use this when the caller must return before the callback runs.
+     */
+    public void post(@NonNull final Runnable runnable) {
+        mQueue.offer(runnable);
+        scheduleDrain();
+    }
+
+    /**
+     * Runs the runnable right away if called on the main thread with nothing queued, and
+     * otherwise posts it behind the queued callbacks so that ordering is kept.
+     */
+    public void runOnMainThread(@NonNull final Runnable runnable) {
+        if (Looper.myLooper() == Looper.getMainLooper() && mQueue.isEmpty()) {
+            runnable.run();
+        } else {
+            post(runnable);
+        }
+    }
+
+    private void scheduleDrain() {
+        if (mDrainScheduled.compareAndSet(false, true)) {
+            mHandler.post(mDrainRunnable);
+        }
+    }
+}
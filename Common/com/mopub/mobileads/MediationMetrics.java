@@ -0,0 +1,382 @@
+package com.mopub.mobileads;
+
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.mopub.common.logging.MoPubLog;
+import com.mopub.nativeads.NativeErrorCode;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency histograms and fill/error counters for every adapter and placement.
+ * <p>
+ * Adapters create a {@link Tracker} per ad load with {@link #newTracker(String, String)} and
+ * report the load, show and impression callbacks to it. Recording looks up no maps and allocates
+ * nothing; the per-placement metrics are resolved once when the tracker is created. Network SDK
+ * init durations are recorded by {@link MediationWarmUp}. Call {@link #getSnapshot()} to export
+ * everything recorded so far.
+ */
+public class MediationMetrics {
+
+    public enum Metric {
+        LOAD_TO_FILL,
+        LOAD_TO_FAIL,
+        SHOW_TO_IMPRESSION,
+        INITIALIZATION
+    }
+
+    private static final String NO_PLACEMENT = "";
+    private static final long NOT_STARTED = -1;
+
+    private static final MediationMetrics sInstance = new MediationMetrics();
+
+    @NonNull
+    private final ConcurrentMap<String, ConcurrentMap<String, PlacementMetrics>> mMetrics =
+            new ConcurrentHashMap<>();
+
+    @NonNull
+    public static MediationMetrics getInstance() {
+        return sInstance;
+    }
+
+    private MediationMetrics() {
+    }
+
+    /**
+     * Creates a tracker for one ad load. Call this right before the ad is requested from the
+     * network SDK; the load timer starts immediately.
+     *
+     * @param adapterName The custom event reporting the metrics, e.g. "VungleInterstitial".
+     * @param placementId The network's placement, zone or ad unit ID, if known.
+     */
+    @NonNull
+    public Tracker newTracker(@NonNull final String adapterName,
+                              @Nullable final String placementId) {
+        final PlacementMetrics metrics = getPlacementMetrics(adapterName, placementId);
+        metrics.mRequests.incrementAndGet();
+        return new Tracker(metrics);
+    }
+
+    public void recordInitialization(@NonNull final String networkName, final long durationMillis,
+                                     final boolean success) {
+        final PlacementMetrics metrics = getPlacementMetrics(networkName, null);
+        metrics.mHistograms[Metric.INITIALIZATION.ordinal()].record(durationMillis);
+        if (!success) {
+            metrics.mErrors.incrementAndGet(MoPubErrorCode.NETWORK_INVALID_STATE.ordinal());
+        }
+    }
+
+    @NonNull
+    public Snapshot getSnapshot() {
+        final List<PlacementSnapshot> placements = new ArrayList<>();
+        for (Map.Entry<String, ConcurrentMap<String, PlacementMetrics>> adapterEntry
+                : mMetrics.entrySet()) {
+            for (Map.Entry<String, PlacementMetrics> placementEntry
+                    : adapterEntry.getValue().entrySet()) {
+                placements.add(placementEntry.getValue().getSnapshot(adapterEntry.getKey(),
+                        placementEntry.getKey()));
+            }
+        }
+        return new Snapshot(placements);
+    }
+
+    /**
+     * Discards everything recorded so far. Trackers created before the reset keep reporting to
+     * the discarded metrics.
+     */
+    public void reset() {
+        mMetrics.clear();
+    }
+
+    @NonNull
+    private PlacementMetrics getPlacementMetrics(@NonNull final String adapterName,
+                                                 @Nullable final String placementId) {
+        ConcurrentMap<String, PlacementMetrics> adapterMetrics = mMetrics.get(adapterName);
+        if (adapterMetrics == null) {
+            final ConcurrentMap<String, PlacementMetrics> newAdapterMetrics =
+                    new ConcurrentHashMap<>();
+            adapterMetrics = mMetrics.putIfAbsent(adapterName, newAdapterMetrics);
+            if (adapterMetrics == null) {
+                adapterMetrics = newAdapterMetrics;
+            }
+        }
+
+        final String placementKey = placementId == null ? NO_PLACEMENT : placementId;
+        PlacementMetrics metrics = adapterMetrics.get(placementKey);
+        if (metrics == null) {
+            final PlacementMetrics newMetrics = new PlacementMetrics();
+            metrics = adapterMetrics.putIfAbsent(placementKey, newMetrics);
+            if (metrics == null) {
+                metrics = newMetrics;
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Times a single ad load and the show that follows it. Each callback is recorded at most
+     * once per request: a second fill or failure for the same load is ignored. Safe to call from
+     * any thread.
+     */
+    public static final class Tracker {
+        @NonNull
+        private final PlacementMetrics mMetrics;
+        @NonNull
+        private final AtomicLong mLoadRequestedAtMillis;
+        @NonNull
+        private final AtomicLong mShowRequestedAtMillis = new AtomicLong(NOT_STARTED);
+
+        private Tracker(@NonNull final PlacementMetrics metrics) {
+            mMetrics = metrics;
+            mLoadRequestedAtMillis = new AtomicLong(SystemClock.elapsedRealtime());
+        }
+
+        public void onLoadSucceeded() {
+            final long requestedAtMillis = mLoadRequestedAtMillis.getAndSet(NOT_STARTED);
+            if (requestedAtMillis == NOT_STARTED) {
+                return;
+            }
+
+            mMetrics.mFills.incrementAndGet();
+            mMetrics.mHistograms[Metric.LOAD_TO_FILL.ordinal()].record(
+                    SystemClock.elapsedRealtime() - requestedAtMillis);
+        }
+
+        public void onLoadFailed(@Nullable final MoPubErrorCode errorCode) {
+            final long requestedAtMillis = mLoadRequestedAtMillis.getAndSet(NOT_STARTED);
+            if (requestedAtMillis == NOT_STARTED) {
+                return;
+            }
+
+            mMetrics.mErrors.incrementAndGet((errorCode == null
+                    ? MoPubErrorCode.UNSPECIFIED : errorCode).ordinal());
+            mMetrics.mHistograms[Metric.LOAD_TO_FAIL.ordinal()].record(
+                    SystemClock.elapsedRealtime() - requestedAtMillis);
+        }
+
+        /**
+         * Records a native ad load failure under the closest {@link MoPubErrorCode}.
+         */
+        public void onLoadFailed(@Nullable final NativeErrorCode errorCode) {
+            onLoadFailed(toMoPubErrorCode(errorCode));
+        }
+
+        public void onShowRequested() {
+            mShowRequestedAtMillis.set(SystemClock.elapsedRealtime());
+        }
+
+        public void onImpression() {
+            final long requestedAtMillis = mShowRequestedAtMillis.getAndSet(NOT_STARTED);
+            if (requestedAtMillis == NOT_STARTED) {
+                return;
+            }
+
+            mMetrics.mHistograms[Metric.SHOW_TO_IMPRESSION.ordinal()].record(
+                    SystemClock.elapsedRealtime() - requestedAtMillis);
+        }
+    }
+
+    @NonNull
+    private static MoPubErrorCode toMoPubErrorCode(@Nullable final NativeErrorCode errorCode) {
+        if (errorCode == null) {
+            return MoPubErrorCode.UNSPECIFIED;
+        }
+        switch (errorCode) {
+            case NETWORK_NO_FILL:
+                return MoPubErrorCode.NETWORK_NO_FILL;
+            case NETWORK_TIMEOUT:
+                return MoPubErrorCode.NETWORK_TIMEOUT;
+            case NETWORK_INVALID_STATE:
+                return MoPubErrorCode.NETWORK_INVALID_STATE;
+            case CONNECTION_ERROR:
+                return MoPubErrorCode.NO_CONNECTION;
+            case NATIVE_ADAPTER_CONFIGURATION_ERROR:
+                return MoPubErrorCode.ADAPTER_CONFIGURATION_ERROR;
+            default:
+                return MoPubErrorCode.UNSPECIFIED;
+        }
+    }
+
+    private static final class PlacementMetrics {
+        @NonNull
+        private final LatencyHistogram[] mHistograms =
+                new LatencyHistogram[Metric.values().length];
+        @NonNull
+        private final AtomicLong mRequests = new AtomicLong();
+        @NonNull
+        private final AtomicLong mFills = new AtomicLong();
+        @NonNull
+        private final AtomicLongArray mErrors =
+                new AtomicLongArray(MoPubErrorCode.values().length);
+
+        PlacementMetrics() {
+            for (int i = 0; i < mHistograms.length; i++) {
+                mHistograms[i] = new LatencyHistogram();
+            }
+        }
+
+        @NonNull
+        PlacementSnapshot getSnapshot(@NonNull final String adapterName,
+                                      @NonNull final String placementId) {
+            final Map<Metric, LatencyHistogram.Snapshot> histograms = new HashMap<>();
+            for (Metric metric : Metric.values()) {
+                histograms.put(metric, mHistograms[metric.ordinal()].getSnapshot());
+            }
+
+            final Map<MoPubErrorCode, Long> errors = new HashMap<>();
+            for (MoPubErrorCode errorCode : MoPubErrorCode.values()) {
+                final long count = mErrors.get(errorCode.ordinal());
+                if (count > 0) {
+                    errors.put(errorCode, count);
+                }
+            }
+
+            return new PlacementSnapshot(adapterName, placementId, mRequests.get(), mFills.get(),
+                    histograms, errors);
+        }
+    }
+
+    public static final class PlacementSnapshot {
+        @NonNull
+        private final String mAdapterName;
+        @NonNull
+        private final String mPlacementId;
+        private final long mRequests;
+        private final long mFills;
+        @NonNull
+        private final Map<Metric, LatencyHistogram.Snapshot> mHistograms;
+        @NonNull
+        private final Map<MoPubErrorCode, Long> mErrors;
+
+        PlacementSnapshot(@NonNull final String adapterName,
+                          @NonNull final String placementId,
+                          final long requests,
+                          final long fills,
+                          @NonNull final Map<Metric, LatencyHistogram.Snapshot> histograms,
+                          @NonNull final Map<MoPubErrorCode, Long> errors) {
+            mAdapterName = adapterName;
+            mPlacementId = placementId;
+            mRequests = requests;
+            mFills = fills;
+            mHistograms = histograms;
+            mErrors = errors;
+        }
+
+        @NonNull
+        public String getAdapterName() {
+            return mAdapterName;
+        }
+
+        /**
+         * Returns the placement ID, or an empty string for metrics not tied to a placement.
+         */
+        @NonNull
+        public String getPlacementId() {
+            return mPlacementId;
+        }
+
+        public long getRequestCount() {
+            return mRequests;
+        }
+
+        public long getFillCount() {
+            return mFills;
+        }
+
+        public double getFillRate() {
+            return mRequests == 0 ? 0 : (double) mFills / mRequests;
+        }
+
+        public long getNoFillCount() {
+            return getErrorCount(MoPubErrorCode.NETWORK_NO_FILL);
+        }
+
+        public long getErrorCount(@NonNull final MoPubErrorCode errorCode) {
+            final Long count = mErrors.get(errorCode);
+            return count == null ? 0 : count;
+        }
+
+        @NonNull
+        public LatencyHistogram.Snapshot getHistogram(@NonNull final Metric metric) {
+            return mHistograms.get(metric);
+        }
+
+        @NonNull
+        JSONObject toJson() throws JSONException {
+            final JSONObject json = new JSONObject();
+            json.put("adapter", mAdapterName);
+            json.put("placement", mPlacementId);
+            json.put("requests", mRequests);
+            json.put("fills", mFills);
+            json.put("fillRate", getFillRate());
+
+            final JSONObject errors = new JSONObject();
+            for (Map.Entry<MoPubErrorCode, Long> entry : mErrors.entrySet()) {
+                errors.put(entry.getKey().name(), entry.getValue());
+            }
+            json.put("errors", errors);
+
+            for (Metric metric : Metric.values()) {
+                final LatencyHistogram.Snapshot histogram = mHistograms.get(metric);
+                if (histogram.getCount() == 0) {
+                    continue;
+                }
+
+                final JSONObject histogramJson = new JSONObject();
+                histogramJson.put("count", histogram.getCount());
+                histogramJson.put("mean", histogram.getMeanMillis());
+                histogramJson.put("p50", histogram.getValueAtPercentile(50));
+                histogramJson.put("p90", histogram.getValueAtPercentile(90));
+                histogramJson.put("p99", histogram.getValueAtPercentile(99));
+                histogramJson.put("max", histogram.getMaxMillis());
+                json.put(metric.name(), histogramJson);
+            }
+            return json;
+        }
+    }
+
+    public static final class Snapshot {
+        @NonNull
+        private final List<PlacementSnapshot> mPlacements;
+
+        Snapshot(@NonNull final List<PlacementSnapshot> placements) {
+            mPlacements = Collections.unmodifiableList(placements);
+        }
+
+        @NonNull
+        public List<PlacementSnapshot> getPlacements() {
+            return mPlacements;
+        }
+
+        /**
+         * Exports the snapshot as a JSON array with one object per adapter and placement.
+         * Latencies are in milliseconds.
+         */
+        @NonNull
+        public String toJson() {
+            final JSONArray json = new JSONArray();
+            for (PlacementSnapshot placement : mPlacements) {
+                try {
+                    json.put(placement.toJson());
+                } catch (JSONException e) {
+                    MoPubLog.d("Unable to export metrics for " + placement.getAdapterName(), e);
+                }
+            }
+            return json.toString();
+        }
+    }
+}
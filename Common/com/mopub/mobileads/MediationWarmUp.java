@@ -0,0 +1,370 @@
+package com.mopub.mobileads;
+
+import android.app.Activity;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.mopub.common.logging.MoPubLog;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Initializes mediated network SDKs at app start instead of on the first ad request of the
+ * session.
+ * <p>
+ * Adapters cache the server extras they initialize their network with via
+ * {@link #cacheServerExtras(Context, Class, Map)}. On the next launch, {@link #warmUp(Activity)}
+ * instantiates each cached network's {@link Initializer} and starts the inits by priority, with
+ * at most {@link #setMaxConcurrentInitializations(int)} in flight at once. Adapter load paths that
+ * would otherwise start their own init call {@link #awaitInitialization(Class, InitializationListener)}
+ * to wait for the warm-up instead. All methods must be called on the main thread.
+ */
+public class MediationWarmUp {
+
+    /**
+     * Initializes one network SDK from the server extras cached by its adapters. Implementations
+     * must be public with a public no-argument constructor, and must call the listener exactly
+     * once, on the main thread.
+     */
+    public interface Initializer {
+        void initialize(@NonNull Activity activity,
+                        @NonNull Map<String, String> serverExtras,
+                        @NonNull InitializationListener listener);
+    }
+
+    public interface InitializationListener {
+        void onInitializationFinished(boolean success);
+    }
+
+    public static final int DEFAULT_MAX_CONCURRENT_INITIALIZATIONS = 2;
+    public static final int DEFAULT_PRIORITY = 0;
+    // Some SDKs never report a failed initialization, so an init that takes longer than this is
+    // counted as failed and frees its slot for the queued ones.
+    static final long INITIALIZATION_TIMEOUT_MILLIS = 30 * 1000;
+
+    private static final String PREFERENCES_NAME = "com.mopub.mobileads.MediationWarmUp";
+
+    private static final MediationWarmUp sInstance = new MediationWarmUp();
+
+    private enum State {
+        QUEUED,
+        INITIALIZING,
+        FINISHED
+    }
+
+    @NonNull
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    @NonNull
+    private final Map<String, NetworkInit> mNetworkInits = new HashMap<>();
+    @NonNull
+    private final List<NetworkInit> mQueuedInits = new ArrayList<>();
+    @NonNull
+    private final Map<String, Integer> mPriorities = new HashMap<>();
+    @Nullable
+    private Map<String, String> mCachedServerExtras;
+    private int mMaxConcurrentInitializations = DEFAULT_MAX_CONCURRENT_INITIALIZATIONS;
+    private int mInitializingCount;
+
+    @NonNull
+    public static MediationWarmUp getInstance() {
+        return sInstance;
+    }
+
+    private MediationWarmUp() {
+    }
+
+    public void setMaxConcurrentInitializations(final int maxConcurrentInitializations) {
+        mMaxConcurrentInitializations = Math.max(1, maxConcurrentInitializations);
+    }
+
+    /**
+     * Sets the priority of a network's warm-up. Networks with a higher priority are initialized
+     * first.
+     */
+    public void setPriority(@NonNull final Class<? extends Initializer> initializerClass,
+                            final int priority) {
+        mPriorities.put(initializerClass.getName(), priority);
+    }
+
+    /**
+     * Remembers the server extras a network was initialized with so the next session can warm it
+     * up. Cheap to call on every load; the extras are only persisted when they change.
+     */
+    public void cacheServerExtras(@NonNull final Context context,
+                                  @NonNull final Class<? extends Initializer> initializerClass,
+                                  @Nullable final Map<String, String> serverExtras) {
+        if (serverExtras == null) {
+            return;
+        }
+
+        final String serializedExtras = new JSONObject(serverExtras).toString();
+        final Map<String, String> cachedServerExtras = getCachedServerExtras(context);
+        if (serializedExtras.equals(cachedServerExtras.get(initializerClass.getName()))) {
+            return;
+        }
+
+        cachedServerExtras.put(initializerClass.getName(), serializedExtras);
+        getPreferences(context).edit()
+                .putString(initializerClass.getName(), serializedExtras)
+                .apply();
+    }
+
+    /**
+     * Starts initializing every network that cached server extras in a previous session.
+     * Networks already warming up or warmed up are skipped.
+     */
+    public void warmUp(@NonNull final Activity activity) {
+        for (Map.Entry<String, String> entry : getCachedServerExtras(activity).entrySet()) {
+            final String initializerClassName = entry.getKey();
+            if (mNetworkInits.containsKey(initializerClassName)) {
+                continue;
+            }
+
+            final Initializer initializer = createInitializer(initializerClassName);
+            final Map<String, String> serverExtras = parseServerExtras(entry.getValue());
+            if (initializer == null || serverExtras == null) {
+                continue;
+            }
+
+            final NetworkInit networkInit = new NetworkInit(activity, initializerClassName,
+                    initializer, serverExtras);
+            mNetworkInits.put(initializerClassName, networkInit);
+            mQueuedInits.add(networkInit);
+        }
+
+        Collections.sort(mQueuedInits, new Comparator<NetworkInit>() {
+            @Override
+            public int compare(final NetworkInit lhs, final NetworkInit rhs) {
+                return getPriority(rhs.mInitializerClassName) - getPriority(lhs.mInitializerClassName);
+            }
+        });
+        startQueuedInits();
+    }
+
+    /**
+     * Waits for the warm-up of a network, if there is one, instead of starting a new init. A
+     * network still waiting for a free init slot is started right away.
+     *
+     * @return true if the listener will be notified of the warm-up result (immediately if it has
+     * already succeeded); false if the network is not being warmed up or its warm-up failed, in
+     * which case the caller should initialize it itself.
+     */
+    public boolean awaitInitialization(@NonNull final Class<? extends Initializer> initializerClass,
+                                       @NonNull final InitializationListener listener) {
+        final NetworkInit networkInit = mNetworkInits.get(initializerClass.getName());
+        if (networkInit == null
+                || (networkInit.mState == State.FINISHED && !networkInit.mSuccess)) {
+            return false;
+        }
+
+        switch (networkInit.mState) {
+            case FINISHED:
+                listener.onInitializationFinished(networkInit.mSuccess);
+                break;
+            case QUEUED:
+                networkInit.mListeners.add(listener);
+                mQueuedInits.remove(networkInit);
+                networkInit.start();
+                break;
+            case INITIALIZING:
+                networkInit.mListeners.add(listener);
+                break;
+        }
+        return true;
+    }
+
+    /**
+     * Returns how long the network's warm-up took, or -1 if it has not finished.
+     */
+    public long getInitializationDurationMillis(
+            @NonNull final Class<? extends Initializer> initializerClass) {
+        final NetworkInit networkInit = mNetworkInits.get(initializerClass.getName());
+        if (networkInit == null || networkInit.mState != State.FINISHED) {
+            return -1;
+        }
+        return networkInit.mFinishedAtMillis - networkInit.mStartedAtMillis;
+    }
+
+    private void startQueuedInits() {
+        final Iterator<NetworkInit> iterator = mQueuedInits.iterator();
+        while (mInitializingCount < mMaxConcurrentInitializations && iterator.hasNext()) {
+            final NetworkInit networkInit = iterator.next();
+            iterator.remove();
+            networkInit.start();
+        }
+    }
+
+    private int getPriority(@NonNull final String initializerClassName) {
+        final Integer priority = mPriorities.get(initializerClassName);
+        return priority == null ? DEFAULT_PRIORITY : priority;
+    }
+
+    @NonNull
+    private Map<String, String> getCachedServerExtras(@NonNull final Context context) {
+        if (mCachedServerExtras == null) {
+            mCachedServerExtras = new HashMap<>();
+            for (Map.Entry<String, ?> entry : getPreferences(context).getAll().entrySet()) {
+                if (entry.getValue() instanceof String) {
+                    mCachedServerExtras.put(entry.getKey(), (String) entry.getValue());
+                }
+            }
+        }
+        return mCachedServerExtras;
+    }
+
+    /**
+     * Returns the simple name of the class declaring the initializer, e.g. "VungleRouter".
+     */
+    @NonNull
+    private static String getNetworkName(@NonNull final String initializerClassName) {
+        final int nestedClassStart = initializerClassName.indexOf('$');
+        final String className = nestedClassStart < 0
+                ? initializerClassName
+                : initializerClassName.substring(0, nestedClassStart);
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    @NonNull
+    private static SharedPreferences getPreferences(@NonNull final Context context) {
+        return context.getApplicationContext()
+                .getSharedPreferences(PREFERENCES_NAME, Context.MODE_PRIVATE);
+    }
+
+    @Nullable
+    private static Initializer createInitializer(@NonNull final String initializerClassName) {
+        try {
+            final Class<? extends Initializer> initializerClass =
+                    Class.forName(initializerClassName).asSubclass(Initializer.class);
+            return initializerClass.newInstance();
+        } catch (Exception e) {
+            MoPubLog.d("Unable to create the warm-up initializer " + initializerClassName, e);
+            return null;
+        }
+    }
+
+    @Nullable
+    private static Map<String, String> parseServerExtras(@NonNull final String serializedExtras) {
+        try {
+            final JSONObject jsonObject = new JSONObject(serializedExtras);
+            final Map<String, String> serverExtras = new HashMap<>();
+            final Iterator<String> keys = jsonObject.keys();
+            while (keys.hasNext()) {
+                final String key = keys.next();
+                serverExtras.put(key, jsonObject.getString(key));
+            }
+            return serverExtras;
+        } catch (JSONException e) {
+            MoPubLog.d("Unable to parse cached server extras: " + serializedExtras, e);
+            return null;
+        }
+    }
+
+    private class NetworkInit implements InitializationListener {
+        @NonNull
+        private final WeakReference<Activity> mActivity;
+        @NonNull
+        private final String mInitializerClassName;
+        @NonNull
+        private final Initializer mInitializer;
+        @NonNull
+        private final Map<String, String> mServerExtras;
+        @NonNull
+        private final List<InitializationListener> mListeners = new ArrayList<>();
+
+        @NonNull
+        private State mState = State.QUEUED;
+        private boolean mSuccess;
+        private long mStartedAtMillis;
+        private long mFinishedAtMillis;
+
+        @NonNull
+        private final Runnable mTimeout = new Runnable() {
+            @Override
+            public void run() {
+                MoPubLog.d("Warm-up of " + mInitializerClassName + " timed out.");
+                onInitializationFinished(false);
+            }
+        };
+
+        NetworkInit(@NonNull final Activity activity,
+                    @NonNull final String initializerClassName,
+                    @NonNull final Initializer initializer,
+                    @NonNull final Map<String, String> serverExtras) {
+            mActivity = new WeakReference<>(activity);
+            mInitializerClassName = initializerClassName;
+            mInitializer = initializer;
+            mServerExtras = serverExtras;
+        }
+
+        void start() {
+            mState = State.INITIALIZING;
+            mInitializingCount++;
+            mStartedAtMillis = SystemClock.elapsedRealtime();
+
+            final Activity activity = mActivity.get();
+            if (activity == null) {
+                MoPubLog.d("Warm-up of " + mInitializerClassName + " skipped, the Activity is gone.");
+                onInitializationFinished(false);
+                return;
+            }
+
+            mHandler.postDelayed(mTimeout, INITIALIZATION_TIMEOUT_MILLIS);
+            try {
+                mInitializer.initialize(activity, mServerExtras, this);
+            } catch (Exception e) {
+                MoPubLog.d("Warm-up of " + mInitializerClassName + " failed.", e);
+                onInitializationFinished(false);
+            }
+        }
+
+        @Override
+        public void onInitializationFinished(final boolean success) {
+            if (Looper.myLooper() != Looper.getMainLooper()) {
+                mHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        onInitializationFinished(success);
+                    }
+                });
+                return;
+            }
+
+            if (mState != State.INITIALIZING) {
+                return;
+            }
+
+            mHandler.removeCallbacks(mTimeout);
+            mState = State.FINISHED;
+            mSuccess = success;
+            mFinishedAtMillis = SystemClock.elapsedRealtime();
+            mInitializingCount--;
+            MoPubLog.d("Warm-up of " + mInitializerClassName + " finished in "
+                    + (mFinishedAtMillis - mStartedAtMillis) + "ms, success: " + success);
+            MediationMetrics.getInstance().recordInitialization(
+                    getNetworkName(mInitializerClassName),
+                    mFinishedAtMillis - mStartedAtMillis, success);
+
+            for (InitializationListener listener : mListeners) {
+                listener.onInitializationFinished(success);
+            }
+            mListeners.clear();
+
+            startQueuedInits();
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.mopub.nativeads;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.support.annotation.NonNull;
+import android.text.TextUtils;
+
+import com.mopub.common.logging.MoPubLog;
+import com.mopub.network.Networking;
+import com.mopub.volley.VolleyError;
+import com.mopub.volley.toolbox.ImageLoader;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared replacement for {@link NativeImageHelper#preCacheImages} used by the native adapters.
+ * Concurrent fills that reference the same image URL share a single fetch, and URLs that were
+ * recently cached complete immediately instead of going back through the image loader.
+ * <p>
+ * Decoding, downsampling and the memory/disk tiers are provided by the MoPub SDK's image loader
+ * ({@link Networking#getImageLoader(Context)}); this class bounds the set of URLs it remembers as
+ * cached and keeps hit, miss, deduplication and byte counters. Must be called on the main thread,
+ * like the image loader itself.
+ */
+public class NativeImagePrecacher {
+    /**
+     * Maximum number of recently cached image URLs remembered, least recently used first out.
+     */
+    private static final int MAX_CACHED_URLS = 256;
+
+    private static final NativeImagePrecacher sInstance = new NativeImagePrecacher();
+
+    @NonNull
+    private final Map<String, Integer> mCachedUrlSizes =
+            new LinkedHashMap<String, Integer>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                    return size() > MAX_CACHED_URLS;
+                }
+            };
+
+    @NonNull
+    private final Map<String, List<PrecacheRequest>> mInFlightRequests = new HashMap<>();
+
+    private final AtomicLong mHitCount = new AtomicLong();
+    private final AtomicLong mMissCount = new AtomicLong();
+    private final AtomicLong mDeduplicatedCount = new AtomicLong();
+    private final AtomicLong mFailureCount = new AtomicLong();
+    private final AtomicLong mBytesFetched = new AtomicLong();
+
+    @NonNull
+    public static NativeImagePrecacher getInstance() {
+        return sInstance;
+    }
+
+    /**
+     * Caches the given images and notifies the listener once all of them are available, or as
+     * soon as one of them fails to download.
+     *
+     * @param context       required to obtain the image loader.
+     * @param imageUrls     the urls of images that need to be cached.
+     * @param imageListener notified of the result exactly once.
+     */
+    public void preCacheImages(@NonNull final Context context,
+                               @NonNull final List<String> imageUrls,
+                               @NonNull final NativeImageHelper.ImageListener imageListener) {
+        for (String url : imageUrls) {
+            if (TextUtils.isEmpty(url)) {
+                imageListener.onImagesFailedToCache(NativeErrorCode.IMAGE_DOWNLOAD_FAILURE);
+                return;
+            }
+        }
+
+        final PrecacheRequest request = new PrecacheRequest(imageUrls.size(), imageListener);
+        final List<String> urlsToFetch = new ArrayList<>(imageUrls.size());
+        int cachedImageCount = 0;
+
+        synchronized (this) {
+            for (String url : imageUrls) {
+                if (mCachedUrlSizes.containsKey(url)) {
+                    mHitCount.incrementAndGet();
+                    cachedImageCount++;
+                    continue;
+                }
+
+                List<PrecacheRequest> waitingRequests = mInFlightRequests.get(url);
+                if (waitingRequests != null) {
+                    mDeduplicatedCount.incrementAndGet();
+                } else {
+                    mMissCount.incrementAndGet();
+                    waitingRequests = new ArrayList<>(1);
+                    mInFlightRequests.put(url, waitingRequests);
+                    urlsToFetch.add(url);
+                }
+                waitingRequests.add(request);
+            }
+        }
+
+        // Completing the request runs the listener, so it must happen outside the lock.
+        for (int i = 0; i < cachedImageCount; i++) {
+            request.onImageCached();
+        }
+
+        if (urlsToFetch.isEmpty()) {
+            return;
+        }
+
+        final ImageLoader imageLoader = Networking.getImageLoader(context);
+        for (final String url : urlsToFetch) {
+            imageLoader.get(url, new ImageLoader.ImageListener() {
+                @Override
+                public void onResponse(final ImageLoader.ImageContainer imageContainer,
+                                       final boolean isImmediate) {
+                    final Bitmap bitmap = imageContainer.getBitmap();
+                    if (bitmap != null) {
+                        onFetchFinished(url, bitmap.getByteCount(), true);
+                    }
+                }
+
+                @Override
+                public void onErrorResponse(final VolleyError volleyError) {
+                    MoPubLog.d("Failed to download a native ads image:", volleyError);
+                    onFetchFinished(url, 0, false);
+                }
+            });
+        }
+    }
+
+    private void onFetchFinished(@NonNull final String url, final int byteCount,
+                                 final boolean success) {
+        final List<PrecacheRequest> waitingRequests;
+        synchronized (this) {
+            waitingRequests = mInFlightRequests.remove(url);
+            if (success) {
+                mCachedUrlSizes.put(url, byteCount);
+            }
+        }
+
+        if (success) {
+            mBytesFetched.addAndGet(byteCount);
+        } else {
+            mFailureCount.incrementAndGet();
+        }
+
+        if (waitingRequests == null) {
+            return;
+        }
+
+        for (PrecacheRequest request : waitingRequests) {
+            if (success) {
+                request.onImageCached();
+            } else {
+                request.onImageFailed();
+            }
+        }
+    }
+
+    /**
+     * Number of image urls that were already cached when requested.
+     */
+    public long getHitCount() {
+        return mHitCount.get();
+    }
+
+    /**
+     * Number of image urls that required a fetch from the image loader.
+     */
+    public long getMissCount() {
+        return mMissCount.get();
+    }
+
+    /**
+     * Number of image urls that joined a fetch already in flight instead of starting a new one.
+     */
+    public long getDeduplicatedCount() {
+        return mDeduplicatedCount.get();
+    }
+
+    /**
+     * Number of image fetches that failed.
+     */
+    public long getFailureCount() {
+        return mFailureCount.get();
+    }
+
+    /**
+     * Total size in bytes of the decoded bitmaps fetched so far.
+     */
+    public long getBytesFetched() {
+        return mBytesFetched.get();
+    }
+
+    /**
+     * Total size in bytes of the decoded bitmaps for the urls currently remembered as cached.
+     */
+    public synchronized long getCachedBytes() {
+        long cachedBytes = 0;
+        for (Integer byteCount : mCachedUrlSizes.values()) {
+            cachedBytes += byteCount;
+        }
+        return cachedBytes;
+    }
+
+    /**
+     * Total size in bytes of the decoded bitmaps for the given urls, counting only the urls
+     * currently remembered as cached.
+     */
+    public synchronized long getCachedBytes(@NonNull final List<String> imageUrls) {
+        long cachedBytes = 0;
+        for (String url : imageUrls) {
+            final Integer byteCount = mCachedUrlSizes.get(url);
+            if (byteCount != null) {
+                cachedBytes += byteCount;
+            }
+        }
+        return cachedBytes;
+    }
+
+    private static class PrecacheRequest {
+        @NonNull
+        private final AtomicInteger mRemainingImages;
+        @NonNull
+        private final AtomicBoolean mIsFinished = new AtomicBoolean(false);
+        @NonNull
+        private final NativeImageHelper.ImageListener mImageListener;
+
+        PrecacheRequest(final int imageCount,
+                        @NonNull final NativeImageHelper.ImageListener imageListener) {
+            mRemainingImages = new AtomicInteger(imageCount);
+            mImageListener = imageListener;
+
+            if (imageCount == 0) {
+                finish(true);
+            }
+        }
+
+        void onImageCached() {
+            if (mRemainingImages.decrementAndGet() == 0) {
+                finish(true);
+            }
+        }
+
+        void onImageFailed() {
+            finish(false);
+        }
+
+        private void finish(final boolean success) {
+            if (mIsFinished.getAndSet(true)) {
+                return;
+            }
+
+            if (success) {
+                mImageListener.onImagesCached();
+            } else {
+                mImageListener.onImagesFailedToCache(NativeErrorCode.IMAGE_DOWNLOAD_FAILURE);
+            }
+        }
+    }
+}
@@ -10,13 +10,25 @@ import com.mopub.common.MoPubAdvancedBidder;
  * Include this class to use advanced bidding from Facebook.
  */
 public class FacebookAdvancedBidder implements MoPubAdvancedBidder {
+    private static final String CREATIVE_NETWORK_NAME = "facebook";
+
+    public FacebookAdvancedBidder() {
+        AdvancedBidderTokenCollector.getInstance().register(CREATIVE_NETWORK_NAME,
+                new AdvancedBidderTokenCollector.TokenFetcher() {
+                    @Override
+                    public String fetchToken(@NonNull final Context context) {
+                        return BidderTokenProvider.getBidderToken(context);
+                    }
+                });
+    }
+
     @Override
     public String getToken(@NonNull final Context context) {
-        return BidderTokenProvider.getBidderToken(context);
+        return AdvancedBidderTokenCollector.getInstance().getToken(context, CREATIVE_NETWORK_NAME);
     }
 
     @Override
     public String getCreativeNetworkName() {
-        return "facebook";
+        return CREATIVE_NETWORK_NAME;
     }
 }
@@ -21,9 +21,11 @@ import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class FacebookBanner extends CustomEventBanner implements AdListener {
+    private static final String ADAPTER_NAME = FacebookBanner.class.getSimpleName();
     private static final String PLACEMENT_ID_KEY = "placement_id";
     private AdView mFacebookBanner;
     private CustomEventBannerListener mBannerListener;
+    private MediationMetrics.Tracker mMetricsTracker;
     private static AtomicBoolean sIsInitialized = new AtomicBoolean(false);
 
     /**
@@ -76,6 +78,7 @@ public class FacebookBanner extends CustomEventBanner implements AdListener {
 
         mFacebookBanner = new AdView(context, placementId, adSize);
         mFacebookBanner.setAdListener(this);
+        mMetricsTracker = MediationMetrics.getInstance().newTracker(ADAPTER_NAME, placementId);
 
         final String adm = serverExtras.get(DataKeys.ADM_KEY);
         if (!TextUtils.isEmpty(adm)) {
@@ -101,6 +104,9 @@ public class FacebookBanner extends CustomEventBanner implements AdListener {
     @Override
     public void onAdLoaded(Ad ad) {
         MoPubLog.d("Facebook banner ad loaded successfully. Showing ad...");
+        mMetricsTracker.onLoadSucceeded();
+        // Banners are shown as soon as they are handed to MoPub.
+        mMetricsTracker.onShowRequested();
 
         if (mBannerListener != null) {
             mBannerListener.onBannerLoaded(mFacebookBanner);
@@ -111,14 +117,18 @@ public class FacebookBanner extends CustomEventBanner implements AdListener {
     public void onError(final Ad ad, final AdError error) {
         MoPubLog.d("Facebook banner ad failed to load.");
 
+        final MoPubErrorCode errorCode;
+        if (error == AdError.NO_FILL) {
+            errorCode = MoPubErrorCode.NETWORK_NO_FILL;
+        } else if (error == AdError.INTERNAL_ERROR) {
+            errorCode = MoPubErrorCode.NETWORK_INVALID_STATE;
+        } else {
+            errorCode = MoPubErrorCode.UNSPECIFIED;
+        }
+        mMetricsTracker.onLoadFailed(errorCode);
+
         if (mBannerListener != null) {
-            if (error == AdError.NO_FILL) {
-                mBannerListener.onBannerFailed(MoPubErrorCode.NETWORK_NO_FILL);
-            } else if (error == AdError.INTERNAL_ERROR) {
-                mBannerListener.onBannerFailed(MoPubErrorCode.NETWORK_INVALID_STATE);
-            } else {
-                mBannerListener.onBannerFailed(MoPubErrorCode.UNSPECIFIED);
-            }
+            mBannerListener.onBannerFailed(errorCode);
         }
     }
 
@@ -134,6 +144,7 @@ public class FacebookBanner extends CustomEventBanner implements AdListener {
     @Override
     public void onLoggingImpression(Ad ad) {
         MoPubLog.d("Facebook banner ad logged impression.");
+        mMetricsTracker.onImpression();
 
         if (mBannerListener != null) {
             mBannerListener.onBannerImpression();
@@ -1,8 +1,7 @@
 package com.mopub.mobileads;
 
 import android.content.Context;
-import android.os.Handler;
-import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.text.TextUtils;
 
 import com.facebook.ads.Ad;
@@ -21,17 +20,18 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import static com.mopub.mobileads.MoPubErrorCode.EXPIRED;
 
 public class FacebookInterstitial extends CustomEventInterstitial implements InterstitialAdListener {
+    private static final String ADAPTER_NAME = FacebookInterstitial.class.getSimpleName();
     private static final int ONE_HOURS_MILLIS = 60 * 60 * 1000;
     private static final String PLACEMENT_ID_KEY = "placement_id";
     private InterstitialAd mFacebookInterstitial;
     private CustomEventInterstitialListener mInterstitialListener;
-    @NonNull
-    private Handler mHandler;
     private Runnable mAdExpiration;
+    @Nullable
+    private AdExpirationWheel.Timeout mAdExpirationTimeout;
+    private MediationMetrics.Tracker mMetricsTracker;
     private static AtomicBoolean sIsInitialized = new AtomicBoolean(false);
 
     public FacebookInterstitial() {
-        mHandler = new Handler();
         mAdExpiration = new Runnable() {
             @Override
             public void run() {
@@ -80,6 +80,7 @@ public class FacebookInterstitial extends CustomEventInterstitial implements Int
         mFacebookInterstitial.setAdListener(this);
 
         final String adm = serverExtras.get(DataKeys.ADM_KEY);
+        mMetricsTracker = MediationMetrics.getInstance().newTracker(ADAPTER_NAME, placementId);
         if (!TextUtils.isEmpty(adm)) {
             mFacebookInterstitial.loadAdFromBid(adm);
         } else {
@@ -90,6 +91,7 @@ public class FacebookInterstitial extends CustomEventInterstitial implements Int
     @Override
     protected void showInterstitial() {
         if (mFacebookInterstitial != null && mFacebookInterstitial.isAdLoaded()) {
+            mMetricsTracker.onShowRequested();
             mFacebookInterstitial.show();
             cancelExpirationTimer();
         } else {
@@ -120,24 +122,32 @@ public class FacebookInterstitial extends CustomEventInterstitial implements Int
     public void onAdLoaded(final Ad ad) {
         cancelExpirationTimer();
         MoPubLog.d("Facebook interstitial ad loaded successfully.");
+        mMetricsTracker.onLoadSucceeded();
         if (mInterstitialListener != null) {
             mInterstitialListener.onInterstitialLoaded();
         }
-        mHandler.postDelayed(mAdExpiration, ONE_HOURS_MILLIS);
+        mAdExpirationTimeout = AdExpirationWheel.getInstance().schedule(mAdExpiration,
+                ONE_HOURS_MILLIS);
     }
 
     @Override
     public void onError(final Ad ad, final AdError error) {
         cancelExpirationTimer();
         MoPubLog.d("Facebook interstitial ad failed to load.");
+        final MoPubErrorCode errorCode;
+        if (error == AdError.NO_FILL) {
+            errorCode = MoPubErrorCode.NETWORK_NO_FILL;
+        } else if (error == AdError.INTERNAL_ERROR) {
+            errorCode = MoPubErrorCode.NETWORK_INVALID_STATE;
+        } else {
+            errorCode = MoPubErrorCode.UNSPECIFIED;
+        }
+
+        if (mMetricsTracker != null) {
+            mMetricsTracker.onLoadFailed(errorCode);
+        }
         if (mInterstitialListener != null) {
-            if (error == AdError.NO_FILL) {
-                mInterstitialListener.onInterstitialFailed(MoPubErrorCode.NETWORK_NO_FILL);
-            } else if (error == AdError.INTERNAL_ERROR) {
-                mInterstitialListener.onInterstitialFailed(MoPubErrorCode.NETWORK_INVALID_STATE);
-            } else {
-                mInterstitialListener.onInterstitialFailed(MoPubErrorCode.UNSPECIFIED);
-            }
+            mInterstitialListener.onInterstitialFailed(errorCode);
         }
     }
 
@@ -145,6 +155,7 @@ public class FacebookInterstitial extends CustomEventInterstitial implements Int
     public void onInterstitialDisplayed(final Ad ad) {
         cancelExpirationTimer();
         MoPubLog.d("Showing Facebook interstitial ad.");
+        mMetricsTracker.onImpression();
         if (mInterstitialListener != null) {
             mInterstitialListener.onInterstitialShown();
         }
@@ -180,6 +191,9 @@ public class FacebookInterstitial extends CustomEventInterstitial implements Int
     }
 
     private void cancelExpirationTimer() {
-        mHandler.removeCallbacks(mAdExpiration);
+        if (mAdExpirationTimeout != null) {
+            mAdExpirationTimeout.cancel();
+            mAdExpirationTimeout = null;
+        }
     }
 }
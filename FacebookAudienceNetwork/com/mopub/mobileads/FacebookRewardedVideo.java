@@ -1,7 +1,6 @@
 package com.mopub.mobileads;
 
 import android.app.Activity;
-import android.os.Handler;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.text.TextUtils;
@@ -25,18 +24,19 @@ import static com.mopub.mobileads.MoPubErrorCode.EXPIRED;
 
 public class FacebookRewardedVideo extends CustomEventRewardedVideo implements RewardedVideoAdListener {
 
+    private static final String ADAPTER_NAME = FacebookRewardedVideo.class.getSimpleName();
     private static final int ONE_HOURS_MILLIS = 60 * 60 * 1000;
     @Nullable
     private RewardedVideoAd mRewardedVideoAd;
     @NonNull
     private String mPlacementId = "";
-    @NonNull
-    private Handler mHandler;
     private Runnable mAdExpiration;
+    @Nullable
+    private AdExpirationWheel.Timeout mAdExpirationTimeout;
+    private MediationMetrics.Tracker mMetricsTracker;
     private static AtomicBoolean sIsInitialized = new AtomicBoolean(false);
 
     public FacebookRewardedVideo() {
-        mHandler = new Handler();
         mAdExpiration = new Runnable() {
             @Override
             public void run() {
@@ -88,7 +88,9 @@ public class FacebookRewardedVideo extends CustomEventRewardedVideo implements R
             }
         }
 
+        mMetricsTracker = MediationMetrics.getInstance().newTracker(ADAPTER_NAME, mPlacementId);
         if (mRewardedVideoAd.isAdLoaded()) {
+            mMetricsTracker.onLoadSucceeded();
             MoPubRewardedVideoManager.onRewardedVideoLoadSuccess(FacebookRewardedVideo.class, mPlacementId);
             return;
         }
@@ -132,6 +134,7 @@ public class FacebookRewardedVideo extends CustomEventRewardedVideo implements R
     protected void showVideo() {
         if (hasVideoAvailable()) {
             MoPubLog.d("Facebook Rewarded Video creative is available. Showing...");
+            mMetricsTracker.onShowRequested();
             mRewardedVideoAd.show();
         } else {
             MoPubRewardedVideoManager.onRewardedVideoPlaybackError(FacebookRewardedVideo.class, mPlacementId, MoPubErrorCode.VIDEO_PLAYBACK_ERROR);
@@ -148,6 +151,7 @@ public class FacebookRewardedVideo extends CustomEventRewardedVideo implements R
     @Override
     public void onLoggingImpression(Ad ad) {
         cancelExpirationTimer();
+        mMetricsTracker.onImpression();
         MoPubRewardedVideoManager.onRewardedVideoStarted(FacebookRewardedVideo.class, mPlacementId);
         MoPubLog.d("Facebook Rewarded Video creative started playing.");
     }
@@ -161,8 +165,10 @@ public class FacebookRewardedVideo extends CustomEventRewardedVideo implements R
     @Override
     public void onAdLoaded(Ad ad) {
         cancelExpirationTimer();
-        mHandler.postDelayed(mAdExpiration, ONE_HOURS_MILLIS);
+        mAdExpirationTimeout = AdExpirationWheel.getInstance().schedule(mAdExpiration,
+                ONE_HOURS_MILLIS);
 
+        mMetricsTracker.onLoadSucceeded();
         MoPubRewardedVideoManager.onRewardedVideoLoadSuccess(FacebookRewardedVideo.class, mPlacementId);
         MoPubLog.d("Facebook Rewarded Video creative cached.");
     }
@@ -176,6 +182,7 @@ public class FacebookRewardedVideo extends CustomEventRewardedVideo implements R
     @Override
     public void onError(Ad ad, AdError adError) {
         cancelExpirationTimer();
+        mMetricsTracker.onLoadFailed(mapErrorCode(adError.getErrorCode()));
         MoPubRewardedVideoManager.onRewardedVideoLoadFailure(FacebookRewardedVideo.class, mPlacementId, mapErrorCode(adError.getErrorCode()));
         MoPubLog.d("Loading/Playing Facebook Rewarded Video creative encountered an error: " + mapErrorCode(adError.getErrorCode()).toString());
     }
@@ -195,6 +202,9 @@ public class FacebookRewardedVideo extends CustomEventRewardedVideo implements R
     }
 
     private void cancelExpirationTimer() {
-        mHandler.removeCallbacks(mAdExpiration);
+        if (mAdExpirationTimeout != null) {
+            mAdExpirationTimeout.cancel();
+            mAdExpirationTimeout = null;
+        }
     }
 }
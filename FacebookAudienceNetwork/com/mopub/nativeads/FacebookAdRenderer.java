@@ -13,10 +13,12 @@ import android.widget.TextView;
 import com.facebook.ads.AdChoicesView;
 import com.facebook.ads.AdIconView;
 import com.facebook.ads.MediaView;
+import com.facebook.ads.NativeAd;
 import com.mopub.common.Preconditions;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.WeakHashMap;
 
@@ -84,11 +86,17 @@ public class FacebookAdRenderer implements MoPubAdRenderer<FacebookNative.Facebo
         final RelativeLayout adChoicesContainer =
                 facebookNativeViewHolder.getAdChoicesContainer();
         nativeAd.registerChildViewsForInteraction(facebookNativeViewHolder.getMainView(),
-                facebookNativeViewHolder.getMediaView(), facebookNativeViewHolder.getAdIconView());
-        if (adChoicesContainer != null) {
+                facebookNativeViewHolder.getMediaView(), facebookNativeViewHolder.getAdIconView(),
+                facebookNativeViewHolder.getClickableViews());
+
+        // An AdChoicesView is bound to a single Facebook ad at construction, so it can only be
+        // kept when the same ad is rendered into this view again (e.g. a list cell rebinding).
+        final NativeAd facebookNativeAd = nativeAd.getFacebookNativeAd();
+        if (adChoicesContainer != null
+                && facebookNativeViewHolder.adChoicesNativeAd != facebookNativeAd) {
             adChoicesContainer.removeAllViews();
             final AdChoicesView adChoicesView = new AdChoicesView(adChoicesContainer.getContext(),
-                    nativeAd.getFacebookNativeAd(), true);
+                    facebookNativeAd, true);
             ViewGroup.LayoutParams layoutParams = adChoicesView.getLayoutParams();
             if (layoutParams instanceof RelativeLayout.LayoutParams) {
                 if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
@@ -98,6 +106,7 @@ public class FacebookAdRenderer implements MoPubAdRenderer<FacebookNative.Facebo
                 }
             }
             adChoicesContainer.addView(adChoicesView);
+            facebookNativeViewHolder.adChoicesNativeAd = facebookNativeAd;
         }
     }
 
@@ -118,6 +127,10 @@ public class FacebookAdRenderer implements MoPubAdRenderer<FacebookNative.Facebo
         private AdIconView adIconView;
         @Nullable
         private TextView advertiserNameView;
+        @Nullable
+        private List<View> clickableViews;
+        @Nullable
+        private NativeAd adChoicesNativeAd;
 
         // Use fromViewBinder instead of a constructor
         private FacebookNativeViewHolder() {
@@ -182,6 +195,19 @@ public class FacebookAdRenderer implements MoPubAdRenderer<FacebookNative.Facebo
         public TextView getAdvertiserNameView() {
             return advertiserNameView;
         }
+
+        /**
+         * Returns the clickable views of the inflated layout, walking the view tree only on the
+         * first call. The layout doesn't change between renders of the same view, so the
+         * traversal is done once per view rather than once per bind.
+         */
+        @NonNull
+        List<View> getClickableViews() {
+            if (clickableViews == null) {
+                clickableViews = FacebookNative.assembleClickableViews(mainView);
+            }
+            return clickableViews;
+        }
     }
 
     public static class FacebookViewBinder {
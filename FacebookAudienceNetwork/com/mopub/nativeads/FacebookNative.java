@@ -1,6 +1,8 @@
 package com.mopub.nativeads;
 
 import android.content.Context;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.text.TextUtils;
 import android.view.View;
 import android.view.ViewGroup;
@@ -15,8 +17,10 @@ import com.facebook.ads.NativeAdListener;
 import com.mopub.common.DataKeys;
 import com.mopub.common.Preconditions;
 import com.mopub.common.logging.MoPubLog;
+import com.mopub.mobileads.MediationMetrics;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,6 +33,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * configuration.
  */
 public class FacebookNative extends CustomEventNative {
+    private static final String ADAPTER_NAME = FacebookNative.class.getSimpleName();
     private static final String PLACEMENT_ID_KEY = "placement_id";
     private static AtomicBoolean sIsInitialized = new AtomicBoolean(false);
 
@@ -54,7 +59,8 @@ public class FacebookNative extends CustomEventNative {
 
         final FacebookVideoEnabledNativeAd facebookVideoEnabledNativeAd =
                 new FacebookVideoEnabledNativeAd(context,
-                        new NativeAd(context, placementId), customEventNativeListener, bid);
+                        new NativeAd(context, placementId), customEventNativeListener, bid,
+                        MediationMetrics.getInstance().newTracker(ADAPTER_NAME, placementId));
         facebookVideoEnabledNativeAd.loadAd();
     }
 
@@ -64,13 +70,15 @@ public class FacebookNative extends CustomEventNative {
     }
 
     private static void registerChildViewsForInteraction(final View view, final NativeAd nativeAd,
-                                                         final MediaView mediaView, final AdIconView adIconView) {
+                                                         final MediaView mediaView, final AdIconView adIconView,
+                                                         @Nullable List<View> clickableViews) {
         if (nativeAd == null) {
             return;
         }
 
-        final List<View> clickableViews = new ArrayList<>();
-        assembleChildViewsWithLimit(view, clickableViews, 10);
+        if (clickableViews == null) {
+            clickableViews = assembleClickableViews(view);
+        }
 
         if (clickableViews.size() == 1) {
             nativeAd.registerViewForInteraction(view, mediaView, adIconView);
@@ -79,6 +87,19 @@ public class FacebookNative extends CustomEventNative {
         }
     }
 
+    /**
+     * Flattens the given ad view into the leaf views that should be clickable. The result only
+     * depends on the view hierarchy, so renderers can cache it per inflated layout and pass it to
+     * {@link FacebookVideoEnabledNativeAd#registerChildViewsForInteraction(View, MediaView,
+     * AdIconView, List)} on every bind.
+     */
+    @NonNull
+    static List<View> assembleClickableViews(@Nullable final View view) {
+        final List<View> clickableViews = new ArrayList<>();
+        assembleChildViewsWithLimit(view, clickableViews, 10);
+        return Collections.unmodifiableList(clickableViews);
+    }
+
     private static void assembleChildViewsWithLimit(final View view,
                                                     final List<View> clickableViews, final int limit) {
         if (view == null) {
@@ -114,15 +135,19 @@ public class FacebookNative extends CustomEventNative {
 
         private final String mBid;
 
+        private final MediationMetrics.Tracker mMetricsTracker;
+
         FacebookVideoEnabledNativeAd(final Context context,
                                      final NativeAd nativeAd,
                                      final CustomEventNativeListener customEventNativeListener,
-                                     final String bid) {
+                                     final String bid,
+                                     final MediationMetrics.Tracker metricsTracker) {
             mContext = context.getApplicationContext();
             mNativeAd = nativeAd;
             mCustomEventNativeListener = customEventNativeListener;
             mExtras = new HashMap<String, Object>();
             mBid = bid;
+            mMetricsTracker = metricsTracker;
         }
 
         void loadAd() {
@@ -178,25 +203,30 @@ public class FacebookNative extends CustomEventNative {
             // This identity check is from Facebook's Native API sample code:
             // https://developers.facebook.com/docs/audience-network/android/native-api
             if (!mNativeAd.equals(ad) || !mNativeAd.isAdLoaded()) {
+                mMetricsTracker.onLoadFailed(NativeErrorCode.NETWORK_INVALID_STATE);
                 mCustomEventNativeListener.onNativeAdFailed(NativeErrorCode.NETWORK_INVALID_STATE);
                 return;
             }
 
             addExtra(SOCIAL_CONTEXT_FOR_AD, mNativeAd.getAdSocialContext());
+            mMetricsTracker.onLoadSucceeded();
             mCustomEventNativeListener.onNativeAdLoaded(FacebookVideoEnabledNativeAd.this);
         }
 
         @Override
         public void onError(final Ad ad, final AdError adError) {
+            final NativeErrorCode errorCode;
             if (adError == null) {
-                mCustomEventNativeListener.onNativeAdFailed(NativeErrorCode.UNSPECIFIED);
+                errorCode = NativeErrorCode.UNSPECIFIED;
             } else if (adError.getErrorCode() == AdError.NO_FILL.getErrorCode()) {
-                mCustomEventNativeListener.onNativeAdFailed(NativeErrorCode.NETWORK_NO_FILL);
+                errorCode = NativeErrorCode.NETWORK_NO_FILL;
             } else if (adError.getErrorCode() == AdError.INTERNAL_ERROR.getErrorCode()) {
-                mCustomEventNativeListener.onNativeAdFailed(NativeErrorCode.NETWORK_INVALID_STATE);
+                errorCode = NativeErrorCode.NETWORK_INVALID_STATE;
             } else {
-                mCustomEventNativeListener.onNativeAdFailed(NativeErrorCode.UNSPECIFIED);
+                errorCode = NativeErrorCode.UNSPECIFIED;
             }
+            mMetricsTracker.onLoadFailed(errorCode);
+            mCustomEventNativeListener.onNativeAdFailed(errorCode);
         }
 
         @Override
@@ -206,12 +236,14 @@ public class FacebookNative extends CustomEventNative {
 
         @Override
         public void onLoggingImpression(final Ad ad) {
+            mMetricsTracker.onImpression();
             notifyAdImpressed();
         }
 
         // BaseForwardingNativeAd
         @Override
         public void prepare(final View view) {
+            mMetricsTracker.onShowRequested();
         }
 
         @Override
@@ -254,7 +286,14 @@ public class FacebookNative extends CustomEventNative {
 
         void registerChildViewsForInteraction(final View view, final MediaView mediaView,
                                               final AdIconView adIconView) {
-            FacebookNative.registerChildViewsForInteraction(view, mNativeAd, mediaView, adIconView);
+            registerChildViewsForInteraction(view, mediaView, adIconView, null);
+        }
+
+        void registerChildViewsForInteraction(final View view, final MediaView mediaView,
+                                              final AdIconView adIconView,
+                                              @Nullable final List<View> clickableViews) {
+            FacebookNative.registerChildViewsForInteraction(view, mNativeAd, mediaView, adIconView,
+                    clickableViews);
         }
 
         @Override
@@ -1,7 +1,9 @@
 package com.mopub.mobileads;
 
+import android.app.Activity;
 import android.content.Context;
 import android.os.Build;
+import android.os.SystemClock;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.text.TextUtils;
@@ -10,6 +12,11 @@ import android.util.Log;
 import com.flurry.android.FlurryAgent;
 import com.flurry.android.FlurryAgentListener;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
 public final class FlurryAgentWrapper {
     public static final String PARAM_API_KEY = "apiKey";
     public static final String PARAM_AD_SPACE_NAME = "adSpaceName";
@@ -17,8 +24,33 @@ public final class FlurryAgentWrapper {
     private static final String ORIGIN_IDENTIFIER = "Flurry_Mopub_Android";
     private static final String ORIGIN_VERSION = "6.5.0";
 
+    // Flurry has no session failure callback, so a start that hasn't reported back by then is
+    // treated as failed and the next request starts the session again.
+    private static final long SESSION_START_TIMEOUT_MILLIS = 10 * 1000;
+
     private FlurryAgent.Builder mAgentBuilder;
 
+    // Listeners waiting for the session that is being started; the agent is only built once.
+    private final List<FlurryAgentListener> mPendingSessionListeners = new ArrayList<>();
+    private boolean mIsSessionStarting;
+    private long mSessionStartRequestedAtMillis;
+
+    private final FlurryAgentListener mSessionListener = new FlurryAgentListener() {
+        @Override
+        public void onSessionStarted() {
+            final List<FlurryAgentListener> listeners;
+            synchronized (FlurryAgentWrapper.this) {
+                mIsSessionStarting = false;
+                listeners = new ArrayList<>(mPendingSessionListeners);
+                mPendingSessionListeners.clear();
+            }
+
+            for (FlurryAgentListener listener : listeners) {
+                listener.onSessionStarted();
+            }
+        }
+    };
+
     public static FlurryAgentWrapper getInstance() {
         return FlurryAgentLoader.INSTANCE;
     }
@@ -39,9 +71,25 @@ public final class FlurryAgentWrapper {
             return;
         }
 
+        MediationWarmUp.getInstance().cacheServerExtras(context, WarmUpInitializer.class,
+                Collections.singletonMap(PARAM_API_KEY, apiKey));
+
         // init
         if (!FlurryAgent.isSessionActive()) {
-            mAgentBuilder.withListener(flurryAgentListener) // withListener allows nulls
+            if (flurryAgentListener != null) {
+                mPendingSessionListeners.add(flurryAgentListener);
+            }
+
+            // A session is already being started, e.g. by the warm-up; wait for it.
+            final long now = SystemClock.elapsedRealtime();
+            if (mIsSessionStarting
+                    && now - mSessionStartRequestedAtMillis < SESSION_START_TIMEOUT_MILLIS) {
+                return;
+            }
+            mIsSessionStarting = true;
+            mSessionStartRequestedAtMillis = now;
+
+            mAgentBuilder.withListener(mSessionListener)
                     .build(context, apiKey);
 
             // sessions are automatic on ICS+
@@ -73,6 +121,34 @@ public final class FlurryAgentWrapper {
         return FlurryAgent.isSessionActive();
     }
 
+    /**
+     * Warms up the Flurry SDK at app start. See {@link MediationWarmUp}.
+     */
+    public static class WarmUpInitializer implements MediationWarmUp.Initializer {
+        @Override
+        public void initialize(@NonNull Activity activity,
+                               @NonNull Map<String, String> serverExtras,
+                               @NonNull final MediationWarmUp.InitializationListener listener) {
+            final String apiKey = serverExtras.get(PARAM_API_KEY);
+            if (TextUtils.isEmpty(apiKey)) {
+                listener.onInitializationFinished(false);
+                return;
+            }
+
+            if (getInstance().isSessionActive()) {
+                listener.onInitializationFinished(true);
+                return;
+            }
+
+            getInstance().startSession(activity, apiKey, new FlurryAgentListener() {
+                @Override
+                public void onSessionStarted() {
+                    listener.onInitializationFinished(true);
+                }
+            });
+        }
+    }
+
     private static class FlurryAgentLoader {
         private static final FlurryAgentWrapper INSTANCE = new FlurryAgentWrapper();
     }
@@ -25,6 +25,7 @@ class FlurryCustomEventInterstitial extends com.mopub.mobileads.CustomEventInter
     private String mAdSpaceName;
 
     private FlurryAdInterstitial mInterstitial;
+    private MediationMetrics.Tracker mMetricsTracker;
 
     // CustomEventInterstitial
     @Override
@@ -69,6 +70,8 @@ class FlurryCustomEventInterstitial extends com.mopub.mobileads.CustomEventInter
         Log.d(LOG_TAG, "Fetching Flurry ad, ad unit name:" + mAdSpaceName);
         mInterstitial = new FlurryAdInterstitial(mContext, mAdSpaceName);
         mInterstitial.setListener(new FlurryMopubInterstitialListener());
+        mMetricsTracker = MediationMetrics.getInstance().newTracker(
+                FlurryCustomEventInterstitial.LOG_TAG, mAdSpaceName);
         mInterstitial.fetchAd();
     }
 
@@ -96,6 +99,7 @@ class FlurryCustomEventInterstitial extends com.mopub.mobileads.CustomEventInter
         Log.d(LOG_TAG, "MoPub issued showInterstitial (" + mAdSpaceName + ")");
 
         if (mInterstitial != null) {
+            mMetricsTracker.onShowRequested();
             mInterstitial.displayAd();
         }
     }
@@ -121,6 +125,7 @@ class FlurryCustomEventInterstitial extends com.mopub.mobileads.CustomEventInter
         @Override
         public void onFetched(FlurryAdInterstitial adInterstitial) {
             Log.d(LOG_TAG, "onFetched: Flurry interstitial ad fetched successfully!");
+            mMetricsTracker.onLoadSucceeded();
 
             if (mListener != null) {
                 mListener.onInterstitialLoaded();
@@ -130,6 +135,7 @@ class FlurryCustomEventInterstitial extends com.mopub.mobileads.CustomEventInter
         @Override
         public void onRendered(FlurryAdInterstitial adInterstitial) {
             Log.d(LOG_TAG, "onRendered: Flurry interstitial ad rendered");
+            mMetricsTracker.onImpression();
 
             if (mListener != null) {
                 mListener.onInterstitialShown();
@@ -181,6 +187,10 @@ class FlurryCustomEventInterstitial extends com.mopub.mobileads.CustomEventInter
             Log.d(LOG_TAG, String.format("onError: Flurry interstitial ad not available. " +
                     "Error type: %s. Error code: %s", adErrorType.toString(), errorCode));
 
+            if (adErrorType == FlurryAdErrorType.FETCH) {
+                mMetricsTracker.onLoadFailed(NETWORK_NO_FILL);
+            }
+
             if (mListener != null) {
                 switch (adErrorType) {
                     case FETCH:
@@ -14,7 +14,9 @@ import com.flurry.android.ads.FlurryAdNative;
 import com.flurry.android.ads.FlurryAdNativeAsset;
 import com.flurry.android.ads.FlurryAdNativeListener;
 import com.flurry.android.ads.FlurryAdTargeting;
+import com.mopub.mobileads.AdapterCapabilities;
 import com.mopub.mobileads.FlurryAgentWrapper;
+import com.mopub.mobileads.MediationMetrics;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -59,6 +61,7 @@ public final class FlurryCustomEventNative extends CustomEventNative {
      */
     public static final String LOCAL_EXTRA_TEST_MODE = "enableTestMode";
     private static final String LOG_TAG = FlurryCustomEventNative.class.getSimpleName();
+    private static final String ADAPTER_NAME = FlurryCustomEventNative.class.getSimpleName();
     private static final String ASSET_SEC_HQ_IMAGE = "secHqImage";
     private static final String ASSET_SEC_IMAGE = "secImage";
     private static final String ASSET_SEC_HQ_RATING_IMG = "secHqRatingImg";
@@ -75,9 +78,6 @@ public final class FlurryCustomEventNative extends CustomEventNative {
 
     private FlurryAgentListener mFlurryAgentListener;
 
-    /* Static reference of the ads to ensure they don't get garbage collected */
-    private final static List<FlurryAdNative> sFlurryNativeAds = new ArrayList<>();
-
     @Override
     protected void loadNativeAd(@NonNull final Context context,
                                 @NonNull final CustomEventNativeListener customEventNativeListener,
@@ -114,52 +114,40 @@ public final class FlurryCustomEventNative extends CustomEventNative {
         }
     }
 
-    private static synchronized void mapNativeAd(@NonNull final FlurryBaseNativeAd mopubSupportedAd,
-                                                 @NonNull final FlurryAdNative flurryAdNative) {
-        FlurryAdNativeAsset coverImageAsset = flurryAdNative.getAsset(ASSET_SEC_HQ_IMAGE);
-        FlurryAdNativeAsset iconImageAsset = flurryAdNative.getAsset(ASSET_SEC_IMAGE);
+    private static void mapNativeAd(@NonNull final FlurryBaseNativeAd mopubSupportedAd,
+                                    @NonNull final FlurryAdNative flurryAdNative) {
+        final FlurryAssetSnapshot assets = new FlurryAssetSnapshot(flurryAdNative);
 
-        if (coverImageAsset != null && !TextUtils.isEmpty(coverImageAsset.getValue())) {
-            mopubSupportedAd.setMainImageUrl(coverImageAsset.getValue());
+        if (!TextUtils.isEmpty(assets.mCoverImageUrl)) {
+            mopubSupportedAd.setMainImageUrl(assets.mCoverImageUrl);
         }
-        if (iconImageAsset != null && !TextUtils.isEmpty(iconImageAsset.getValue())) {
-            mopubSupportedAd.setIconImageUrl(iconImageAsset.getValue());
+        if (!TextUtils.isEmpty(assets.mIconImageUrl)) {
+            mopubSupportedAd.setIconImageUrl(assets.mIconImageUrl);
         }
 
-        mopubSupportedAd.setTitle(flurryAdNative.getAsset(ASSET_HEADLINE).getValue());
-        mopubSupportedAd.setText(flurryAdNative.getAsset(ASSET_SUMMARY).getValue());
-        mopubSupportedAd.addExtra(EXTRA_SEC_BRANDING_LOGO,
-                flurryAdNative.getAsset(ASSET_SEC_HQ_BRANDING_LOGO).getValue());
-        mopubSupportedAd.addExtra(EXTRA_SEC_ADVERTISER_NAME,
-                flurryAdNative.getAsset(ASSET_ADVERTISER_NAME).getValue());
+        mopubSupportedAd.setTitle(assets.mHeadline);
+        mopubSupportedAd.setText(assets.mSummary);
+        mopubSupportedAd.addExtra(EXTRA_SEC_BRANDING_LOGO, assets.mBrandingLogoUrl);
+        mopubSupportedAd.addExtra(EXTRA_SEC_ADVERTISER_NAME, assets.mAdvertiserName);
 
-        if (mopubSupportedAd.isAppInstallAd()) {
+        if (assets.mIsAppInstallAd) {
             // App rating image URL may be null
-            FlurryAdNativeAsset ratingHqImageAsset = flurryAdNative
-                    .getAsset(ASSET_SEC_HQ_RATING_IMG);
-            if (ratingHqImageAsset != null && !TextUtils.isEmpty(ratingHqImageAsset.getValue())) {
-                mopubSupportedAd.addExtra(EXTRA_STAR_RATING_IMG, ratingHqImageAsset.getValue());
-            } else {
-                FlurryAdNativeAsset ratingImageAsset = flurryAdNative
-                        .getAsset(ASSET_SEC_RATING_IMG);
-                if (ratingImageAsset != null && !TextUtils.isEmpty(ratingImageAsset.getValue())) {
-                    mopubSupportedAd.addExtra(EXTRA_STAR_RATING_IMG, ratingImageAsset.getValue());
-                }
+            if (!TextUtils.isEmpty(assets.mHqRatingImageUrl)) {
+                mopubSupportedAd.addExtra(EXTRA_STAR_RATING_IMG, assets.mHqRatingImageUrl);
+            } else if (!TextUtils.isEmpty(assets.mRatingImageUrl)) {
+                mopubSupportedAd.addExtra(EXTRA_STAR_RATING_IMG, assets.mRatingImageUrl);
             }
 
-            FlurryAdNativeAsset appCategoryAsset = flurryAdNative.getAsset(ASSET_APP_CATEGORY);
-            if (appCategoryAsset != null) {
-                mopubSupportedAd.addExtra(EXTRA_APP_CATEGORY, appCategoryAsset.getValue());
+            if (assets.mHasAppCategory) {
+                mopubSupportedAd.addExtra(EXTRA_APP_CATEGORY, assets.mAppCategory);
             }
-            FlurryAdNativeAsset appRatingAsset = flurryAdNative.getAsset(ASSET_APP_RATING);
-            if (appRatingAsset != null) {
-                mopubSupportedAd.setStarRating(getStarRatingValue(appRatingAsset.getValue()));
+            if (assets.mHasAppRating) {
+                mopubSupportedAd.setStarRating(getStarRatingValue(assets.mAppRating));
             }
         }
 
-        FlurryAdNativeAsset ctaAsset = flurryAdNative.getAsset(ASSET_CALL_TO_ACTION);
-        if (ctaAsset != null) {
-            mopubSupportedAd.setCallToAction(ctaAsset.getValue());
+        if (assets.mHasCallToAction) {
+            mopubSupportedAd.setCallToAction(assets.mCallToAction);
         }
 
         if (mopubSupportedAd.getImageUrls().isEmpty()) {
@@ -174,18 +162,43 @@ public final class FlurryCustomEventNative extends CustomEventNative {
     @Nullable
     private static Double getStarRatingValue(@Nullable final String appRatingString) {
         // App rating String should be of the form X/Y. E.g. 80/100
-        Double rating = null;
-        if (appRatingString != null) {
-            String[] ratingParts = appRatingString.split("/");
-            if (ratingParts.length == 2) {
-                try {
-                    float numer = Integer.valueOf(ratingParts[0]);
-                    float denom = Integer.valueOf(ratingParts[1]);
-                    rating = (numer / denom) * MOPUB_STAR_RATING_SCALE;
-                } catch (NumberFormatException e) { /*Ignore and return null*/ }
+        if (appRatingString == null) {
+            return null;
+        }
+
+        final int separator = appRatingString.indexOf('/');
+        if (separator < 0 || appRatingString.indexOf('/', separator + 1) >= 0) {
+            return null;
+        }
+
+        final int numer = parseNonNegativeInt(appRatingString, 0, separator);
+        final int denom = parseNonNegativeInt(appRatingString, separator + 1,
+                appRatingString.length());
+        if (numer < 0 || denom < 0) {
+            return null;
+        }
+        return ((float) numer / denom) * MOPUB_STAR_RATING_SCALE;
+    }
+
+    /**
+     * Parses the decimal digits in [start, end) without allocating. Returns -1 if the range is
+     * empty, contains anything but digits, or is too long to fit in an int.
+     */
+    private static int parseNonNegativeInt(@NonNull final String string, final int start,
+                                           final int end) {
+        if (start >= end || end - start > 9) {
+            return -1;
+        }
+
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            final char c = string.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
             }
+            value = value * 10 + (c - '0');
         }
-        return rating;
+        return value;
     }
 
     private boolean validateExtras(final Map<String, String> serverExtras) {
@@ -208,29 +221,80 @@ public final class FlurryCustomEventNative extends CustomEventNative {
             targeting.setEnableTestAds((Boolean) localExtras.get(LOCAL_EXTRA_TEST_MODE));
         }
 
+        final MediationMetrics.Tracker metricsTracker =
+                MediationMetrics.getInstance().newTracker(ADAPTER_NAME, flurryAdSpace);
         final FlurryBaseNativeAd flurryNativeAd;
         if (shouldAllowVideoNativeAds()) {
             flurryNativeAd = new FlurryVideoEnabledNativeAd(context, flurryAdNative,
-                    customEventNativeListener);
+                    customEventNativeListener, metricsTracker);
         } else {
             flurryNativeAd = new FlurryStaticNativeAd(context, flurryAdNative,
-                    customEventNativeListener);
+                    customEventNativeListener, metricsTracker);
         }
 
-        // Add to requested ad list
-        sFlurryNativeAds.add(flurryAdNative);
+        // Hold the ad until its fetch completes so that it doesn't get garbage collected
+        FlurryNativeAdRegistry.getInstance().onFetchStarted(flurryAdNative);
 
         flurryNativeAd.fetchAd();
     }
 
     private boolean shouldAllowVideoNativeAds() {
-        try {
-            Class.forName("com.mopub.nativeads.FlurryNativeAdRenderer");
-        } catch (ClassNotFoundException e) {
-            return false;
+        return AdapterCapabilities.isClassAvailable("com.mopub.nativeads.FlurryNativeAdRenderer");
+    }
+
+    /**
+     * The assets of a fetched ad, read from the {@link FlurryAdNative} in one pass so that mapping
+     * them needs no locking and looks up each asset only once.
+     */
+    private static final class FlurryAssetSnapshot {
+        @Nullable final String mCoverImageUrl;
+        @Nullable final String mIconImageUrl;
+        @Nullable final String mHeadline;
+        @Nullable final String mSummary;
+        @Nullable final String mBrandingLogoUrl;
+        @Nullable final String mAdvertiserName;
+        @Nullable final String mHqRatingImageUrl;
+        @Nullable final String mRatingImageUrl;
+        @Nullable final String mAppCategory;
+        @Nullable final String mAppRating;
+        @Nullable final String mCallToAction;
+        final boolean mHasAppCategory;
+        final boolean mHasAppRating;
+        final boolean mHasCallToAction;
+        final boolean mIsAppInstallAd;
+
+        FlurryAssetSnapshot(@NonNull final FlurryAdNative flurryAdNative) {
+            final FlurryAdNativeAsset hqRatingImageAsset =
+                    flurryAdNative.getAsset(ASSET_SEC_HQ_RATING_IMG);
+            final FlurryAdNativeAsset ratingImageAsset =
+                    flurryAdNative.getAsset(ASSET_SEC_RATING_IMG);
+            final FlurryAdNativeAsset appCategoryAsset =
+                    flurryAdNative.getAsset(ASSET_APP_CATEGORY);
+            final FlurryAdNativeAsset appRatingAsset = flurryAdNative.getAsset(ASSET_APP_RATING);
+            final FlurryAdNativeAsset ctaAsset = flurryAdNative.getAsset(ASSET_CALL_TO_ACTION);
+
+            mCoverImageUrl = getValue(flurryAdNative.getAsset(ASSET_SEC_HQ_IMAGE));
+            mIconImageUrl = getValue(flurryAdNative.getAsset(ASSET_SEC_IMAGE));
+            mHeadline = getValue(flurryAdNative.getAsset(ASSET_HEADLINE));
+            mSummary = getValue(flurryAdNative.getAsset(ASSET_SUMMARY));
+            mBrandingLogoUrl = getValue(flurryAdNative.getAsset(ASSET_SEC_HQ_BRANDING_LOGO));
+            mAdvertiserName = getValue(flurryAdNative.getAsset(ASSET_ADVERTISER_NAME));
+            mHqRatingImageUrl = getValue(hqRatingImageAsset);
+            mRatingImageUrl = getValue(ratingImageAsset);
+            mAppCategory = getValue(appCategoryAsset);
+            mAppRating = getValue(appRatingAsset);
+            mCallToAction = getValue(ctaAsset);
+            mHasAppCategory = appCategoryAsset != null;
+            mHasAppRating = appRatingAsset != null;
+            mHasCallToAction = ctaAsset != null;
+            mIsAppInstallAd = ratingImageAsset != null || hqRatingImageAsset != null
+                    || appCategoryAsset != null;
         }
 
-        return true;
+        @Nullable
+        private static String getValue(@Nullable final FlurryAdNativeAsset asset) {
+            return asset == null ? null : asset.getValue();
+        }
     }
 
     /**
@@ -247,6 +311,8 @@ public final class FlurryCustomEventNative extends CustomEventNative {
         private final CustomEventNativeListener mCustomEventNativeListener;
         @NonNull
         private final FlurryAdNative mFlurryAdNative;
+        @NonNull
+        private final MediationMetrics.Tracker mMetricsTracker;
         private final FlurryAdNativeListener mFlurryNativelistener = new FlurryBaseAdListener(this) {
             @Override
             public void onClicked(final FlurryAdNative flurryAdNative) {
@@ -257,6 +323,7 @@ public final class FlurryCustomEventNative extends CustomEventNative {
             @Override
             public void onImpressionLogged(final FlurryAdNative flurryAdNative) {
                 super.onImpressionLogged(flurryAdNative);
+                mMetricsTracker.onImpression();
                 notifyAdImpressed();
             }
 
@@ -265,28 +332,35 @@ public final class FlurryCustomEventNative extends CustomEventNative {
                                 final FlurryAdErrorType adErrorType,
                                 final int errorCode) {
                 super.onError(adNative, adErrorType, errorCode);
+                mMetricsTracker.onLoadFailed(NativeErrorCode.NETWORK_NO_FILL);
                 mCustomEventNativeListener.onNativeAdFailed(NativeErrorCode.NETWORK_NO_FILL);
             }
         };
 
         FlurryStaticNativeAd(@NonNull Context context, @NonNull FlurryAdNative adNative,
-                             @NonNull CustomEventNativeListener customEventNativeListener) {
+                             @NonNull CustomEventNativeListener customEventNativeListener,
+                             @NonNull MediationMetrics.Tracker metricsTracker) {
             mContext = context;
             mFlurryAdNative = adNative;
             mCustomEventNativeListener = customEventNativeListener;
+            mMetricsTracker = metricsTracker;
         }
 
         // region StaticNativeAd
 
         @Override
         public void prepare(@NonNull final View view) {
+            mMetricsTracker.onShowRequested();
             mFlurryAdNative.setTrackingView(view);
+            FlurryNativeAdRegistry.getInstance().onBound(mFlurryAdNative,
+                    NativeImagePrecacher.getInstance().getCachedBytes(getImageUrls()));
             Log.d(LOG_TAG, "prepare(" + mFlurryAdNative.toString() + " " + view.toString() + ")");
         }
 
         @Override
         public void clear(@NonNull final View view) {
             mFlurryAdNative.removeTrackingView();
+            FlurryNativeAdRegistry.getInstance().onUnbound(mFlurryAdNative);
             Log.d(LOG_TAG, "clear(" + mFlurryAdNative.toString() + ")");
         }
 
@@ -294,6 +368,7 @@ public final class FlurryCustomEventNative extends CustomEventNative {
         public void destroy() {
             Log.d(LOG_TAG, "destroy(" + mFlurryAdNative.toString() + ") started.");
             mFlurryAdNative.destroy();
+            FlurryNativeAdRegistry.getInstance().onDestroyed(mFlurryAdNative);
 
             FlurryAgentWrapper.getInstance().endSession(mContext);
         }
@@ -335,21 +410,24 @@ public final class FlurryCustomEventNative extends CustomEventNative {
 
         @Override
         public void onNativeAdLoaded() {
+            mMetricsTracker.onLoadSucceeded();
             mCustomEventNativeListener.onNativeAdLoaded(this);
         }
 
         @Override
         public void precacheImages() {
-            NativeImageHelper.preCacheImages(mContext, getImageUrls(),
+            NativeImagePrecacher.getInstance().preCacheImages(mContext, getImageUrls(),
                     new NativeImageHelper.ImageListener() {
                         @Override
                         public void onImagesCached() {
                             Log.d(LOG_TAG, "preCacheImages: Ad image cached.");
+                            mMetricsTracker.onLoadSucceeded();
                             mCustomEventNativeListener.onNativeAdLoaded(FlurryStaticNativeAd.this);
                         }
 
                         @Override
                         public void onImagesFailedToCache(final NativeErrorCode errorCode) {
+                            mMetricsTracker.onLoadFailed(errorCode);
                             mCustomEventNativeListener.onNativeAdFailed(errorCode);
                             Log.d(LOG_TAG, "preCacheImages: Unable to cache Ad image. Error["
                                     + errorCode.toString() + "]");
@@ -372,6 +450,8 @@ public final class FlurryCustomEventNative extends CustomEventNative {
         final CustomEventNativeListener mCustomEventNativeListener;
         private @NonNull
         final FlurryAdNative mFlurryAdNative;
+        private @NonNull
+        final MediationMetrics.Tracker mMetricsTracker;
         private final FlurryAdNativeListener mFlurryNativelistener = new FlurryBaseAdListener(this) {
             @Override
             public void onClicked(final FlurryAdNative flurryAdNative) {
@@ -382,6 +462,7 @@ public final class FlurryCustomEventNative extends CustomEventNative {
             @Override
             public void onImpressionLogged(final FlurryAdNative flurryAdNative) {
                 super.onImpressionLogged(flurryAdNative);
+                mMetricsTracker.onImpression();
                 notifyAdImpressed();
             }
 
@@ -390,6 +471,7 @@ public final class FlurryCustomEventNative extends CustomEventNative {
                                 final FlurryAdErrorType adErrorType,
                                 final int errorCode) {
                 super.onError(adNative, adErrorType, errorCode);
+                mMetricsTracker.onLoadFailed(NativeErrorCode.NETWORK_NO_FILL);
                 mCustomEventNativeListener.onNativeAdFailed(NativeErrorCode.NETWORK_NO_FILL);
             }
         };
@@ -414,10 +496,12 @@ public final class FlurryCustomEventNative extends CustomEventNative {
 
 
         FlurryVideoEnabledNativeAd(@NonNull Context context, @NonNull FlurryAdNative adNative,
-                                   @NonNull CustomEventNativeListener customEventNativeListener) {
+                                   @NonNull CustomEventNativeListener customEventNativeListener,
+                                   @NonNull MediationMetrics.Tracker metricsTracker) {
             mContext = context;
             mFlurryAdNative = adNative;
             mCustomEventNativeListener = customEventNativeListener;
+            mMetricsTracker = metricsTracker;
             mExtras = new HashMap<>();
         }
 
@@ -425,13 +509,17 @@ public final class FlurryCustomEventNative extends CustomEventNative {
 
         @Override
         public void prepare(@NonNull View view) {
+            mMetricsTracker.onShowRequested();
             mFlurryAdNative.setTrackingView(view);
+            FlurryNativeAdRegistry.getInstance().onBound(mFlurryAdNative,
+                    NativeImagePrecacher.getInstance().getCachedBytes(getImageUrls()));
             Log.d(LOG_TAG, "prepare(" + mFlurryAdNative.toString() + " " + view.toString() + ")");
         }
 
         @Override
         public void clear(@NonNull View view) {
             mFlurryAdNative.removeTrackingView();
+            FlurryNativeAdRegistry.getInstance().onUnbound(mFlurryAdNative);
             Log.d(LOG_TAG, "clear(" + mFlurryAdNative.toString() + ")");
         }
 
@@ -439,6 +527,7 @@ public final class FlurryCustomEventNative extends CustomEventNative {
         public void destroy() {
             Log.d(LOG_TAG, "destroy(" + mFlurryAdNative.toString() + ") started.");
             mFlurryAdNative.destroy();
+            FlurryNativeAdRegistry.getInstance().onDestroyed(mFlurryAdNative);
 
             FlurryAgentWrapper.getInstance().endSession(mContext);
         }
@@ -463,17 +552,19 @@ public final class FlurryCustomEventNative extends CustomEventNative {
 
         @Override
         public void precacheImages() {
-            NativeImageHelper.preCacheImages(mContext, getImageUrls(),
+            NativeImagePrecacher.getInstance().preCacheImages(mContext, getImageUrls(),
                     new NativeImageHelper.ImageListener() {
                         @Override
                         public void onImagesCached() {
                             Log.d(LOG_TAG, "preCacheImages: Ad image cached.");
+                            mMetricsTracker.onLoadSucceeded();
                             mCustomEventNativeListener.onNativeAdLoaded(
                                     FlurryVideoEnabledNativeAd.this);
                         }
 
                         @Override
                         public void onImagesFailedToCache(final NativeErrorCode errorCode) {
+                            mMetricsTracker.onLoadFailed(errorCode);
                             mCustomEventNativeListener.onNativeAdFailed(errorCode);
                             Log.d(LOG_TAG, "preCacheImages: Unable to cache Ad image. Error["
                                     + errorCode.toString() + "]");
@@ -579,6 +670,7 @@ public final class FlurryCustomEventNative extends CustomEventNative {
 
         @Override
         public void onNativeAdLoaded() {
+            mMetricsTracker.onLoadSucceeded();
             mCustomEventNativeListener.onNativeAdLoaded(this);
         }
 
@@ -605,7 +697,7 @@ public final class FlurryCustomEventNative extends CustomEventNative {
         public void onFetched(final FlurryAdNative flurryAdNative) {
             Log.d(LOG_TAG, "onFetched: Flurry native ad fetched successfully!");
             mapNativeAd(mBaseNativeAd, flurryAdNative);
-            sFlurryNativeAds.remove(flurryAdNative);
+            FlurryNativeAdRegistry.getInstance().onFetchFinished(flurryAdNative);
         }
 
         @Override
@@ -649,7 +741,7 @@ public final class FlurryCustomEventNative extends CustomEventNative {
                             final int errorCode) {
             Log.d(LOG_TAG, String.format("onError: Flurry native ad not available. " +
                     "Error type: %s. Error code: %s", adErrorType.toString(), errorCode));
-            sFlurryNativeAds.remove(flurryAdNative);
+            FlurryNativeAdRegistry.getInstance().onFetchFinished(flurryAdNative);
         }
     }
 }
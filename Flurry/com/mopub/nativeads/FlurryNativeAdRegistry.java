@@ -0,0 +1,120 @@
+package com.mopub.nativeads;
+
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+
+import com.flurry.android.ads.FlurryAdNative;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Keeps {@link FlurryAdNative}s reachable while the Flurry SDK still needs them.
+ * <p>
+ * The Flurry SDK only holds weak references to the ads it is fetching, so an ad must be held
+ * strongly until its fetch completes or it is garbage collected before its listener is called.
+ * Once fetched, the MoPub native ad holds it; the registry holds it again only while it is bound
+ * to a view. Ads are released on fetch failure and on destroy, and fetches that never report
+ * back are dropped after {@link #FETCH_TIMEOUT_MILLIS}, so retention is bounded by the number of
+ * in-flight and bound ads.
+ */
+public class FlurryNativeAdRegistry {
+
+    static final long FETCH_TIMEOUT_MILLIS = 2 * 60 * 1000;
+
+    private static final FlurryNativeAdRegistry sInstance = new FlurryNativeAdRegistry();
+
+    private enum State {
+        FETCHING,
+        BOUND
+    }
+
+    @NonNull
+    private final Map<FlurryAdNative, Entry> mEntries = new IdentityHashMap<>();
+
+    @NonNull
+    public static FlurryNativeAdRegistry getInstance() {
+        return sInstance;
+    }
+
+    private FlurryNativeAdRegistry() {
+    }
+
+    synchronized void onFetchStarted(@NonNull final FlurryAdNative flurryAdNative) {
+        pruneTimedOutFetches();
+        mEntries.put(flurryAdNative, new Entry(State.FETCHING, 0));
+    }
+
+    /**
+     * Releases an ad whose fetch finished, successfully or not.
+     */
+    synchronized void onFetchFinished(@NonNull final FlurryAdNative flurryAdNative) {
+        final Entry entry = mEntries.get(flurryAdNative);
+        if (entry != null && entry.mState == State.FETCHING) {
+            mEntries.remove(flurryAdNative);
+        }
+    }
+
+    /**
+     * @param retainedBytes estimated size of the ad's decoded images, reported by
+     *                      {@link #getRetainedBytes()} while the ad is bound.
+     */
+    synchronized void onBound(@NonNull final FlurryAdNative flurryAdNative,
+                              final long retainedBytes) {
+        mEntries.put(flurryAdNative, new Entry(State.BOUND, retainedBytes));
+    }
+
+    synchronized void onUnbound(@NonNull final FlurryAdNative flurryAdNative) {
+        final Entry entry = mEntries.get(flurryAdNative);
+        if (entry != null && entry.mState == State.BOUND) {
+            mEntries.remove(flurryAdNative);
+        }
+    }
+
+    synchronized void onDestroyed(@NonNull final FlurryAdNative flurryAdNative) {
+        mEntries.remove(flurryAdNative);
+    }
+
+    /**
+     * Number of ads currently held, whether fetching or bound.
+     */
+    public synchronized int getLiveCount() {
+        return mEntries.size();
+    }
+
+    /**
+     * Estimated size in bytes of the decoded images of the ads currently bound.
+     */
+    public synchronized long getRetainedBytes() {
+        long retainedBytes = 0;
+        for (Entry entry : mEntries.values()) {
+            retainedBytes += entry.mRetainedBytes;
+        }
+        return retainedBytes;
+    }
+
+    private void pruneTimedOutFetches() {
+        final long now = SystemClock.elapsedRealtime();
+        final Iterator<Entry> iterator = mEntries.values().iterator();
+        while (iterator.hasNext()) {
+            final Entry entry = iterator.next();
+            if (entry.mState == State.FETCHING
+                    && now - entry.mCreatedAtMillis > FETCH_TIMEOUT_MILLIS) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static class Entry {
+        @NonNull
+        final State mState;
+        final long mRetainedBytes;
+        final long mCreatedAtMillis = SystemClock.elapsedRealtime();
+
+        Entry(@NonNull final State state, final long retainedBytes) {
+            mState = state;
+            mRetainedBytes = retainedBytes;
+        }
+    }
+}
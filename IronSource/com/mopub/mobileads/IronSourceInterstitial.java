@@ -2,8 +2,6 @@ package com.mopub.mobileads;
 
 import android.app.Activity;
 import android.content.Context;
-import android.os.Handler;
-import android.os.Looper;
 import android.support.annotation.NonNull;
 import android.text.TextUtils;
 
@@ -15,7 +13,10 @@ import com.mopub.common.MoPub;
 import com.mopub.common.MoPubLifecycleManager;
 import com.mopub.common.logging.MoPubLog;
 
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class IronSourceInterstitial extends CustomEventInterstitial implements ISDemandOnlyInterstitialListener {
 
@@ -29,6 +30,7 @@ public class IronSourceInterstitial extends CustomEventInterstitial implements I
     private static final String INSTANCE_ID_KEY = "instanceId";
     private static final String MEDIATION_TYPE = "mopub";
     private static final String ADAPTER_VERSION = "300";
+    private static final String ADAPTER_NAME = IronSourceInterstitial.class.getSimpleName();
 
 
     // This is the instance id used inside ironSource SDK
@@ -36,9 +38,18 @@ public class IronSourceInterstitial extends CustomEventInterstitial implements I
     // This is the placement name used inside ironSource SDK
     private String mPlacementName = null;
     private static boolean mInitInterstitialSuccessfully;
-    private static Handler sHandler;
+    private static final MainThreadDispatcher sDispatcher = MainThreadDispatcher.getInstance();
 
-    private static CustomEventInterstitialListener mMoPubListener;
+    /*
+     * Instance ID -> the adapter that last loaded it. The ironSource SDK takes a single
+     * demand-only interstitial listener, so callbacks are routed to the adapter that owns the
+     * instance, letting ad units on different instance IDs load concurrently.
+     */
+    private static final ConcurrentMap<String, IronSourceInterstitial> sAdaptersByInstanceId =
+            new ConcurrentHashMap<>();
+
+    private CustomEventInterstitialListener mMoPubListener;
+    private MediationMetrics.Tracker mMetricsTracker;
 
     /**
      * Mopub API
@@ -54,7 +65,6 @@ public class IronSourceInterstitial extends CustomEventInterstitial implements I
 
         try {
             mMoPubListener = customEventInterstitialListener;
-            sHandler = new Handler(Looper.getMainLooper());
 
             if (!(context instanceof Activity)) {
                 // Context not an Activity context, log the reason for failure and fail the
@@ -103,6 +113,9 @@ public class IronSourceInterstitial extends CustomEventInterstitial implements I
     protected void showInterstitial() {
         try {
             if (IronSource.isISDemandOnlyInterstitialReady(mInstanceId)) {
+                if (mMetricsTracker != null) {
+                    mMetricsTracker.onShowRequested();
+                }
                 if (TextUtils.isEmpty(mPlacementName)) {
                     IronSource.showISDemandOnlyInterstitial(mInstanceId);
                 } else {
@@ -119,6 +132,7 @@ public class IronSourceInterstitial extends CustomEventInterstitial implements I
 
     @Override
     protected void onInvalidate() {
+        sAdaptersByInstanceId.remove(mInstanceId, this);
         mMoPubListener = null;
     }
 
@@ -127,8 +141,14 @@ public class IronSourceInterstitial extends CustomEventInterstitial implements I
      **/
 
     private void initIronSourceSDK(Activity activity, String appKey) {
-        IronSource.setISDemandOnlyInterstitialListener(this);
+        IronSource.setISDemandOnlyInterstitialListener(sInterstitialRouter);
+        MediationWarmUp.getInstance().cacheServerExtras(activity, WarmUpInitializer.class,
+                Collections.singletonMap(APPLICATION_KEY, appKey));
 
+        initISDemandOnlyInterstitial(activity, appKey);
+    }
+
+    private static synchronized void initISDemandOnlyInterstitial(Activity activity, String appKey) {
         if (!mInitInterstitialSuccessfully) {
             MoPubLog.d("IronSource initialization succeeded for Interstitial");
             IronSource.setMediationType(MEDIATION_TYPE + ADAPTER_VERSION);
@@ -138,6 +158,12 @@ public class IronSourceInterstitial extends CustomEventInterstitial implements I
     }
 
     private void loadInterstitial() {
+        final IronSourceInterstitial previousAdapter = sAdaptersByInstanceId.put(mInstanceId, this);
+        if (previousAdapter != null && previousAdapter != this) {
+            MoPubLog.d("IronSource Interstitial instance " + mInstanceId + " is now loaded by another ad unit");
+        }
+
+        mMetricsTracker = MediationMetrics.getInstance().newTracker(ADAPTER_NAME, mInstanceId);
         if (IronSource.isISDemandOnlyInterstitialReady(mInstanceId)) {
             onInterstitialAdReady(mInstanceId);
         } else {
@@ -146,7 +172,7 @@ public class IronSourceInterstitial extends CustomEventInterstitial implements I
     }
 
     private void sendMoPubInterstitialFailed(final MoPubErrorCode errorCode) {
-        sHandler.post(new Runnable() {
+        sDispatcher.post(new Runnable() {
             @Override
             public void run() {
                 if (mMoPubListener != null) {
@@ -189,7 +215,10 @@ public class IronSourceInterstitial extends CustomEventInterstitial implements I
         if (!mInstanceId.equals(instanceId)) {
             return;
         }
-        sHandler.post(new Runnable() {
+        if (mMetricsTracker != null) {
+            mMetricsTracker.onLoadSucceeded();
+        }
+        sDispatcher.post(new Runnable() {
             @Override
             public void run() {
                 if (mMoPubListener != null) {
@@ -206,14 +235,21 @@ public class IronSourceInterstitial extends CustomEventInterstitial implements I
         if (!mInstanceId.equals(instanceId)) {
             return;
         }
-        sendMoPubInterstitialFailed(getMoPubErrorMessage(ironSourceError));
+        final MoPubErrorCode errorCode = getMoPubErrorMessage(ironSourceError);
+        if (mMetricsTracker != null) {
+            mMetricsTracker.onLoadFailed(errorCode);
+        }
+        sendMoPubInterstitialFailed(errorCode);
     }
 
     @Override
     public void onInterstitialAdOpened(String instanceId) {
         MoPubLog.d("IronSource Interstitial opened ad for instance " + instanceId);
+        if (mMetricsTracker != null) {
+            mMetricsTracker.onImpression();
+        }
 
-        sHandler.post(new Runnable() {
+        sDispatcher.post(new Runnable() {
             @Override
             public void run() {
                 if (mMoPubListener != null) {
@@ -227,7 +263,7 @@ public class IronSourceInterstitial extends CustomEventInterstitial implements I
     public void onInterstitialAdClosed(String instanceId) {
         MoPubLog.d("IronSource Interstitial closed ad for instance " + instanceId);
 
-        sHandler.post(new Runnable() {
+        sDispatcher.post(new Runnable() {
             @Override
             public void run() {
                 if (mMoPubListener != null) {
@@ -251,7 +287,7 @@ public class IronSourceInterstitial extends CustomEventInterstitial implements I
     @Override
     public void onInterstitialAdClicked(String instanceId) {
         MoPubLog.d("IronSource Interstitial clicked ad for instance " + instanceId);
-        sHandler.post(new Runnable() {
+        sDispatcher.post(new Runnable() {
             @Override
             public void run() {
                 if (mMoPubListener != null) {
@@ -261,6 +297,95 @@ public class IronSourceInterstitial extends CustomEventInterstitial implements I
         });
     }
 
+    /**
+     * Forwards each ironSource callback to the adapter registered for its instance ID.
+     */
+    private static final ISDemandOnlyInterstitialListener sInterstitialRouter = new ISDemandOnlyInterstitialListener() {
+        @Override
+        public void onInterstitialAdReady(String instanceId) {
+            final IronSourceInterstitial adapter = getAdapter(instanceId);
+            if (adapter != null) {
+                adapter.onInterstitialAdReady(instanceId);
+            }
+        }
+
+        @Override
+        public void onInterstitialAdLoadFailed(String instanceId, IronSourceError ironSourceError) {
+            final IronSourceInterstitial adapter = getAdapter(instanceId);
+            if (adapter != null) {
+                adapter.onInterstitialAdLoadFailed(instanceId, ironSourceError);
+            }
+        }
+
+        @Override
+        public void onInterstitialAdOpened(String instanceId) {
+            final IronSourceInterstitial adapter = getAdapter(instanceId);
+            if (adapter != null) {
+                adapter.onInterstitialAdOpened(instanceId);
+            }
+        }
+
+        @Override
+        public void onInterstitialAdClosed(String instanceId) {
+            final IronSourceInterstitial adapter = getAdapter(instanceId);
+            if (adapter != null) {
+                adapter.onInterstitialAdClosed(instanceId);
+            }
+        }
+
+        @Override
+        public void onInterstitialAdShowSucceeded(String instanceId) {
+            final IronSourceInterstitial adapter = getAdapter(instanceId);
+            if (adapter != null) {
+                adapter.onInterstitialAdShowSucceeded(instanceId);
+            }
+        }
+
+        @Override
+        public void onInterstitialAdShowFailed(String instanceId, IronSourceError ironSourceError) {
+            final IronSourceInterstitial adapter = getAdapter(instanceId);
+            if (adapter != null) {
+                adapter.onInterstitialAdShowFailed(instanceId, ironSourceError);
+            }
+        }
+
+        @Override
+        public void onInterstitialAdClicked(String instanceId) {
+            final IronSourceInterstitial adapter = getAdapter(instanceId);
+            if (adapter != null) {
+                adapter.onInterstitialAdClicked(instanceId);
+            }
+        }
+
+        private IronSourceInterstitial getAdapter(String instanceId) {
+            final IronSourceInterstitial adapter = instanceId == null ? null : sAdaptersByInstanceId.get(instanceId);
+            if (adapter == null) {
+                MoPubLog.d("IronSource Interstitial callback for instance " + instanceId + " has no adapter registered");
+            }
+            return adapter;
+        }
+    };
+
+    /**
+     * Warms up the ironSource SDK for demand-only interstitials at app start. See
+     * {@link MediationWarmUp}.
+     */
+    public static class WarmUpInitializer implements MediationWarmUp.Initializer {
+        @Override
+        public void initialize(@NonNull Activity activity,
+                               @NonNull Map<String, String> serverExtras,
+                               @NonNull MediationWarmUp.InitializationListener listener) {
+            final String applicationKey = serverExtras.get(APPLICATION_KEY);
+            if (TextUtils.isEmpty(applicationKey)) {
+                listener.onInitializationFinished(false);
+                return;
+            }
+
+            initISDemandOnlyInterstitial(activity, applicationKey);
+            listener.onInitializationFinished(true);
+        }
+    }
+
     private static LifecycleListener lifecycleListener = new LifecycleListener() {
         @Override
         public void onCreate(@NonNull Activity activity) {
@@ -38,6 +38,7 @@ public class IronSourceRewardedVideo extends CustomEventRewardedVideo implements
     private static final String INSTANCE_ID_KEY = "instanceId";
     private static final String MEDIATION_TYPE = "mopub";
     private static final String ADAPTER_VERSION = "300";
+    private static final String ADAPTER_NAME = IronSourceRewardedVideo.class.getSimpleName();
 
 
     // This is the instance id used inside ironSource SDK
@@ -48,6 +49,8 @@ public class IronSourceRewardedVideo extends CustomEventRewardedVideo implements
     // Indicates if IronSource RV adapter is in its first init flow
     private static boolean mIsFirstInitFlow = true;
 
+    private MediationMetrics.Tracker mMetricsTracker;
+
     /**
      * Mopub API
      */
@@ -108,12 +111,15 @@ public class IronSourceRewardedVideo extends CustomEventRewardedVideo implements
     protected void loadWithSdkInitialized(@NonNull Activity activity, @NonNull Map<String, Object> localExtras, @NonNull Map<String, String> serverExtras) throws Exception {
 
         setCredentials(serverExtras);
+        mMetricsTracker = MediationMetrics.getInstance().newTracker(ADAPTER_NAME, mInstanceId);
 
         if (!mIsFirstInitFlow) {
             if (hasVideoAvailable()) {
+                mMetricsTracker.onLoadSucceeded();
                 onRewardedVideoLoadSuccess(IronSourceRewardedVideo.class, mInstanceId);
                 MoPubLog.d("IronSource Rewarded Video loaded successfully for instance " + mInstanceId);
             } else {
+                mMetricsTracker.onLoadFailed(MoPubErrorCode.NETWORK_NO_FILL);
                 onRewardedVideoLoadFailure(IronSourceRewardedVideo.class, mInstanceId, MoPubErrorCode.NETWORK_NO_FILL);
                 MoPubLog.d("IronSource Rewarded Video failed to load for instance " + mInstanceId);
             }
@@ -132,6 +138,9 @@ public class IronSourceRewardedVideo extends CustomEventRewardedVideo implements
 
     @Override
     protected void showVideo() {
+        if (mMetricsTracker != null) {
+            mMetricsTracker.onShowRequested();
+        }
         if (TextUtils.isEmpty(mPlacementName)) {
             IronSource.showISDemandOnlyRewardedVideo(mInstanceId);
         } else {
@@ -141,6 +150,9 @@ public class IronSourceRewardedVideo extends CustomEventRewardedVideo implements
 
     @Override
     protected void show() {
+        if (mMetricsTracker != null) {
+            mMetricsTracker.onShowRequested();
+        }
         if (TextUtils.isEmpty(mPlacementName)) {
             IronSource.showISDemandOnlyRewardedVideo(mInstanceId);
         } else {
@@ -221,6 +233,13 @@ public class IronSourceRewardedVideo extends CustomEventRewardedVideo implements
 
         // Invoke only for first load, ignore for all others and rely on 'hasAdAvailable'
         if (mIsFirstInitFlow) {
+            if (mMetricsTracker != null) {
+                if (available) {
+                    mMetricsTracker.onLoadSucceeded();
+                } else {
+                    mMetricsTracker.onLoadFailed(MoPubErrorCode.NETWORK_NO_FILL);
+                }
+            }
             if (available) {
                 onRewardedVideoLoadSuccess(IronSourceRewardedVideo.class, mInstanceId);
                 MoPubLog.d("IronSource Rewarded Video loaded successfully for instance " + mInstanceId);
@@ -236,6 +255,9 @@ public class IronSourceRewardedVideo extends CustomEventRewardedVideo implements
     @Override
     public void onRewardedVideoAdOpened(String instanceId) {
         MoPubLog.d("IronSource Rewarded Video opened ad for instance " + instanceId);
+        if (mMetricsTracker != null && mInstanceId.equals(instanceId)) {
+            mMetricsTracker.onImpression();
+        }
         onRewardedVideoStarted(IronSourceRewardedVideo.class, instanceId);
     }
 
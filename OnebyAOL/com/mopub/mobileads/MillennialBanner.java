@@ -25,6 +25,7 @@ import java.util.Map;
 final class MillennialBanner extends CustomEventBanner {
 
     private static final String TAG = MillennialBanner.class.getSimpleName();
+    private static final String ADAPTER_NAME = MillennialBanner.class.getSimpleName();
 
     private static final String DCN_KEY = "dcn";
     private static final String APID_KEY = "adUnitID";
@@ -34,6 +35,7 @@ final class MillennialBanner extends CustomEventBanner {
     private InlineAd inlineAd;
     private CustomEventBannerListener bannerListener;
     private FrameLayout internalView;
+    private MediationMetrics.Tracker metricsTracker;
 
     static {
         MoPubLog.d("Millennial Media Adapter Version: " + MillennialUtils.MEDIATOR_ID);
@@ -51,6 +53,8 @@ final class MillennialBanner extends CustomEventBanner {
     protected void loadBanner(final Context context, final CustomEventBannerListener customEventBannerListener,
                               final Map<String, Object> localExtras, final Map<String, String> serverExtras) {
 
+        MillennialUtils.cacheServerExtrasForWarmUp(context);
+
         if (context instanceof Activity) {
             try {
                 MMSDK.initialize((Activity) context, ActivityListenerManager.LifecycleState.RESUMED);
@@ -115,10 +119,14 @@ final class MillennialBanner extends CustomEventBanner {
 
             AdViewController.setShouldHonorServerDimensions(internalView);
 
+            metricsTracker = MediationMetrics.getInstance().newTracker(ADAPTER_NAME, apid);
             inlineAd.request(mInlineAdMetadata);
 
         } catch (MMException e) {
             MoPubLog.d("MM SDK exception occurred obtaining an inline ad unit.", e);
+            if (metricsTracker != null) {
+                metricsTracker.onLoadFailed(MoPubErrorCode.INTERNAL_ERROR);
+            }
             bannerListener.onBannerFailed(MoPubErrorCode.INTERNAL_ERROR);
         }
     }
@@ -202,6 +210,7 @@ final class MillennialBanner extends CustomEventBanner {
             }
 
             final MoPubErrorCode fErrorCode = mopubErrorCode;
+            metricsTracker.onLoadFailed(fErrorCode);
             MillennialUtils.postOnUiThread(new Runnable() {
                 @Override
                 public void run() {
@@ -220,9 +229,12 @@ final class MillennialBanner extends CustomEventBanner {
                 MMLog.d(TAG, "Banner Creative Info: " + creativeInfo);
             }
 
+            metricsTracker.onLoadSucceeded();
             MillennialUtils.postOnUiThread(new Runnable() {
                 @Override
                 public void run() {
+                    // Banners are shown as soon as they are handed to MoPub.
+                    metricsTracker.onShowRequested();
                     bannerListener.onBannerLoaded(internalView);
                 }
             });
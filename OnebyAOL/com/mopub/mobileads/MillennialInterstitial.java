@@ -22,10 +22,12 @@ final class MillennialInterstitial extends CustomEventInterstitial {
 
     private static final String DCN_KEY = "dcn";
     private static final String APID_KEY = "adUnitID";
+    private static final String ADAPTER_NAME = MillennialInterstitial.class.getSimpleName();
 
     private InterstitialAd millennialInterstitial;
     private Context context;
     private CustomEventInterstitialListener interstitialListener;
+    private MediationMetrics.Tracker metricsTracker;
 
     static {
         MoPubLog.d("Millennial Media Adapter Version: " + MillennialUtils.MEDIATOR_ID);
@@ -48,6 +50,8 @@ final class MillennialInterstitial extends CustomEventInterstitial {
         interstitialListener = customEventInterstitialListener;
         this.context = context;
 
+        MillennialUtils.cacheServerExtrasForWarmUp(context);
+
         if (context instanceof Activity) {
             try {
                 MMSDK.initialize((Activity) context, ActivityListenerManager.LifecycleState.RESUMED);
@@ -107,10 +111,15 @@ final class MillennialInterstitial extends CustomEventInterstitial {
             MMSDK.setLocationEnabled(MoPub.getLocationAwareness() != MoPub.LocationAwareness.DISABLED);
             millennialInterstitial = InterstitialAd.createInstance(apid);
             millennialInterstitial.setListener(new MillennialInterstitialListener());
+            metricsTracker = MediationMetrics.getInstance().newTracker(ADAPTER_NAME, apid);
             millennialInterstitial.load(context, null);
         } catch (MMException e) {
             MoPubLog.d("Exception occurred while obtaining an interstitial from MM SDK.", e);
 
+            if (metricsTracker != null) {
+                metricsTracker.onLoadFailed(MoPubErrorCode.INTERNAL_ERROR);
+            }
+
             if (interstitialListener != null) {
                 interstitialListener.onInterstitialFailed(MoPubErrorCode.INTERNAL_ERROR);
             }
@@ -121,6 +130,7 @@ final class MillennialInterstitial extends CustomEventInterstitial {
     protected void showInterstitial() {
         if (millennialInterstitial.isReady()) {
             try {
+                metricsTracker.onShowRequested();
                 millennialInterstitial.show(context);
             } catch (MMException e) {
                 MoPubLog.d("An exception occurred while attempting to show interstitial.", e);
@@ -199,6 +209,7 @@ final class MillennialInterstitial extends CustomEventInterstitial {
             switch (interstitialErrorStatus.getErrorCode()) {
                 case InterstitialErrorStatus.ALREADY_LOADED:
                     // This will generate discrepancies, as requests will NOT be sent to Millennial.
+                    metricsTracker.onLoadSucceeded();
                     if (interstitialListener != null) {
                         interstitialListener.onInterstitialLoaded();
                     }
@@ -221,6 +232,7 @@ final class MillennialInterstitial extends CustomEventInterstitial {
                 default:
                     moPubErrorCode = MoPubErrorCode.NETWORK_NO_FILL;
             }
+            metricsTracker.onLoadFailed(moPubErrorCode);
 
             MillennialUtils.postOnUiThread(new Runnable() {
                 @Override
@@ -235,6 +247,7 @@ final class MillennialInterstitial extends CustomEventInterstitial {
         @Override
         public void onLoaded(InterstitialAd interstitialAd) {
             MoPubLog.d("Millennial Interstitial Ad - Ad loaded splendidly");
+            metricsTracker.onLoadSucceeded();
 
             CreativeInfo creativeInfo = getCreativeInfo();
 
@@ -270,6 +283,7 @@ final class MillennialInterstitial extends CustomEventInterstitial {
         @Override
         public void onShown(InterstitialAd interstitialAd) {
             MoPubLog.d("Millennial Interstitial Ad - Ad shown");
+            metricsTracker.onImpression();
             MillennialUtils.postOnUiThread(new Runnable() {
                 @Override
                 public void run() {
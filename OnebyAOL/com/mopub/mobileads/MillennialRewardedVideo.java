@@ -26,6 +26,7 @@ import java.util.Map;
 final class MillennialRewardedVideo extends CustomEventRewardedVideo {
 
     private static final String TAG = MillennialRewardedVideo.class.getSimpleName();
+    private static final String ADAPTER_NAME = MillennialRewardedVideo.class.getSimpleName();
     private static final String DCN_KEY = "dcn";
     private static final String APID_KEY = "adUnitID";
 
@@ -34,6 +35,7 @@ final class MillennialRewardedVideo extends CustomEventRewardedVideo {
     private Activity activity;
     @NonNull
     private String apid = "";
+    private MediationMetrics.Tracker metricsTracker;
 
     static {
         MoPubLog.d("Millennial Media Adapter Version: " + MillennialUtils.MEDIATOR_ID);
@@ -78,6 +80,8 @@ final class MillennialRewardedVideo extends CustomEventRewardedVideo {
     @Override
     protected boolean checkAndInitializeSdk(@NonNull Activity launcherActivity,
                                             @NonNull Map<String, Object> localExtras, @NonNull Map<String, String> serverExtras) throws Exception {
+        MillennialUtils.cacheServerExtrasForWarmUp(launcherActivity);
+
         try {
             MMSDK.initialize(launcherActivity, ActivityListenerManager.LifecycleState.RESUMED);
         } catch (IllegalStateException e) {
@@ -113,10 +117,14 @@ final class MillennialRewardedVideo extends CustomEventRewardedVideo {
             millennialInterstitial = InterstitialAd.createInstance(apid);
             millennialInterstitial.setListener(millennialRewardedVideoListener);
             millennialInterstitial.xSetIncentivizedListener(millennialRewardedVideoListener);
+            metricsTracker = MediationMetrics.getInstance().newTracker(ADAPTER_NAME, apid);
             millennialInterstitial.load(activity, null);
 
         } catch (MMException e) {
             MoPubLog.d("An exception occurred loading an InterstitialAd", e);
+            if (metricsTracker != null) {
+                metricsTracker.onLoadFailed(MoPubErrorCode.INTERNAL_ERROR);
+            }
             MoPubRewardedVideoManager
                     .onRewardedVideoLoadFailure(MillennialRewardedVideo.class, apid, MoPubErrorCode.INTERNAL_ERROR);
         }
@@ -131,6 +139,7 @@ final class MillennialRewardedVideo extends CustomEventRewardedVideo {
     protected void showVideo() {
         if ((millennialInterstitial != null) && millennialInterstitial.isReady()) {
             try {
+                metricsTracker.onShowRequested();
                 millennialInterstitial.show(activity);
             } catch (MMException e) {
                 MoPubLog.d("An exception occurred showing the MM SDK interstitial.", e);
@@ -204,6 +213,7 @@ final class MillennialRewardedVideo extends CustomEventRewardedVideo {
             switch (interstitialErrorStatus.getErrorCode()) {
                 case InterstitialErrorStatus.ALREADY_LOADED:
                     // This will generate discrepancies, as requests will NOT be sent to Millennial.
+                    metricsTracker.onLoadSucceeded();
                     MillennialUtils.postOnUiThread(new Runnable() {
                         @Override
                         public void run() {
@@ -232,6 +242,7 @@ final class MillennialRewardedVideo extends CustomEventRewardedVideo {
                     moPubErrorCode = MoPubErrorCode.NETWORK_NO_FILL;
             }
 
+            metricsTracker.onLoadFailed(moPubErrorCode);
             MillennialUtils.postOnUiThread(new Runnable() {
                 @Override
                 public void run() {
@@ -253,6 +264,7 @@ final class MillennialRewardedVideo extends CustomEventRewardedVideo {
                 MoPubLog.d("Rewarded Video Creative Info: " + creativeInfo);
             }
 
+            metricsTracker.onLoadSucceeded();
             MillennialUtils.postOnUiThread(new Runnable() {
                 @Override
                 public void run() {
@@ -282,6 +294,7 @@ final class MillennialRewardedVideo extends CustomEventRewardedVideo {
         @Override
         public void onShown(final InterstitialAd interstitialAd) {
             MoPubLog.d("Millennial Rewarded Video Ad - Ad shown");
+            metricsTracker.onImpression();
             MillennialUtils.postOnUiThread(new Runnable() {
                 @Override
                 public void run() {
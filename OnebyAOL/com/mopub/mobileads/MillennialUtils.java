@@ -1,21 +1,54 @@
 package com.mopub.mobileads;
 
-import android.os.Handler;
-import android.os.Looper;
+import android.app.Activity;
+import android.content.Context;
+import android.support.annotation.NonNull;
 
-final public class MillennialUtils {
+import com.millennialmedia.MMSDK;
+import com.millennialmedia.internal.ActivityListenerManager;
+import com.mopub.common.logging.MoPubLog;
+
+import java.util.Collections;
+import java.util.Map;
 
-    private static final Handler handler = new Handler(Looper.getMainLooper());
+final public class MillennialUtils {
 
     private static final String VERSION = "1.3.0";
     public static final String MEDIATOR_ID = "MoPubMM-" + VERSION;
 
     public static void postOnUiThread(Runnable runnable) {
-        handler.post(runnable);
+        MainThreadDispatcher.getInstance().post(runnable);
     }
 
     public static boolean isEmpty(String s) {
 
         return (s == null || s.trim().isEmpty());
     }
-}
\ No newline at end of file
+
+    /**
+     * Marks the MM SDK for warm-up in the next session. It needs no server extras to initialize.
+     */
+    public static void cacheServerExtrasForWarmUp(Context context) {
+        MediationWarmUp.getInstance().cacheServerExtras(context, WarmUpInitializer.class,
+                Collections.<String, String>emptyMap());
+    }
+
+    /**
+     * Warms up the MM SDK at app start. See {@link MediationWarmUp}.
+     */
+    public static class WarmUpInitializer implements MediationWarmUp.Initializer {
+        @Override
+        public void initialize(@NonNull Activity activity,
+                               @NonNull Map<String, String> serverExtras,
+                               @NonNull MediationWarmUp.InitializationListener listener) {
+            try {
+                MMSDK.initialize(activity, ActivityListenerManager.LifecycleState.RESUMED);
+            } catch (IllegalStateException e) {
+                MoPubLog.d("Exception occurred initializing the MM SDK.", e);
+                listener.onInitializationFinished(false);
+                return;
+            }
+            listener.onInitializationFinished(true);
+        }
+    }
+}
@@ -13,19 +13,20 @@ import com.millennialmedia.MMSDK;
 import com.millennialmedia.NativeAd;
 import com.millennialmedia.internal.ActivityListenerManager;
 import com.mopub.common.logging.MoPubLog;
+import com.mopub.mobileads.MediationMetrics;
 import com.mopub.mobileads.MillennialUtils;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
-import static com.mopub.nativeads.NativeImageHelper.preCacheImages;
 
 public class MillennialNative extends CustomEventNative {
 
     private static final String DCN_KEY = "dcn";
     private static final String APID_KEY = "adUnitID";
     private final static String TAG = MillennialNative.class.getSimpleName();
+    private static final String ADAPTER_NAME = MillennialNative.class.getSimpleName();
 
     MillennialStaticNativeAd staticNativeAd;
 
@@ -44,6 +45,8 @@ public class MillennialNative extends CustomEventNative {
     protected void loadNativeAd(final Context context, final CustomEventNativeListener customEventNativeListener,
                                 Map<String, Object> localExtras, Map<String, String> serverExtras) {
 
+        MillennialUtils.cacheServerExtrasForWarmUp(context);
+
         if (context instanceof Activity) {
             try {
                 MMSDK.initialize((Activity) context, ActivityListenerManager.LifecycleState.RESUMED);
@@ -79,18 +82,21 @@ public class MillennialNative extends CustomEventNative {
         }
 
         AppInfo ai = new AppInfo().setMediator(MillennialUtils.MEDIATOR_ID).setSiteId(siteId);
+        final MediationMetrics.Tracker metricsTracker =
+                MediationMetrics.getInstance().newTracker(ADAPTER_NAME, placementId);
 
         try {
             MMSDK.setAppInfo(ai);
 
             NativeAd nativeAd = NativeAd.createInstance(placementId, NativeAd.NATIVE_TYPE_INLINE);
             staticNativeAd = new MillennialStaticNativeAd(context, nativeAd, new ImpressionTracker(context),
-                    new NativeClickHandler(context), customEventNativeListener);
+                    new NativeClickHandler(context), customEventNativeListener, metricsTracker);
 
             staticNativeAd.loadAd();
 
         } catch (MMException e) {
             MoPubLog.d("An exception occurred loading a native ad from MM SDK", e);
+            metricsTracker.onLoadFailed(NativeErrorCode.NATIVE_ADAPTER_CONFIGURATION_ERROR);
             customEventNativeListener.onNativeAdFailed(NativeErrorCode.NATIVE_ADAPTER_CONFIGURATION_ERROR);
         }
     }
@@ -101,15 +107,18 @@ public class MillennialNative extends CustomEventNative {
         private final ImpressionTracker impressionTracker;
         private final NativeClickHandler nativeClickHandler;
         private final CustomEventNativeListener listener;
+        private final MediationMetrics.Tracker metricsTracker;
 
         private MillennialStaticNativeAd(final Context context, final NativeAd nativeAd,
                                          final ImpressionTracker impressionTracker, final NativeClickHandler nativeClickHandler,
-                                         final CustomEventNativeListener customEventNativeListener) {
+                                         final CustomEventNativeListener customEventNativeListener,
+                                         final MediationMetrics.Tracker metricsTracker) {
             this.context = context.getApplicationContext();
             this.nativeAd = nativeAd;
             this.impressionTracker = impressionTracker;
             this.nativeClickHandler = nativeClickHandler;
             listener = customEventNativeListener;
+            this.metricsTracker = metricsTracker;
 
             nativeAd.setListener(this);
         }
@@ -131,6 +140,7 @@ public class MillennialNative extends CustomEventNative {
         // Lifecycle Handlers
         @Override
         public void prepare(final View view) {
+            metricsTracker.onShowRequested();
             // Must access these methods directly to get impressions to fire.
             nativeAd.getIconImage();
             nativeAd.getDisclaimer();
@@ -154,6 +164,7 @@ public class MillennialNative extends CustomEventNative {
         // Event Handlers
         @Override
         public void recordImpression(final View view) {
+            metricsTracker.onImpression();
             notifyAdImpressed();
 
             try {
@@ -195,6 +206,7 @@ public class MillennialNative extends CustomEventNative {
                     @Override
                     public void run() {
                         MoPubLog.d("Millennial native ad encountered null destination url.");
+                        metricsTracker.onLoadFailed(NativeErrorCode.NATIVE_ADAPTER_CONFIGURATION_ERROR);
                         listener.onNativeAdFailed(NativeErrorCode.NATIVE_ADAPTER_CONFIGURATION_ERROR);
                     }
                 });
@@ -226,15 +238,17 @@ public class MillennialNative extends CustomEventNative {
                 @Override
                 public void run() {
                     // This has to be run on the main thread:
-                    preCacheImages(context, urls, new NativeImageHelper.ImageListener() {
+                    NativeImagePrecacher.getInstance().preCacheImages(context, urls, new NativeImageHelper.ImageListener() {
                         @Override
                         public void onImagesCached() {
+                            metricsTracker.onLoadSucceeded();
                             listener.onNativeAdLoaded(MillennialStaticNativeAd.this);
                             MoPubLog.d("Millennial native ad loaded.");
                         }
 
                         @Override
                         public void onImagesFailedToCache(NativeErrorCode errorCode) {
+                            metricsTracker.onLoadFailed(errorCode);
                             listener.onNativeAdFailed(errorCode);
                         }
                     });
@@ -273,6 +287,7 @@ public class MillennialNative extends CustomEventNative {
             MillennialUtils.postOnUiThread(new Runnable() {
                 @Override
                 public void run() {
+                    metricsTracker.onLoadFailed(error);
                     listener.onNativeAdFailed(error);
                 }
             });
@@ -1,19 +1,32 @@
 package com.mopub.mobileads;
 
 import android.content.Context;
+import android.support.annotation.NonNull;
 
 import com.mopub.common.MoPubAdvancedBidder;
 import com.tapjoy.Tapjoy;
 
 public class TapjoyAdvancedBidder implements MoPubAdvancedBidder {
+    private static final String CREATIVE_NETWORK_NAME = "tapjoy";
+
+    public TapjoyAdvancedBidder() {
+        AdvancedBidderTokenCollector.getInstance().register(CREATIVE_NETWORK_NAME,
+                new AdvancedBidderTokenCollector.TokenFetcher() {
+                    @Override
+                    public String fetchToken(@NonNull final Context context) {
+                        return Tapjoy.getUserToken();
+                    }
+                });
+    }
+
     @Override
     public String getToken(final Context context) {
-        String token = Tapjoy.getUserToken();
+        String token = AdvancedBidderTokenCollector.getInstance().getToken(context, CREATIVE_NETWORK_NAME);
         return (token != null && !token.isEmpty() ? token : "1");
     }
 
     @Override
     public String getCreativeNetworkName() {
-        return "tapjoy";
+        return CREATIVE_NETWORK_NAME;
     }
 }
@@ -0,0 +1,176 @@
+package com.mopub.mobileads;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.mopub.common.logging.MoPubLog;
+import com.tapjoy.TJConnectListener;
+import com.tapjoy.Tapjoy;
+
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Shares a single {@link Tapjoy#connect} between the Tapjoy adapters.
+ * <p>
+ * Loads that need Tapjoy to be connected call {@link #connect(Context, String, Hashtable,
+ * ConnectListener)}. While a connect is in flight their listeners are queued, and they are all
+ * notified on the main thread when it finishes. After a failure the coordinator keeps retrying in
+ * the background with exponential backoff, and loads made in the meantime fail right away instead
+ * of waiting for the waterfall timeout. Once the retries are used up, the next load starts over.
+ */
+public class TapjoyConnectCoordinator {
+
+    public interface ConnectListener {
+        void onConnected();
+
+        void onConnectFailed();
+    }
+
+    private static final int MAX_RETRIES = 5;
+    private static final long RETRY_BASE_DELAY_MILLIS = 2000;
+    private static final long RETRY_MAX_DELAY_MILLIS = 60 * 1000;
+
+    private static final TapjoyConnectCoordinator sInstance = new TapjoyConnectCoordinator();
+
+    private enum State {
+        IDLE,
+        CONNECTING,
+        BACKING_OFF
+    }
+
+    @NonNull
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    @NonNull
+    private final Random mRandom = new Random();
+    @NonNull
+    private final List<ConnectListener> mPendingListeners = new ArrayList<>();
+    @NonNull
+    private State mState = State.IDLE;
+    private int mRetryCount;
+
+    @NonNull
+    public static TapjoyConnectCoordinator getInstance() {
+        return sInstance;
+    }
+
+    private TapjoyConnectCoordinator() {
+    }
+
+    /**
+     * Connects to Tapjoy unless it is already connected or connecting, and notifies the listener
+     * on the main thread once the connection is usable or has failed.
+     */
+    public synchronized void connect(@NonNull final Context context,
+                                     @NonNull final String sdkKey,
+                                     @Nullable final Hashtable<String, Object> connectFlags,
+                                     @NonNull final ConnectListener listener) {
+        if (Tapjoy.isConnected()) {
+            notifyConnected(listener);
+            return;
+        }
+
+        switch (mState) {
+            case IDLE:
+                mPendingListeners.add(listener);
+                mRetryCount = 0;
+                startConnect(context.getApplicationContext(), sdkKey, connectFlags);
+                break;
+            case CONNECTING:
+                mPendingListeners.add(listener);
+                break;
+            case BACKING_OFF:
+                MoPubLog.d("Tapjoy is offline and waiting to retry connecting. Failing the request.");
+                notifyConnectFailed(listener);
+                break;
+        }
+    }
+
+    private void startConnect(@NonNull final Context applicationContext,
+                              @NonNull final String sdkKey,
+                              @Nullable final Hashtable<String, Object> connectFlags) {
+        mState = State.CONNECTING;
+        Tapjoy.connect(applicationContext, sdkKey, connectFlags, new TJConnectListener() {
+            @Override
+            public void onConnectSuccess() {
+                MoPubLog.d("Tapjoy connected successfully");
+                onConnectFinished(true, applicationContext, sdkKey, connectFlags);
+            }
+
+            @Override
+            public void onConnectFailure() {
+                MoPubLog.d("Tapjoy connect failed");
+                onConnectFinished(false, applicationContext, sdkKey, connectFlags);
+            }
+        });
+    }
+
+    private synchronized void onConnectFinished(final boolean success,
+                                                @NonNull final Context applicationContext,
+                                                @NonNull final String sdkKey,
+                                                @Nullable final Hashtable<String, Object> connectFlags) {
+        for (ConnectListener listener : mPendingListeners) {
+            if (success) {
+                notifyConnected(listener);
+            } else {
+                notifyConnectFailed(listener);
+            }
+        }
+        mPendingListeners.clear();
+
+        if (success || mRetryCount >= MAX_RETRIES) {
+            mState = State.IDLE;
+            return;
+        }
+
+        final long delayMillis = getRetryDelayMillis(mRetryCount++);
+        MoPubLog.d("Retrying Tapjoy connect in " + delayMillis + " ms.");
+        mState = State.BACKING_OFF;
+        mHandler.postDelayed(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (TapjoyConnectCoordinator.this) {
+                    if (Tapjoy.isConnected()) {
+                        mState = State.IDLE;
+                    } else {
+                        startConnect(applicationContext, sdkKey, connectFlags);
+                    }
+                }
+            }
+        }, delayMillis);
+    }
+
+    /**
+     * Exponential backoff with equal jitter, so that devices that lost Tapjoy at the same time
+     * don't all reconnect at once.
+     */
+    private long getRetryDelayMillis(final int retryCount) {
+        final long delayMillis = Math.min(RETRY_MAX_DELAY_MILLIS,
+                RETRY_BASE_DELAY_MILLIS << retryCount);
+        final long halfDelayMillis = delayMillis / 2;
+        return halfDelayMillis + (long) (mRandom.nextDouble() * halfDelayMillis);
+    }
+
+    private void notifyConnected(@NonNull final ConnectListener listener) {
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                listener.onConnected();
+            }
+        });
+    }
+
+    private void notifyConnectFailed(@NonNull final ConnectListener listener) {
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                listener.onConnectFailed();
+            }
+        });
+    }
+}
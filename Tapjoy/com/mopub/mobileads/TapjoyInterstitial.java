@@ -8,9 +8,9 @@
 
 package com.mopub.mobileads;
 
+import android.app.Activity;
 import android.content.Context;
-import android.os.Handler;
-import android.os.Looper;
+import android.support.annotation.NonNull;
 import android.text.TextUtils;
 
 import com.mopub.common.MoPub;
@@ -19,7 +19,6 @@ import com.mopub.common.privacy.ConsentStatus;
 import com.mopub.common.privacy.PersonalInfoManager;
 import com.mopub.common.util.Json;
 import com.tapjoy.TJActionRequest;
-import com.tapjoy.TJConnectListener;
 import com.tapjoy.TJError;
 import com.tapjoy.TJPlacement;
 import com.tapjoy.TJPlacementListener;
@@ -28,6 +27,7 @@ import com.tapjoy.TapjoyLog;
 
 import org.json.JSONException;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -44,7 +44,8 @@ public class TapjoyInterstitial extends CustomEventInterstitial implements TJPla
 
     private TJPlacement tjPlacement;
     private CustomEventInterstitialListener mInterstitialListener;
-    private Handler mHandler;
+    private final MainThreadDispatcher mDispatcher = MainThreadDispatcher.getInstance();
+    private MediationMetrics.Tracker mMetricsTracker;
 
     static {
         TapjoyLog.i(TAG, "Class initialized with network adapter version " + TJC_MOPUB_ADAPTER_VERSION_NUMBER);
@@ -58,7 +59,6 @@ public class TapjoyInterstitial extends CustomEventInterstitial implements TJPla
         MoPubLog.d("Requesting Tapjoy interstitial");
 
         mInterstitialListener = customEventInterstitialListener;
-        mHandler = new Handler(Looper.getMainLooper());
 
         fetchMoPubGDPRSettings();
 
@@ -70,7 +70,10 @@ public class TapjoyInterstitial extends CustomEventInterstitial implements TJPla
         final String adm = serverExtras.get(ADM_KEY);
 
         boolean canRequestPlacement = true;
-        if (!Tapjoy.isConnected()) {
+        if (!Tapjoy.isConnected() && awaitWarmUp(context, placementName, adm)) {
+            // The warm-up is already connecting to Tapjoy; request the placement once it is done.
+            canRequestPlacement = false;
+        } else if (!Tapjoy.isConnected()) {
             // Check if configuration data is available
             boolean enableDebug = Boolean.valueOf(serverExtras.get(DEBUG_ENABLED));
             Tapjoy.setDebugEnabled(enableDebug);
@@ -78,18 +81,20 @@ public class TapjoyInterstitial extends CustomEventInterstitial implements TJPla
             String sdkKey = serverExtras.get(SDK_KEY);
             if (!TextUtils.isEmpty(sdkKey)) {
                 MoPubLog.d("Connecting to Tapjoy via MoPub dashboard settings...");
-                Tapjoy.connect(context, sdkKey, null, new TJConnectListener() {
-                    @Override
-                    public void onConnectSuccess() {
-                        MoPubLog.d("Tapjoy connected successfully");
-                        createPlacement(context, placementName, adm);
-                    }
-
-                    @Override
-                    public void onConnectFailure() {
-                        MoPubLog.d("Tapjoy connect failed");
-                    }
-                });
+                MediationWarmUp.getInstance().cacheServerExtras(context, WarmUpInitializer.class,
+                        Collections.singletonMap(SDK_KEY, sdkKey));
+                TapjoyConnectCoordinator.getInstance().connect(context, sdkKey, null,
+                        new TapjoyConnectCoordinator.ConnectListener() {
+                            @Override
+                            public void onConnected() {
+                                createPlacement(context, placementName, adm);
+                            }
+
+                            @Override
+                            public void onConnectFailed() {
+                                failLoad(MoPubErrorCode.NETWORK_INVALID_STATE);
+                            }
+                        });
 
                 // If sdkKey is present via MoPub dashboard, we only want to request placement
                 // after auto-connect succeeds
@@ -104,6 +109,31 @@ public class TapjoyInterstitial extends CustomEventInterstitial implements TJPla
         }
     }
 
+    private boolean awaitWarmUp(final Context context, final String placementName,
+                                final String adm) {
+        return MediationWarmUp.getInstance().awaitInitialization(WarmUpInitializer.class,
+                new MediationWarmUp.InitializationListener() {
+                    @Override
+                    public void onInitializationFinished(boolean success) {
+                        if (Tapjoy.isConnected()) {
+                            createPlacement(context, placementName, adm);
+                        } else {
+                            MoPubLog.d("Tapjoy connect failed");
+                            failLoad(MoPubErrorCode.NETWORK_INVALID_STATE);
+                        }
+                    }
+                });
+    }
+
+    private void failLoad(final MoPubErrorCode errorCode) {
+        mDispatcher.post(new Runnable() {
+            @Override
+            public void run() {
+                mInterstitialListener.onInterstitialFailed(errorCode);
+            }
+        });
+    }
+
     private void createPlacement(Context context, String placementName, final String adm) {
         tjPlacement = new TJPlacement(context, placementName, this);
         tjPlacement.setMediationName(TJC_MOPUB_NETWORK_CONSTANT);
@@ -118,6 +148,7 @@ public class TapjoyInterstitial extends CustomEventInterstitial implements TJPla
             }
         }
 
+        mMetricsTracker = MediationMetrics.getInstance().newTracker(TAG, placementName);
         tjPlacement.requestContent();
     }
 
@@ -152,6 +183,7 @@ public class TapjoyInterstitial extends CustomEventInterstitial implements TJPla
     @Override
     protected void showInterstitial() {
         MoPubLog.d("Tapjoy interstitial will be shown");
+        mMetricsTracker.onShowRequested();
         tjPlacement.showContent();
     }
 
@@ -159,14 +191,16 @@ public class TapjoyInterstitial extends CustomEventInterstitial implements TJPla
 
     @Override
     public void onRequestSuccess(final TJPlacement placement) {
-        mHandler.post(new Runnable() {
+        mDispatcher.post(new Runnable() {
             @Override
             public void run() {
                 if (placement.isContentAvailable()) {
                     MoPubLog.d("Tapjoy interstitial request successful");
+                    mMetricsTracker.onLoadSucceeded();
                     mInterstitialListener.onInterstitialLoaded();
                 } else {
                     MoPubLog.d("No Tapjoy interstitials available");
+                    mMetricsTracker.onLoadFailed(MoPubErrorCode.NETWORK_NO_FILL);
                     mInterstitialListener.onInterstitialFailed(MoPubErrorCode.NETWORK_NO_FILL);
                 }
             }
@@ -176,8 +210,9 @@ public class TapjoyInterstitial extends CustomEventInterstitial implements TJPla
     @Override
     public void onRequestFailure(TJPlacement placement, TJError error) {
         MoPubLog.d("Tapjoy interstitial request failed");
+        mMetricsTracker.onLoadFailed(MoPubErrorCode.NETWORK_NO_FILL);
 
-        mHandler.post(new Runnable() {
+        mDispatcher.post(new Runnable() {
             @Override
             public void run() {
                 mInterstitialListener.onInterstitialFailed(MoPubErrorCode.NETWORK_NO_FILL);
@@ -188,8 +223,9 @@ public class TapjoyInterstitial extends CustomEventInterstitial implements TJPla
     @Override
     public void onContentShow(TJPlacement placement) {
         MoPubLog.d("Tapjoy interstitial shown");
+        mMetricsTracker.onImpression();
 
-        mHandler.post(new Runnable() {
+        mDispatcher.post(new Runnable() {
             @Override
             public void run() {
                 mInterstitialListener.onInterstitialShown();
@@ -201,7 +237,7 @@ public class TapjoyInterstitial extends CustomEventInterstitial implements TJPla
     public void onContentDismiss(TJPlacement placement) {
         MoPubLog.d("Tapjoy interstitial dismissed");
 
-        mHandler.post(new Runnable() {
+        mDispatcher.post(new Runnable() {
             @Override
             public void run() {
                 mInterstitialListener.onInterstitialDismissed();
@@ -222,4 +258,34 @@ public class TapjoyInterstitial extends CustomEventInterstitial implements TJPla
     public void onRewardRequest(TJPlacement placement, TJActionRequest request, String itemId,
                                 int quantity) {
     }
+
+    /**
+     * Warms up the Tapjoy SDK at app start by connecting with the cached SDK key. See
+     * {@link MediationWarmUp}.
+     */
+    public static class WarmUpInitializer implements MediationWarmUp.Initializer {
+        @Override
+        public void initialize(@NonNull Activity activity,
+                               @NonNull Map<String, String> serverExtras,
+                               @NonNull final MediationWarmUp.InitializationListener listener) {
+            final String sdkKey = serverExtras.get(SDK_KEY);
+            if (Tapjoy.isConnected() || TextUtils.isEmpty(sdkKey)) {
+                listener.onInitializationFinished(Tapjoy.isConnected());
+                return;
+            }
+
+            TapjoyConnectCoordinator.getInstance().connect(activity, sdkKey, null,
+                    new TapjoyConnectCoordinator.ConnectListener() {
+                        @Override
+                        public void onConnected() {
+                            listener.onInitializationFinished(true);
+                        }
+
+                        @Override
+                        public void onConnectFailed() {
+                            listener.onInitializationFinished(false);
+                        }
+                    });
+        }
+    }
 }
@@ -14,7 +14,6 @@ import com.mopub.common.privacy.ConsentStatus;
 import com.mopub.common.privacy.PersonalInfoManager;
 import com.mopub.common.util.Json;
 import com.tapjoy.TJActionRequest;
-import com.tapjoy.TJConnectListener;
 import com.tapjoy.TJError;
 import com.tapjoy.TJPlacement;
 import com.tapjoy.TJPlacementListener;
@@ -24,6 +23,7 @@ import com.tapjoy.TapjoyLog;
 
 import org.json.JSONException;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.Map;
@@ -46,6 +46,9 @@ public class TapjoyRewardedVideo extends CustomEventRewardedVideo {
     private TJPlacement tjPlacement;
     private boolean isAutoConnect = false;
     private static TapjoyRewardedVideoListener sTapjoyListener = new TapjoyRewardedVideoListener();
+    // Tracks the latest load, as the listener above is shared by all instances.
+    @Nullable
+    private static MediationMetrics.Tracker sMetricsTracker;
 
     static {
         TapjoyLog.i(TAG, "Class initialized with network adapter version " + TJC_MOPUB_ADAPTER_VERSION_NUMBER);
@@ -85,7 +88,12 @@ public class TapjoyRewardedVideo extends CustomEventRewardedVideo {
         final String adm = serverExtras.get(ADM_KEY);
 
         if (!Tapjoy.isConnected()) {
-            if (checkAndInitMediationSettings()) {
+            if (awaitWarmUp(launcherActivity, adm)) {
+                MoPubLog.d("Waiting for the Tapjoy warm-up to connect...");
+
+                isAutoConnect = true;
+                return true;
+            } else if (checkAndInitMediationSettings()) {
                 MoPubLog.d("Connecting to Tapjoy via MoPub mediation settings...");
                 connectToTapjoy(launcherActivity, adm);
 
@@ -123,19 +131,38 @@ public class TapjoyRewardedVideo extends CustomEventRewardedVideo {
         createPlacement(activity, adm);
     }
 
-    private void connectToTapjoy(final Activity launcherActivity, final String adm) {
-        Tapjoy.connect(launcherActivity, sdkKey, connectFlags, new TJConnectListener() {
-            @Override
-            public void onConnectSuccess() {
-                MoPubLog.d("Tapjoy connected successfully");
-                createPlacement(launcherActivity, adm);
-            }
+    private boolean awaitWarmUp(final Activity launcherActivity, final String adm) {
+        return MediationWarmUp.getInstance().awaitInitialization(
+                TapjoyInterstitial.WarmUpInitializer.class,
+                new MediationWarmUp.InitializationListener() {
+                    @Override
+                    public void onInitializationFinished(boolean success) {
+                        if (Tapjoy.isConnected()) {
+                            createPlacement(launcherActivity, adm);
+                        } else {
+                            MoPubLog.d("Tapjoy connect failed");
+                            MoPubRewardedVideoManager.onRewardedVideoLoadFailure(TapjoyRewardedVideo.class, TAPJOY_AD_NETWORK_CONSTANT, MoPubErrorCode.NETWORK_INVALID_STATE);
+                        }
+                    }
+                });
+    }
 
-            @Override
-            public void onConnectFailure() {
-                MoPubLog.d("Tapjoy connect failed");
-            }
-        });
+    private void connectToTapjoy(final Activity launcherActivity, final String adm) {
+        MediationWarmUp.getInstance().cacheServerExtras(launcherActivity,
+                TapjoyInterstitial.WarmUpInitializer.class,
+                Collections.singletonMap(SDK_KEY, sdkKey));
+        TapjoyConnectCoordinator.getInstance().connect(launcherActivity, sdkKey, connectFlags,
+                new TapjoyConnectCoordinator.ConnectListener() {
+                    @Override
+                    public void onConnected() {
+                        createPlacement(launcherActivity, adm);
+                    }
+
+                    @Override
+                    public void onConnectFailed() {
+                        MoPubRewardedVideoManager.onRewardedVideoLoadFailure(TapjoyRewardedVideo.class, TAPJOY_AD_NETWORK_CONSTANT, MoPubErrorCode.NETWORK_INVALID_STATE);
+                    }
+                });
     }
 
     private void createPlacement(Activity activity, final String adm) {
@@ -160,6 +187,7 @@ public class TapjoyRewardedVideo extends CustomEventRewardedVideo {
                 }
             }
 
+            sMetricsTracker = MediationMetrics.getInstance().newTracker(TAG, placementName);
             tjPlacement.requestContent();
         } else {
             MoPubLog.d("Tapjoy placementName is empty. Unable to create TJPlacement.");
@@ -175,6 +203,9 @@ public class TapjoyRewardedVideo extends CustomEventRewardedVideo {
     protected void showVideo() {
         if (hasVideoAvailable()) {
             MoPubLog.d("Tapjoy rewarded video will be shown.");
+            if (sMetricsTracker != null) {
+                sMetricsTracker.onShowRequested();
+            }
             tjPlacement.showContent();
         } else {
             MoPubLog.d("Failed to show Tapjoy rewarded video.");
@@ -233,6 +264,9 @@ public class TapjoyRewardedVideo extends CustomEventRewardedVideo {
         public void onRequestSuccess(TJPlacement placement) {
             if (!placement.isContentAvailable()) {
                 MoPubLog.d("No Tapjoy rewarded videos available");
+                if (sMetricsTracker != null) {
+                    sMetricsTracker.onLoadFailed(MoPubErrorCode.NETWORK_NO_FILL);
+                }
                 MoPubRewardedVideoManager.onRewardedVideoLoadFailure(TapjoyRewardedVideo.class, TAPJOY_AD_NETWORK_CONSTANT, MoPubErrorCode.NETWORK_NO_FILL);
             }
         }
@@ -240,12 +274,18 @@ public class TapjoyRewardedVideo extends CustomEventRewardedVideo {
         @Override
         public void onContentReady(TJPlacement placement) {
             MoPubLog.d("Tapjoy rewarded video content is ready");
+            if (sMetricsTracker != null) {
+                sMetricsTracker.onLoadSucceeded();
+            }
             MoPubRewardedVideoManager.onRewardedVideoLoadSuccess(TapjoyRewardedVideo.class, TAPJOY_AD_NETWORK_CONSTANT);
         }
 
         @Override
         public void onRequestFailure(TJPlacement placement, TJError error) {
             MoPubLog.d("Tapjoy rewarded video request failed");
+            if (sMetricsTracker != null) {
+                sMetricsTracker.onLoadFailed(MoPubErrorCode.NETWORK_NO_FILL);
+            }
             MoPubRewardedVideoManager.onRewardedVideoLoadFailure(TapjoyRewardedVideo.class, TAPJOY_AD_NETWORK_CONSTANT, MoPubErrorCode.NETWORK_NO_FILL);
         }
 
@@ -253,6 +293,9 @@ public class TapjoyRewardedVideo extends CustomEventRewardedVideo {
         public void onContentShow(TJPlacement placement) {
             Tapjoy.setVideoListener(this);
             MoPubLog.d("Tapjoy rewarded video content shown");
+            if (sMetricsTracker != null) {
+                sMetricsTracker.onImpression();
+            }
             MoPubRewardedVideoManager.onRewardedVideoStarted(TapjoyRewardedVideo.class, TAPJOY_AD_NETWORK_CONSTANT);
         }
 
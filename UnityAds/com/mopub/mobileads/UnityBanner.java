@@ -15,10 +15,13 @@ import java.util.Map;
 
 public class UnityBanner extends CustomEventBanner implements IUnityBannerListener, IUnityAdsExtendedListener {
 
+	private static final String ADAPTER_NAME = UnityBanner.class.getSimpleName();
+
 	private Context context;
 	private String placementId = "banner";
 	private CustomEventBannerListener customEventBannerListener;
 	private View bannerView;
+	private MediationMetrics.Tracker metricsTracker;
 
 	@Override
 	protected void loadBanner(Context context, CustomEventBannerListener customEventBannerListener, Map<String, Object> localExtras, Map<String, String> serverExtras) {
@@ -32,7 +35,7 @@ public class UnityBanner extends CustomEventBanner implements IUnityBannerListen
 		placementId = UnityRouter.placementIdForServerExtras(serverExtras, placementId);
 		this.customEventBannerListener = customEventBannerListener;
 		this.context = context;
-		UnityRouter.getBannerRouter().setCurrentPlacementId(placementId);
+		metricsTracker = MediationMetrics.getInstance().newTracker(ADAPTER_NAME, placementId);
 
 		if (UnityRouter.initUnityAds(serverExtras, (Activity)context)) {
 			UnityRouter.getBannerRouter().addListener(placementId, this);
@@ -40,10 +43,11 @@ public class UnityBanner extends CustomEventBanner implements IUnityBannerListen
 			UnityRouter.getInterstitialRouter().addListener(placementId, this);
 
 			if (UnityAds.isReady(placementId)) {
-				UnityBanners.loadBanner((Activity)context, placementId);
+				UnityRouter.getBannerRouter().loadBanner((Activity)context, placementId);
 			}
 		} else {
 			MoPubLog.e("Failed to initialize Unity Ads");
+			metricsTracker.onLoadFailed(MoPubErrorCode.ADAPTER_CONFIGURATION_ERROR);
 			if (customEventBannerListener != null) {
 				customEventBannerListener.onBannerFailed(MoPubErrorCode.ADAPTER_CONFIGURATION_ERROR);
 			}
@@ -69,6 +73,9 @@ public class UnityBanner extends CustomEventBanner implements IUnityBannerListen
 	public void onUnityBannerLoaded(String placementId, View view) {
 		MoPubLog.i(String.format("Banner did load for placement %s", placementId));
 		if (customEventBannerListener != null) {
+			metricsTracker.onLoadSucceeded();
+			// Banners are shown as soon as they are handed to MoPub.
+			metricsTracker.onShowRequested();
 			customEventBannerListener.onBannerLoaded(view);
 			this.bannerView = view;
 		}
@@ -83,6 +90,7 @@ public class UnityBanner extends CustomEventBanner implements IUnityBannerListen
 	public void onUnityBannerShow(String placementId) {
 		if (customEventBannerListener != null) {
 			MoPubLog.i(String.format("Banner did show for placement %s", placementId));
+			metricsTracker.onImpression();
 			customEventBannerListener.onBannerImpression();
 		}
 	}
@@ -104,6 +112,7 @@ public class UnityBanner extends CustomEventBanner implements IUnityBannerListen
 	public void onUnityBannerError(String message) {
 		if (customEventBannerListener != null) {
 			MoPubLog.i(String.format("Banner did error for placement %s with error %s", placementId, message));
+			metricsTracker.onLoadFailed(MoPubErrorCode.INTERNAL_ERROR);
 			customEventBannerListener.onBannerFailed(MoPubErrorCode.INTERNAL_ERROR);
 		}
 	}
@@ -121,7 +130,7 @@ public class UnityBanner extends CustomEventBanner implements IUnityBannerListen
 	@Override
 	public void onUnityAdsReady(String placementId) {
 		if (bannerView == null) {
-			UnityBanners.loadBanner((Activity)context, placementId);
+			UnityRouter.getBannerRouter().loadBanner((Activity)context, placementId);
 		}
 	}
 
@@ -1,28 +1,52 @@
 package com.mopub.mobileads;
 
+import android.app.Activity;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.View;
 
+import com.mopub.common.logging.MoPubLog;
 import com.unity3d.services.banners.IUnityBannerListener;
+import com.unity3d.services.banners.UnityBanners;
 
+import java.lang.ref.WeakReference;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.Map;
+import java.util.Queue;
 
 public class UnityBannerCallbackRouter implements IUnityBannerListener {
 
 	private final Map<String, IUnityBannerListener> listeners = new HashMap<>();
-	private String currentPlacementId;
+
+	/*
+	 * Unity Ads only loads one banner at a time and reports errors without a placement ID, so
+	 * banner loads go through this router: the in-flight request is tracked to attribute
+	 * errors to the right placement, and concurrent requests are queued until it completes.
+	 */
+	private final Queue<BannerRequest> pendingRequests = new LinkedList<>();
+	private BannerRequest inFlightRequest;
+
+	/*
+	 * Unity may never call back for a request, so the queue moves on once the in-flight request
+	 * has waited this long.
+	 */
+	private static final long REQUEST_TIMEOUT_MILLIS = 30 * 1000;
+	private final Handler handler = new Handler(Looper.getMainLooper());
 
 	@Override
 	public void onUnityBannerLoaded(String placementId, View view) {
-		IUnityBannerListener listener = listeners.get(placementId);
+		IUnityBannerListener listener = getListener(placementId);
 		if (listener != null) {
 			listener.onUnityBannerLoaded(placementId, view);
 		}
+		completeRequest(placementId);
 	}
 
 	@Override
 	public void onUnityBannerUnloaded(String placementId) {
-		IUnityBannerListener listener = listeners.get(placementId);
+		IUnityBannerListener listener = getListener(placementId);
 		if (listener != null) {
 			listener.onUnityBannerUnloaded(placementId);
 		}
@@ -30,7 +54,7 @@ public class UnityBannerCallbackRouter implements IUnityBannerListener {
 
 	@Override
 	public void onUnityBannerShow(String placementId) {
-		IUnityBannerListener listener = listeners.get(placementId);
+		IUnityBannerListener listener = getListener(placementId);
 		if (listener != null) {
 			listener.onUnityBannerShow(placementId);
 		}
@@ -38,7 +62,7 @@ public class UnityBannerCallbackRouter implements IUnityBannerListener {
 
 	@Override
 	public void onUnityBannerClick(String placementId) {
-		IUnityBannerListener listener = listeners.get(placementId);
+		IUnityBannerListener listener = getListener(placementId);
 		if (listener != null) {
 			listener.onUnityBannerClick(placementId);
 		}
@@ -47,7 +71,7 @@ public class UnityBannerCallbackRouter implements IUnityBannerListener {
 
 	@Override
 	public void onUnityBannerHide(String placementId) {
-		IUnityBannerListener listener = listeners.get(placementId);
+		IUnityBannerListener listener = getListener(placementId);
 		if (listener != null) {
 			listener.onUnityBannerHide(placementId);
 		}
@@ -56,19 +80,139 @@ public class UnityBannerCallbackRouter implements IUnityBannerListener {
 
 	@Override
 	public void onUnityBannerError(String message) {
-		IUnityBannerListener listener = listeners.get(currentPlacementId);
+		final String placementId;
+		synchronized (this) {
+			placementId = inFlightRequest != null ? inFlightRequest.placementId : null;
+		}
+
+		if (placementId == null) {
+			MoPubLog.d(String.format("Banner error with no request in flight: %s", message));
+			return;
+		}
+
+		IUnityBannerListener listener = getListener(placementId);
 		if (listener != null) {
 			listener.onUnityBannerError(message);
 		}
+		completeRequest(placementId);
+	}
+
+	/**
+	 * Loads a banner for the given placement, or queues the request if another placement's
+	 * banner is still loading. Requests for a placement that is already loading or queued are
+	 * coalesced.
+	 */
+	public void loadBanner(Activity activity, String placementId) {
+		final BannerRequest request;
+		synchronized (this) {
+			if (inFlightRequest != null) {
+				if (!inFlightRequest.placementId.equals(placementId) && !isQueued(placementId)) {
+					pendingRequests.add(new BannerRequest(activity, placementId));
+				}
+				return;
+			}
+			request = new BannerRequest(activity, placementId);
+			inFlightRequest = request;
+		}
+
+		startRequest(activity, request);
 	}
 
-	public void addListener(String placementId, IUnityBannerListener listener) {
+	public synchronized void addListener(String placementId, IUnityBannerListener listener) {
 		listeners.put(placementId, listener);
 	}
+
 	public void removeListener(String placementId) {
-		listeners.remove(placementId);
+		final boolean inFlight;
+		synchronized (this) {
+			listeners.remove(placementId);
+
+			Iterator<BannerRequest> iterator = pendingRequests.iterator();
+			while (iterator.hasNext()) {
+				if (iterator.next().placementId.equals(placementId)) {
+					iterator.remove();
+				}
+			}
+			inFlight = inFlightRequest != null && inFlightRequest.placementId.equals(placementId);
+		}
+
+		if (inFlight) {
+			// Nobody is waiting on this banner anymore, so don't hold up the queue for it.
+			completeRequest(placementId);
+		}
+	}
+
+	private synchronized IUnityBannerListener getListener(String placementId) {
+		return listeners.get(placementId);
 	}
-	public void setCurrentPlacementId(String placementId) {
-		currentPlacementId = placementId;
+
+	private boolean isQueued(String placementId) {
+		for (BannerRequest request : pendingRequests) {
+			if (request.placementId.equals(placementId)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void completeRequest(String placementId) {
+		while (true) {
+			final BannerRequest nextRequest;
+			final Activity activity;
+			synchronized (this) {
+				if (inFlightRequest == null || !inFlightRequest.placementId.equals(placementId)) {
+					return;
+				}
+
+				handler.removeCallbacks(inFlightRequest.timeout);
+				nextRequest = pendingRequests.poll();
+				inFlightRequest = nextRequest;
+				if (nextRequest == null) {
+					return;
+				}
+
+				activity = nextRequest.activityReference.get();
+				if (activity == null) {
+					// The requesting Activity is gone; drop the request and try the next one.
+					placementId = nextRequest.placementId;
+					continue;
+				}
+			}
+
+			startRequest(activity, nextRequest);
+			return;
+		}
+	}
+
+	private void startRequest(Activity activity, final BannerRequest request) {
+		handler.postDelayed(request.timeout, REQUEST_TIMEOUT_MILLIS);
+		UnityBanners.loadBanner(activity, request.placementId);
+	}
+
+	private void onRequestTimedOut(BannerRequest request) {
+		synchronized (this) {
+			if (inFlightRequest != request) {
+				return;
+			}
+		}
+
+		MoPubLog.d(String.format("Banner request for placement %s timed out", request.placementId));
+		completeRequest(request.placementId);
+	}
+
+	private final class BannerRequest {
+		final WeakReference<Activity> activityReference;
+		final String placementId;
+		final Runnable timeout = new Runnable() {
+			@Override
+			public void run() {
+				onRequestTimedOut(BannerRequest.this);
+			}
+		};
+
+		BannerRequest(Activity activity, String placementId) {
+			this.activityReference = new WeakReference<>(activity);
+			this.placementId = placementId;
+		}
 	}
 }
@@ -10,11 +10,13 @@ import com.unity3d.ads.UnityAds;
 import java.util.Map;
 
 public class UnityInterstitial extends CustomEventInterstitial implements IUnityAdsExtendedListener {
+    private static final String ADAPTER_NAME = UnityInterstitial.class.getSimpleName();
 
     private CustomEventInterstitialListener mCustomEventInterstitialListener;
     private Context mContext;
     private String mPlacementId = "video";
     private boolean loadRequested = false;
+    private MediationMetrics.Tracker mMetricsTracker;
 
     @Override
     protected void loadInterstitial(Context context,
@@ -26,15 +28,17 @@ public class UnityInterstitial extends CustomEventInterstitial implements IUnity
         mCustomEventInterstitialListener = customEventInterstitialListener;
         mContext = context;
         loadRequested = true;
-
+        mMetricsTracker = MediationMetrics.getInstance().newTracker(ADAPTER_NAME, mPlacementId);
 
         UnityRouter.getInterstitialRouter().addListener(mPlacementId, this);
         UnityRouter.getInterstitialRouter().setCurrentPlacementId(mPlacementId);
         initializeUnityAdsSdk(serverExtras);
         if (UnityAds.isReady(mPlacementId)) {
+            mMetricsTracker.onLoadSucceeded();
             mCustomEventInterstitialListener.onInterstitialLoaded();
             loadRequested = false;
         } else if (UnityAds.getPlacementState(mPlacementId) == UnityAds.PlacementState.NO_FILL){
+            mMetricsTracker.onLoadFailed(MoPubErrorCode.NO_FILL);
             mCustomEventInterstitialListener.onInterstitialFailed(MoPubErrorCode.NO_FILL);
             UnityRouter.getInterstitialRouter().removeListener(mPlacementId);
         }
@@ -53,6 +57,7 @@ public class UnityInterstitial extends CustomEventInterstitial implements IUnity
     @Override
     protected void showInterstitial() {
         if (UnityAds.isReady(mPlacementId) && mContext != null) {
+            mMetricsTracker.onShowRequested();
             UnityAds.show((Activity) mContext, mPlacementId);
         } else {
             MoPubLog.d("Attempted to show Unity interstitial video before it was available.");
@@ -68,6 +73,7 @@ public class UnityInterstitial extends CustomEventInterstitial implements IUnity
     @Override
     public void onUnityAdsReady(String placementId) {
         if (loadRequested && mCustomEventInterstitialListener != null) {
+            mMetricsTracker.onLoadSucceeded();
             mCustomEventInterstitialListener.onInterstitialLoaded();
             loadRequested = false;
         }
@@ -76,6 +82,7 @@ public class UnityInterstitial extends CustomEventInterstitial implements IUnity
     @Override
     public void onUnityAdsStart(String placementId) {
         if (mCustomEventInterstitialListener != null) {
+            mMetricsTracker.onImpression();
             mCustomEventInterstitialListener.onInterstitialShown();
         }
     }
@@ -106,6 +113,7 @@ public class UnityInterstitial extends CustomEventInterstitial implements IUnity
     public void onUnityAdsPlacementStateChanged(String placementId, UnityAds.PlacementState oldState, UnityAds.PlacementState newState) {
         if (placementId.equals(mPlacementId) && mCustomEventInterstitialListener != null) {
             if(newState == UnityAds.PlacementState.NO_FILL) {
+                mMetricsTracker.onLoadFailed(MoPubErrorCode.NO_FILL);
                 mCustomEventInterstitialListener.onInterstitialFailed(MoPubErrorCode.NO_FILL);
                 UnityRouter.getInterstitialRouter().removeListener(mPlacementId);
             }
@@ -117,6 +125,7 @@ public class UnityInterstitial extends CustomEventInterstitial implements IUnity
         if (mCustomEventInterstitialListener != null) {
             MoPubLog.d("Unity interstitial video cache failed for placement " + mPlacementId + ".");
             MoPubErrorCode errorCode = UnityRouter.UnityAdsUtils.getMoPubErrorCode(unityAdsError);
+            mMetricsTracker.onLoadFailed(errorCode);
             mCustomEventInterstitialListener.onInterstitialFailed(errorCode);
         }
     }
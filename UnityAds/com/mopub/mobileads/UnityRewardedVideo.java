@@ -15,10 +15,14 @@ import com.unity3d.ads.UnityAds;
 import java.util.Map;
 
 public class UnityRewardedVideo extends CustomEventRewardedVideo {
+    private static final String ADAPTER_NAME = UnityRewardedVideo.class.getSimpleName();
     private static final LifecycleListener sLifecycleListener = new UnityLifecycleListener();
     private static final UnityAdsListener sUnityAdsListener = new UnityAdsListener();
     @NonNull
     private static String sPlacementId = "";
+    // Only one Unity rewarded video loads at a time, like the placement above.
+    @Nullable
+    private static MediationMetrics.Tracker sMetricsTracker;
 
     @Nullable
     private Activity mLauncherActivity;
@@ -68,10 +72,13 @@ public class UnityRewardedVideo extends CustomEventRewardedVideo {
 
         sPlacementId = UnityRouter.placementIdForServerExtras(serverExtras, sPlacementId);
         mLauncherActivity = activity;
+        sMetricsTracker = MediationMetrics.getInstance().newTracker(ADAPTER_NAME, sPlacementId);
 
         if (hasVideoAvailable()) {
+            sMetricsTracker.onLoadSucceeded();
             MoPubRewardedVideoManager.onRewardedVideoLoadSuccess(UnityRewardedVideo.class, sPlacementId);
         } else if (UnityAds.getPlacementState(sPlacementId) == UnityAds.PlacementState.NO_FILL){
+            sMetricsTracker.onLoadFailed(MoPubErrorCode.NO_FILL);
             MoPubRewardedVideoManager.onRewardedVideoLoadFailure(UnityRewardedVideo.class, sPlacementId, MoPubErrorCode.NO_FILL);
             UnityRouter.getInterstitialRouter().removeListener(sPlacementId);
         }
@@ -85,6 +92,9 @@ public class UnityRewardedVideo extends CustomEventRewardedVideo {
     @Override
     public void showVideo() {
         if (hasVideoAvailable()) {
+            if (sMetricsTracker != null) {
+                sMetricsTracker.onShowRequested();
+            }
             UnityAds.show(mLauncherActivity, sPlacementId);
         } else {
             MoPubLog.d("Attempted to show Unity rewarded video before it was available.");
@@ -114,12 +124,18 @@ public class UnityRewardedVideo extends CustomEventRewardedVideo {
         public void onUnityAdsReady(String placementId) {
             if (placementId.equals(sPlacementId)) {
                 MoPubLog.d("Unity rewarded video cached for placement " + placementId + ".");
+                if (sMetricsTracker != null) {
+                    sMetricsTracker.onLoadSucceeded();
+                }
                 MoPubRewardedVideoManager.onRewardedVideoLoadSuccess(UnityRewardedVideo.class, placementId);
             }
         }
 
         @Override
         public void onUnityAdsStart(String placementId) {
+            if (sMetricsTracker != null) {
+                sMetricsTracker.onImpression();
+            }
             MoPubRewardedVideoManager.onRewardedVideoStarted(UnityRewardedVideo.class, placementId);
             MoPubLog.d("Unity rewarded video started for placement " + placementId + ".");
         }
@@ -156,6 +172,9 @@ public class UnityRewardedVideo extends CustomEventRewardedVideo {
         public void onUnityAdsPlacementStateChanged(String placementId, UnityAds.PlacementState oldState, UnityAds.PlacementState newState) {
             if (placementId.equals(sPlacementId)) {
                 if(newState == UnityAds.PlacementState.NO_FILL) {
+                    if (sMetricsTracker != null) {
+                        sMetricsTracker.onLoadFailed(MoPubErrorCode.NO_FILL);
+                    }
                     MoPubRewardedVideoManager.onRewardedVideoLoadFailure(UnityRewardedVideo.class, sPlacementId, MoPubErrorCode.NO_FILL);
                     UnityRouter.getInterstitialRouter().removeListener(sPlacementId);
                 }
@@ -166,6 +185,9 @@ public class UnityRewardedVideo extends CustomEventRewardedVideo {
         public void onUnityAdsError(UnityAds.UnityAdsError unityAdsError, String message) {
             MoPubLog.d("Unity rewarded video cache failed for placement " + sPlacementId + ".");
             MoPubErrorCode errorCode = UnityRouter.UnityAdsUtils.getMoPubErrorCode(unityAdsError);
+            if (sMetricsTracker != null) {
+                sMetricsTracker.onLoadFailed(errorCode);
+            }
             MoPubRewardedVideoManager.onRewardedVideoLoadFailure(UnityRewardedVideo.class, sPlacementId, errorCode);
         }
     }
@@ -2,6 +2,7 @@ package com.mopub.mobileads;
 
 import android.app.Activity;
 import android.content.Context;
+import android.support.annotation.NonNull;
 import android.text.TextUtils;
 
 import com.mopub.common.MoPub;
@@ -30,6 +31,8 @@ public class UnityRouter {
             MoPubLog.e("gameId is missing or entered incorrectly in the MoPub UI");
             return false;
         }
+        MediationWarmUp.getInstance().cacheServerExtras(launcherActivity, WarmUpInitializer.class,
+                serverExtras);
         initMediationMetadata(launcherActivity);
         UnityBanners.setBannerListener(bannerRouter);
 
@@ -74,6 +77,20 @@ public class UnityRouter {
         return bannerRouter;
     }
 
+    /**
+     * Warms up the Unity Ads SDK at app start. See {@link MediationWarmUp}.
+     */
+    public static class WarmUpInitializer implements MediationWarmUp.Initializer {
+        @Override
+        public void initialize(@NonNull Activity activity,
+                               @NonNull Map<String, String> serverExtras,
+                               @NonNull MediationWarmUp.InitializationListener listener) {
+            // UnityAds.initialize() ignores repeated calls, so the adapters' load paths can
+            // safely call it again while the warm-up is in progress.
+            listener.onInitializationFinished(initUnityAds(serverExtras, activity));
+        }
+    }
+
     static final class UnityAdsUtils {
         static MoPubErrorCode getMoPubErrorCode(UnityAds.UnityAdsError unityAdsError) {
             MoPubErrorCode errorCode;
@@ -1,8 +1,6 @@
 package com.mopub.mobileads;
 
 import android.content.Context;
-import android.os.Handler;
-import android.os.Looper;
 import android.support.annotation.NonNull;
 
 import com.mopub.common.logging.MoPubLog;
@@ -16,6 +14,7 @@ import java.util.Map;
 public class VungleInterstitial extends CustomEventInterstitial {
 
     private static final String INTERSTITIAL_TAG = "Vungle Interstitial: ";
+    private static final String ADAPTER_NAME = VungleInterstitial.class.getSimpleName();
 
     /*
      * APP_ID_KEY is intended for MoPub internal use. Do not modify.
@@ -33,17 +32,20 @@ public class VungleInterstitial extends CustomEventInterstitial {
     public static final String ORDINAL_VIEW_COUNT_KEY = "vungleOrdinalViewCount";
 
     private static VungleRouter sVungleRouter;
-    private final Handler mHandler;
+    private final MainThreadDispatcher mDispatcher;
     private CustomEventInterstitialListener mCustomEventInterstitialListener;
     private VungleInterstitialRouterListener mVungleRouterListener;
     private String mAppId;
     private String mPlacementId;
     private AdConfig mAdConfig;
     private boolean mIsPlaying;
-
+    // Set while this instance waits on its load, since every instance loading the placement is
+    // told about its availability.
+    private boolean mIsLoading;
+    private MediationMetrics.Tracker mMetricsTracker;
 
     public VungleInterstitial() {
-        mHandler = new Handler(Looper.getMainLooper());
+        mDispatcher = MainThreadDispatcher.getInstance();
         sVungleRouter = VungleRouter.getInstance();
     }
 
@@ -56,7 +58,7 @@ public class VungleInterstitial extends CustomEventInterstitial {
         mIsPlaying = false;
 
         if (context == null) {
-            mHandler.post(new Runnable() {
+            mDispatcher.post(new Runnable() {
                 @Override
                 public void run() {
                     mCustomEventInterstitialListener.onInterstitialFailed(MoPubErrorCode.NETWORK_INVALID_STATE);
@@ -67,7 +69,7 @@ public class VungleInterstitial extends CustomEventInterstitial {
         }
 
         if (!validateIdsInServerExtras(serverExtras)) {
-            mHandler.post(new Runnable() {
+            mDispatcher.post(new Runnable() {
                 @Override
                 public void run() {
                     mCustomEventInterstitialListener.onInterstitialFailed(MoPubErrorCode.ADAPTER_CONFIGURATION_ERROR);
@@ -99,14 +101,19 @@ public class VungleInterstitial extends CustomEventInterstitial {
                 mAdConfig.setOrdinal((Integer) ordinalViewCount);
         }
 
+        mMetricsTracker = MediationMetrics.getInstance().newTracker(ADAPTER_NAME, mPlacementId);
+        mIsLoading = true;
         sVungleRouter.loadAdForPlacement(mPlacementId, mVungleRouterListener);
     }
 
     @Override
     protected void showInterstitial() {
         if (sVungleRouter.isAdPlayableForPlacement(mPlacementId)) {
-            sVungleRouter.playAdForPlacement(mPlacementId, mAdConfig);
+            // Mark as playing before handing off to the router so that play callbacks fanned out
+            // for this placement are only consumed by the instance that actually played the ad.
             mIsPlaying = true;
+            mMetricsTracker.onShowRequested();
+            sVungleRouter.playAdForPlacement(mPlacementId, mAdConfig);
         } else {
             MoPubLog.d(INTERSTITIAL_TAG + "SDK tried to show a Vungle interstitial ad before it finished loading. Please try again.");
             mCustomEventInterstitialListener.onInterstitialFailed(MoPubErrorCode.NETWORK_NO_FILL);
@@ -116,7 +123,8 @@ public class VungleInterstitial extends CustomEventInterstitial {
     @Override
     protected void onInvalidate() {
         MoPubLog.d(INTERSTITIAL_TAG + "onInvalidate is called for Placement ID:" + mPlacementId);
-        sVungleRouter.removeRouterListener(mPlacementId);
+        mIsLoading = false;
+        sVungleRouter.removeRouterListener(mPlacementId, mVungleRouterListener);
         mVungleRouterListener = null;
         mAdConfig = null;
     }
@@ -163,11 +171,11 @@ public class VungleInterstitial extends CustomEventInterstitial {
     private class VungleInterstitialRouterListener implements VungleRouterListener {
         @Override
         public void onAdEnd(@NonNull String placementReferenceId, final boolean wasSuccessfulView, final boolean wasCallToActionClicked) {
-            if (mPlacementId.equals(placementReferenceId)) {
+            if (mIsPlaying && mPlacementId.equals(placementReferenceId)) {
                 MoPubLog.d(INTERSTITIAL_TAG + "onAdEnd - Placement ID: " + placementReferenceId + ", wasSuccessfulView: " + wasSuccessfulView + ", wasCallToActionClicked: " + wasCallToActionClicked);
                 mIsPlaying = false;
 
-                mHandler.post(new Runnable() {
+                mDispatcher.post(new Runnable() {
                     @Override
                     public void run() {
                         if (wasCallToActionClicked) {
@@ -177,17 +185,18 @@ public class VungleInterstitial extends CustomEventInterstitial {
                     }
                 });
 
-                sVungleRouter.removeRouterListener(mPlacementId);
+                sVungleRouter.removeRouterListener(mPlacementId, this);
             }
         }
 
         @Override
         public void onAdStart(@NonNull String placementReferenceId) {
-            if (mPlacementId.equals(placementReferenceId)) {
+            if (mIsPlaying && mPlacementId.equals(placementReferenceId)) {
                 MoPubLog.d(INTERSTITIAL_TAG + "onAdStart - Placement ID: " + placementReferenceId);
+                mMetricsTracker.onImpression();
                 mIsPlaying = true;
 
-                mHandler.post(new Runnable() {
+                mDispatcher.post(new Runnable() {
                     @Override
                     public void run() {
                         mCustomEventInterstitialListener.onInterstitialShown();
@@ -198,11 +207,11 @@ public class VungleInterstitial extends CustomEventInterstitial {
 
         @Override
         public void onUnableToPlayAd(@NonNull String placementReferenceId, String reason) {
-            if (mPlacementId.equals(placementReferenceId)) {
+            if (mIsPlaying && mPlacementId.equals(placementReferenceId)) {
                 MoPubLog.d(INTERSTITIAL_TAG + "onUnableToPlayAd - Placement ID: " + placementReferenceId + ", reason: " + reason);
                 mIsPlaying = false;
 
-                mHandler.post(new Runnable() {
+                mDispatcher.post(new Runnable() {
                     @Override
                     public void run() {
                         mCustomEventInterstitialListener.onInterstitialFailed(MoPubErrorCode.NETWORK_NO_FILL);
@@ -214,11 +223,13 @@ public class VungleInterstitial extends CustomEventInterstitial {
         @Override
         public void onAdAvailabilityUpdate(@NonNull String placementReferenceId, boolean isAdAvailable) {
             if (mPlacementId.equals(placementReferenceId)) {
-                if (!mIsPlaying) {
+                if (mIsLoading) {
+                    mIsLoading = false;
                     if (isAdAvailable) {
                         MoPubLog.d(INTERSTITIAL_TAG + "interstitial ad successfully loaded - Placement ID: " + placementReferenceId);
+                        mMetricsTracker.onLoadSucceeded();
 
-                        mHandler.post(new Runnable() {
+                        mDispatcher.post(new Runnable() {
                             @Override
                             public void run() {
                                 mCustomEventInterstitialListener.onInterstitialLoaded();
@@ -226,8 +237,9 @@ public class VungleInterstitial extends CustomEventInterstitial {
                         });
                     } else {
                         MoPubLog.d(INTERSTITIAL_TAG + "interstitial ad is not loaded - Placement ID: " + placementReferenceId);
+                        mMetricsTracker.onLoadFailed(MoPubErrorCode.NETWORK_NO_FILL);
 
-                        mHandler.post(new Runnable() {
+                        mDispatcher.post(new Runnable() {
                             @Override
                             public void run() {
                                 mCustomEventInterstitialListener.onInterstitialFailed(MoPubErrorCode.NETWORK_NO_FILL);
@@ -237,5 +249,21 @@ public class VungleInterstitial extends CustomEventInterstitial {
                 }
             }
         }
+
+        @Override
+        public void onLoadFailed(@NonNull String placementReferenceId, @NonNull final MoPubErrorCode errorCode) {
+            if (mIsLoading && mPlacementId.equals(placementReferenceId)) {
+                mIsLoading = false;
+                MoPubLog.d(INTERSTITIAL_TAG + "interstitial ad failed to load - Placement ID: " + placementReferenceId + ", error: " + errorCode);
+                mMetricsTracker.onLoadFailed(errorCode);
+
+                mDispatcher.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        mCustomEventInterstitialListener.onInterstitialFailed(errorCode);
+                    }
+                });
+            }
+        }
     }
 }
@@ -21,6 +21,7 @@ import java.util.Map;
 public class VungleRewardedVideo extends CustomEventRewardedVideo {
 
     private static final String REWARDED_TAG = "Vungle Rewarded: ";
+    private static final String ADAPTER_NAME = VungleRewardedVideo.class.getSimpleName();
 
     /*
      * These constants are intended for MoPub internal use. Do not modify.
@@ -38,6 +39,9 @@ public class VungleRewardedVideo extends CustomEventRewardedVideo {
     @NonNull
     private String mPlacementId = VUNGLE_NETWORK_ID_DEFAULT;
     private boolean mIsPlaying;
+    // Only the instance waiting on a load takes the placement's availability updates.
+    private boolean mIsLoading;
+    private MediationMetrics.Tracker mMetricsTracker;
 
     private String mAdUnitId;
     private String mCustomerId;
@@ -107,16 +111,22 @@ public class VungleRewardedVideo extends CustomEventRewardedVideo {
             mCustomerId = (String) customerIdObject;
         }
 
+        mMetricsTracker = MediationMetrics.getInstance().newTracker(ADAPTER_NAME, mPlacementId);
         if (sVungleRouter.isVungleInitialized()) {
             if (sVungleRouter.isValidPlacement(mPlacementId)) {
+                mIsLoading = true;
                 sVungleRouter.loadAdForPlacement(mPlacementId, mVungleRewardedRouterListener);
             } else {
                 MoPubLog.d(REWARDED_TAG + "Invalid or Inactive Placement ID: " + mPlacementId);
+                mMetricsTracker.onLoadFailed(MoPubErrorCode.ADAPTER_CONFIGURATION_ERROR);
                 MoPubRewardedVideoManager.onRewardedVideoLoadFailure(VungleRewardedVideo.class, mPlacementId, MoPubErrorCode.ADAPTER_CONFIGURATION_ERROR);
             }
         } else {
-            MoPubLog.d(REWARDED_TAG + "There should not be this case. loadWithSdkInitialized is called before the SDK starts initialization for Placement ID: " + mPlacementId);
-            MoPubRewardedVideoManager.onRewardedVideoLoadFailure(VungleRewardedVideo.class, mPlacementId, MoPubErrorCode.ADAPTER_CONFIGURATION_ERROR);
+            // The previous initialization gave up retrying. Start over; the load waits for it.
+            MoPubLog.d(REWARDED_TAG + "Vungle SDK is not initialized. Restarting initialization for Placement ID: " + mPlacementId);
+            sVungleRouter.initVungle(activity, mAppId);
+            mIsLoading = true;
+            sVungleRouter.loadAdForPlacement(mPlacementId, mVungleRewardedRouterListener);
         }
     }
 
@@ -130,15 +140,21 @@ public class VungleRewardedVideo extends CustomEventRewardedVideo {
         final AdConfig adConfig = new AdConfig();
         setUpMediationSettingsForRequest(adConfig);
 
-        sVungleRouter.playAdForPlacement(mPlacementId, adConfig);
+        // Mark as playing before handing off to the router so that play callbacks fanned out
+        // for this placement are only consumed by the instance that actually played the ad.
         mIsPlaying = true;
+        if (mMetricsTracker != null) {
+            mMetricsTracker.onShowRequested();
+        }
+        sVungleRouter.playAdForPlacement(mPlacementId, adConfig);
     }
 
     @Override
     protected void onInvalidate() {
         MoPubLog.d(REWARDED_TAG + "onInvalidate is called for Placement ID:" + mPlacementId);
+        mIsLoading = false;
 
-        sVungleRouter.removeRouterListener(mPlacementId);
+        sVungleRouter.removeRouterListener(mPlacementId, mVungleRewardedRouterListener);
         mVungleRewardedRouterListener = null;
     }
 
@@ -208,7 +224,7 @@ public class VungleRewardedVideo extends CustomEventRewardedVideo {
     private class VungleRewardedRouterListener implements VungleRouterListener {
         @Override
         public void onAdEnd(@NonNull String placementReferenceId, final boolean wasSuccessfulView, final boolean wasCallToActionClicked) {
-            if (mPlacementId.equals(placementReferenceId)) {
+            if (mIsPlaying && mPlacementId.equals(placementReferenceId)) {
                 MoPubLog.d(REWARDED_TAG + "onAdEnd - Placement ID: " + placementReferenceId + ", wasSuccessfulView: " + wasSuccessfulView + ", wasCallToActionClicked: " + wasCallToActionClicked);
 
                 mIsPlaying = false;
@@ -231,16 +247,17 @@ public class VungleRewardedVideo extends CustomEventRewardedVideo {
                 MoPubRewardedVideoManager.onRewardedVideoClosed(VungleRewardedVideo.class,
                         mPlacementId);
 
-                sVungleRouter.removeRouterListener(mPlacementId);
+                sVungleRouter.removeRouterListener(mPlacementId, this);
             }
         }
 
         @Override
         public void onAdStart(@NonNull String placementReferenceId) {
-            if (mPlacementId.equals(placementReferenceId)) {
+            if (mIsPlaying && mPlacementId.equals(placementReferenceId)) {
                 MoPubLog.d(REWARDED_TAG + "onAdStart - Placement ID: " + placementReferenceId);
 
                 mIsPlaying = true;
+                mMetricsTracker.onImpression();
 
                 MoPubRewardedVideoManager.onRewardedVideoStarted(VungleRewardedVideo.class,
                         mPlacementId);
@@ -249,7 +266,7 @@ public class VungleRewardedVideo extends CustomEventRewardedVideo {
 
         @Override
         public void onUnableToPlayAd(@NonNull String placementReferenceId, String reason) {
-            if (mPlacementId.equals(placementReferenceId)) {
+            if (mIsPlaying && mPlacementId.equals(placementReferenceId)) {
                 MoPubLog.d(REWARDED_TAG + "onUnableToPlayAd - Placement ID: " + placementReferenceId + ", reason: " + reason);
 
                 mIsPlaying = false;
@@ -261,19 +278,33 @@ public class VungleRewardedVideo extends CustomEventRewardedVideo {
         @Override
         public void onAdAvailabilityUpdate(@NonNull String placementReferenceId, boolean isAdAvailable) {
             if (mPlacementId.equals(placementReferenceId)) {
-                if (!mIsPlaying) {
+                if (mIsLoading) {
+                    mIsLoading = false;
                     if (isAdAvailable) {
                         MoPubLog.d(REWARDED_TAG + "rewarded video ad successfully loaded - Placement ID: " + placementReferenceId);
+                        mMetricsTracker.onLoadSucceeded();
                         MoPubRewardedVideoManager.onRewardedVideoLoadSuccess(VungleRewardedVideo.class,
                                 mPlacementId);
                     } else {
                         MoPubLog.d(REWARDED_TAG + "rewarded video ad is not loaded - Placement ID: " + placementReferenceId);
+                        mMetricsTracker.onLoadFailed(MoPubErrorCode.NETWORK_NO_FILL);
                         MoPubRewardedVideoManager.onRewardedVideoLoadFailure(VungleRewardedVideo.class,
                                 mPlacementId, MoPubErrorCode.NETWORK_NO_FILL);
                     }
                 }
             }
         }
+
+        @Override
+        public void onLoadFailed(@NonNull String placementReferenceId, @NonNull MoPubErrorCode errorCode) {
+            if (mIsLoading && mPlacementId.equals(placementReferenceId)) {
+                mIsLoading = false;
+                MoPubLog.d(REWARDED_TAG + "rewarded video ad failed to load - Placement ID: " + placementReferenceId + ", error: " + errorCode);
+                mMetricsTracker.onLoadFailed(errorCode);
+                MoPubRewardedVideoManager.onRewardedVideoLoadFailure(VungleRewardedVideo.class,
+                        mPlacementId, errorCode);
+            }
+        }
     }
 
 
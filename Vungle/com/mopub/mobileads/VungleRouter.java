@@ -2,7 +2,11 @@ package com.mopub.mobileads;
 
 import android.app.Activity;
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.support.annotation.NonNull;
+import android.text.TextUtils;
 
 import com.mopub.common.BaseLifecycleListener;
 import com.mopub.common.LifecycleListener;
@@ -16,8 +20,16 @@ import com.vungle.warren.PlayAdCallback;
 import com.vungle.warren.Vungle;
 import com.vungle.warren.network.VungleApiClient;
 
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
@@ -30,6 +42,13 @@ public class VungleRouter {
     // Version of the adapter, intended for Vungle internal use.
     private static final String VERSION = "6.3.24";
 
+    // A failed init is retried with exponential backoff; loads keep waiting for it until the
+    // last attempt fails, at which point they fail with NETWORK_INVALID_STATE.
+    private static final int INIT_MAX_ATTEMPTS = 4;
+    private static final long INIT_RETRY_BASE_DELAY_MILLIS = 1000;
+    private static final long INIT_RETRY_MAX_DELAY_MILLIS = 30 * 1000;
+    private static final String INIT_METRICS_NAME = "VungleRouterInitAttempt";
+
     private static VungleRouter instance = new VungleRouter();
 
     private enum SDKInitState {
@@ -38,9 +57,24 @@ public class VungleRouter {
         INITIALIZED
     }
 
-    private static SDKInitState sInitState = SDKInitState.NOTINITIALIZED;
-    private static Map<String, VungleRouterListener> sVungleRouterListeners = new HashMap<>();
-    private static Map<String, VungleRouterListener> sWaitingList = new HashMap<>();
+    private static volatile SDKInitState sInitState = SDKInitState.NOTINITIALIZED;
+
+    private static final AtomicInteger sInitAttempts = new AtomicInteger();
+    private static final Handler sHandler = new Handler(Looper.getMainLooper());
+    private static final Random sRandom = new Random();
+
+    /*
+     * Placement ID -> listeners. The listener sets are copy-on-write so the SDK callbacks can
+     * fan out to every registered listener without taking a lock, while loads from several ad
+     * units against the same placement simply add themselves to the set.
+     */
+    private static final ConcurrentMap<String, Set<VungleRouterListener>> sVungleRouterListeners =
+            new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Set<VungleRouterListener>> sWaitingList =
+            new ConcurrentHashMap<>();
+
+    private static final List<MediationWarmUp.InitializationListener> sInitListeners =
+            new CopyOnWriteArrayList<>();
 
     private static final LifecycleListener sLifecycleListener = new BaseLifecycleListener() {
         @Override
@@ -68,11 +102,24 @@ public class VungleRouter {
     }
 
     public void initVungle(Context context, String vungleAppId) {
+        MediationWarmUp.getInstance().cacheServerExtras(context, WarmUpInitializer.class,
+                Collections.singletonMap(VungleInterstitial.APP_ID_KEY, vungleAppId));
+
+        sInitAttempts.set(0);
+        sInitState = SDKInitState.INITIALIZING;
+        attemptInit(context.getApplicationContext(), vungleAppId);
+    }
+
+    private void attemptInit(final Context applicationContext, final String vungleAppId) {
+        final int attempt = sInitAttempts.incrementAndGet();
+        final long startedAtMillis = SystemClock.elapsedRealtime();
 
-        Vungle.init(vungleAppId, context.getApplicationContext(), new InitCallback() {
+        Vungle.init(vungleAppId, applicationContext, new InitCallback() {
             @Override
             public void onSuccess() {
                 MoPubLog.d(ROUTER_TAG + "SDK is initialized successfully.");
+                MediationMetrics.getInstance().recordInitialization(INIT_METRICS_NAME,
+                        SystemClock.elapsedRealtime() - startedAtMillis, true);
 
                 sInitState = SDKInitState.INITIALIZED;
 
@@ -85,13 +132,36 @@ public class VungleRouter {
                 // https://support.vungle.com/hc/en-us/articles/360002922871#GDPRRecommendedImplementationInstructions
                 Vungle.updateConsentStatus(canCollectPersonalInfo ? Vungle.Consent.OPTED_IN :
                         Vungle.Consent.OPTED_OUT, "");
+
+                notifyInitListeners(true);
             }
 
             @Override
             public void onError(Throwable throwable) {
-                MoPubLog.w(ROUTER_TAG + "Initialization is failed.");
+                MediationMetrics.getInstance().recordInitialization(INIT_METRICS_NAME,
+                        SystemClock.elapsedRealtime() - startedAtMillis, false);
+
+                if (attempt < INIT_MAX_ATTEMPTS) {
+                    final long delayMillis = getInitRetryDelayMillis(attempt);
+                    MoPubLog.w(ROUTER_TAG + "Initialization attempt " + attempt
+                            + " failed. Retrying in " + delayMillis + " ms.");
+
+                    // The state stays INITIALIZING so that loads keep waiting for the retry.
+                    sHandler.postDelayed(new Runnable() {
+                        @Override
+                        public void run() {
+                            attemptInit(applicationContext, vungleAppId);
+                        }
+                    }, delayMillis);
+                    return;
+                }
+
+                MoPubLog.w(ROUTER_TAG + "Initialization is failed after " + attempt + " attempts.");
 
                 sInitState = SDKInitState.NOTINITIALIZED;
+
+                failWaitingList();
+                notifyInitListeners(false);
             }
 
             @Override
@@ -99,8 +169,26 @@ public class VungleRouter {
                 // not used
             }
         });
+    }
 
-        sInitState = SDKInitState.INITIALIZING;
+    /**
+     * Exponential backoff with equal jitter: half of the delay is fixed and half is random, so
+     * that retries from many devices don't line up after a server-side failure.
+     */
+    private static long getInitRetryDelayMillis(int attempt) {
+        final long delayMillis = Math.min(INIT_RETRY_MAX_DELAY_MILLIS,
+                INIT_RETRY_BASE_DELAY_MILLIS << (attempt - 1));
+        final long halfDelayMillis = delayMillis / 2;
+        synchronized (sRandom) {
+            return halfDelayMillis + (long) (sRandom.nextDouble() * halfDelayMillis);
+        }
+    }
+
+    private static void notifyInitListeners(boolean success) {
+        for (MediationWarmUp.InitializationListener listener : sInitListeners) {
+            sInitListeners.remove(listener);
+            listener.onInitializationFinished(success);
+        }
     }
 
     public void setIncentivizedFields(String userID, String title, String body,
@@ -123,11 +211,20 @@ public class VungleRouter {
     public void loadAdForPlacement(String placementId, VungleRouterListener routerListener) {
         switch (sInitState) {
             case NOTINITIALIZED:
-                MoPubLog.w(ROUTER_TAG + "There should not be this case. loadAdForPlacement is called before initialization starts.");
+                MoPubLog.w(ROUTER_TAG + "loadAdForPlacement is called before initialization starts or after it failed for Placement ID: " + placementId);
+                routerListener.onLoadFailed(placementId, MoPubErrorCode.NETWORK_INVALID_STATE);
                 break;
 
             case INITIALIZING:
-                sWaitingList.put(placementId, routerListener);
+                addListener(sWaitingList, placementId, routerListener);
+
+                // Initialization may have finished after the state was read above, in which
+                // case the waiting list has already been drained and has to be drained again.
+                if (sInitState == SDKInitState.INITIALIZED) {
+                    clearWaitingList();
+                } else if (sInitState == SDKInitState.NOTINITIALIZED) {
+                    failWaitingList();
+                }
                 break;
 
             case INITIALIZED:
@@ -142,11 +239,16 @@ public class VungleRouter {
     }
 
     private void addRouterListener(String placementId, VungleRouterListener routerListener) {
-        sVungleRouterListeners.put(placementId, routerListener);
+        addListener(sVungleRouterListeners, placementId, routerListener);
     }
 
-    public void removeRouterListener(String placementId) {
-        sVungleRouterListeners.remove(placementId);
+    public void removeRouterListener(String placementId, VungleRouterListener routerListener) {
+        if (placementId == null || routerListener == null) {
+            return;
+        }
+
+        removeListener(sVungleRouterListeners, placementId, routerListener);
+        removeListener(sWaitingList, placementId, routerListener);
     }
 
     public boolean isAdPlayableForPlacement(String placementId) {
@@ -184,12 +286,56 @@ public class VungleRouter {
     }
 
     private void clearWaitingList() {
-        for (Map.Entry<String, VungleRouterListener> entry : sWaitingList.entrySet()) {
-            Vungle.loadAd(entry.getKey(), loadAdCallback);
-            sVungleRouterListeners.put(entry.getKey(), entry.getValue());
+        for (String placementId : sWaitingList.keySet()) {
+            final Set<VungleRouterListener> waitingListeners = sWaitingList.remove(placementId);
+            if (waitingListeners == null || waitingListeners.isEmpty()) {
+                continue;
+            }
+
+            for (VungleRouterListener listener : waitingListeners) {
+                addRouterListener(placementId, listener);
+            }
+            Vungle.loadAd(placementId, loadAdCallback);
         }
+    }
+
+    private static void failWaitingList() {
+        for (String placementId : sWaitingList.keySet()) {
+            final Set<VungleRouterListener> waitingListeners = sWaitingList.remove(placementId);
+            if (waitingListeners == null) {
+                continue;
+            }
+
+            for (VungleRouterListener listener : waitingListeners) {
+                listener.onLoadFailed(placementId, MoPubErrorCode.NETWORK_INVALID_STATE);
+            }
+        }
+    }
+
+    private static void addListener(ConcurrentMap<String, Set<VungleRouterListener>> table,
+                                    String placementId, VungleRouterListener routerListener) {
+        Set<VungleRouterListener> listeners = table.get(placementId);
+        if (listeners == null) {
+            final Set<VungleRouterListener> newListeners = new CopyOnWriteArraySet<>();
+            listeners = table.putIfAbsent(placementId, newListeners);
+            if (listeners == null) {
+                listeners = newListeners;
+            }
+        }
+        listeners.add(routerListener);
+    }
+
+    private static void removeListener(ConcurrentMap<String, Set<VungleRouterListener>> table,
+                                       String placementId, VungleRouterListener routerListener) {
+        final Set<VungleRouterListener> listeners = table.get(placementId);
+        if (listeners != null) {
+            listeners.remove(routerListener);
+        }
+    }
 
-        sWaitingList.clear();
+    private static Set<VungleRouterListener> getRouterListeners(String placementId) {
+        final Set<VungleRouterListener> listeners = sVungleRouterListeners.get(placementId);
+        return listeners == null || listeners.isEmpty() ? null : listeners;
     }
 
     private final PlayAdCallback playAdCallback = new PlayAdCallback() {
@@ -197,9 +343,11 @@ public class VungleRouter {
         public void onAdEnd(String id, boolean completed, boolean isCTAClicked) {
             MoPubLog.d(ROUTER_TAG + "onAdEnd - Placement ID: " + id);
 
-            VungleRouterListener targetListener = sVungleRouterListeners.get(id);
-            if (targetListener != null) {
-                targetListener.onAdEnd(id, completed, isCTAClicked);
+            final Set<VungleRouterListener> targetListeners = getRouterListeners(id);
+            if (targetListeners != null) {
+                for (VungleRouterListener targetListener : targetListeners) {
+                    targetListener.onAdEnd(id, completed, isCTAClicked);
+                }
             } else {
                 MoPubLog.w(ROUTER_TAG + "onAdEnd - VungleRouterListener is not found for Placement ID: " + id);
             }
@@ -209,9 +357,11 @@ public class VungleRouter {
         public void onAdStart(String id) {
             MoPubLog.d(ROUTER_TAG + "onAdStart - Placement ID: " + id);
 
-            VungleRouterListener targetListener = sVungleRouterListeners.get(id);
-            if (targetListener != null) {
-                targetListener.onAdStart(id);
+            final Set<VungleRouterListener> targetListeners = getRouterListeners(id);
+            if (targetListeners != null) {
+                for (VungleRouterListener targetListener : targetListeners) {
+                    targetListener.onAdStart(id);
+                }
             } else {
                 MoPubLog.w(ROUTER_TAG + "onAdStart - VungleRouterListener is not found for Placement ID: " + id);
             }
@@ -221,9 +371,11 @@ public class VungleRouter {
         public void onError(String id, Throwable error) {
             MoPubLog.d(ROUTER_TAG + "onUnableToPlayAd - Placement ID: " + id);
 
-            VungleRouterListener targetListener = sVungleRouterListeners.get(id);
-            if (targetListener != null) {
-                targetListener.onUnableToPlayAd(id, error.getLocalizedMessage());
+            final Set<VungleRouterListener> targetListeners = getRouterListeners(id);
+            if (targetListeners != null) {
+                for (VungleRouterListener targetListener : targetListeners) {
+                    targetListener.onUnableToPlayAd(id, error.getLocalizedMessage());
+                }
             } else {
                 MoPubLog.w(ROUTER_TAG + "onUnableToPlayAd - VungleRouterListener is not found for Placement ID: " + id);
             }
@@ -244,12 +396,54 @@ public class VungleRouter {
         private void onAdAvailabilityUpdate(String placementReferenceId, boolean isAdAvailable) {
             MoPubLog.d(ROUTER_TAG + "onAdAvailabilityUpdate - Placement ID: " + placementReferenceId);
 
-            VungleRouterListener targetListener = sVungleRouterListeners.get(placementReferenceId);
-            if (targetListener != null) {
-                targetListener.onAdAvailabilityUpdate(placementReferenceId, isAdAvailable);
+            final Set<VungleRouterListener> targetListeners = getRouterListeners(placementReferenceId);
+            if (targetListeners != null) {
+                for (VungleRouterListener targetListener : targetListeners) {
+                    targetListener.onAdAvailabilityUpdate(placementReferenceId, isAdAvailable);
+                }
             } else {
                 MoPubLog.w(ROUTER_TAG + "onAdAvailabilityUpdate - VungleRouterListener is not found for Placement ID: " + placementReferenceId);
             }
         }
     };
-}
\ No newline at end of file
+
+    /**
+     * Warms up the Vungle SDK at app start. See {@link MediationWarmUp}.
+     */
+    public static class WarmUpInitializer implements MediationWarmUp.Initializer {
+        @Override
+        public void initialize(@NonNull Activity activity,
+                               @NonNull Map<String, String> serverExtras,
+                               @NonNull MediationWarmUp.InitializationListener listener) {
+            final String appId = serverExtras.get(VungleInterstitial.APP_ID_KEY);
+            if (TextUtils.isEmpty(appId)) {
+                listener.onInitializationFinished(false);
+                return;
+            }
+
+            switch (sInitState) {
+                case INITIALIZED:
+                    listener.onInitializationFinished(true);
+                    break;
+
+                case INITIALIZING:
+                    // Report from the init callbacks, so the warm-up sees the real duration.
+                    sInitListeners.add(listener);
+
+                    // Initialization may have finished after the state was read above, in which
+                    // case the init listeners have already been notified.
+                    if (sInitState == SDKInitState.INITIALIZED) {
+                        notifyInitListeners(true);
+                    } else if (sInitState == SDKInitState.NOTINITIALIZED) {
+                        notifyInitListeners(false);
+                    }
+                    break;
+
+                case NOTINITIALIZED:
+                    sInitListeners.add(listener);
+                    getInstance().initVungle(activity, appId);
+                    break;
+            }
+        }
+    }
+}
@@ -10,4 +10,10 @@ public interface VungleRouterListener {
     void onUnableToPlayAd(@NonNull String var1, String var2);
 
     void onAdAvailabilityUpdate(@NonNull String var1, boolean var2);
+
+    /**
+     * Called instead of {@link #onAdAvailabilityUpdate(String, boolean)} when the ad could not
+     * be requested at all, e.g. because the Vungle SDK failed to initialize.
+     */
+    void onLoadFailed(@NonNull String placementReferenceId, @NonNull MoPubErrorCode errorCode);
 }